@@ -0,0 +1,29 @@
+-- Run against an accounts database that existed before this version of the service, with every
+-- instance stopped. schema.sql only creates what is missing and leaves existing tables and
+-- sequences as they are. Running the script again is harmless. See "Upgrading an existing
+-- database" in the README.
+
+-- Lookups by mobile_number and customer_id need the unique constraints below. They cannot be
+-- added while a value occurs twice, so first list the duplicates. If these queries return rows,
+-- stop and resolve them (keep one row per value); otherwise adding the constraint fails with a
+-- unique index violation and nothing after it runs.
+SELECT 'customer.mobile_number' AS `duplicate`, `mobile_number` AS `value`, COUNT(*) AS `rows` FROM `customer`
+  GROUP BY `mobile_number` HAVING COUNT(*) > 1;
+SELECT 'accounts.customer_id' AS `duplicate`, `customer_id` AS `value`, COUNT(*) AS `rows` FROM `accounts`
+  GROUP BY `customer_id` HAVING COUNT(*) > 1;
+
+-- rebuilt from scratch, so whatever an earlier build left under these names (a plain unique
+-- index, Hibernate's constraint or both) ends up as one constraint with one index
+ALTER TABLE `customer` DROP CONSTRAINT IF EXISTS `ux_customer_mobile_number`;
+DROP INDEX IF EXISTS `ux_customer_mobile_number`;
+ALTER TABLE `customer` ADD CONSTRAINT `ux_customer_mobile_number` UNIQUE (`mobile_number`);
+ALTER TABLE `accounts` DROP CONSTRAINT IF EXISTS `ux_accounts_customer_id`;
+DROP INDEX IF EXISTS `ux_accounts_customer_id`;
+ALTER TABLE `accounts` ADD CONSTRAINT `ux_accounts_customer_id` UNIQUE (`customer_id`);
+
+-- customer_id used to come from an AUTO_INCREMENT column. Hibernate hands out a block of 50 ids
+-- below each sequence value it reads, so the sequence restarts 50 above the highest id,
+-- and never below the start of a fresh sequence.
+CREATE SEQUENCE IF NOT EXISTS `customer_seq` START WITH 1000000000 INCREMENT BY 50;
+ALTER SEQUENCE `customer_seq` RESTART WITH
+  (SELECT GREATEST(COALESCE(MAX(`customer_id`), 0) + 50, 1000000000) FROM `customer`);
@@ -8,13 +8,19 @@ import io.swagger.v3.oas.annotations.info.License;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.viv.accounts.dto.AccountsContactInfoDto;
+import com.viv.common.sql.SqlLogProperties;
+import com.viv.common.sql.StatementBudgetProperties;
 
-@EnableConfigurationProperties(value = AccountsContactInfoDto.class)
-@SpringBootApplication
-@EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+@EnableConfigurationProperties(value = { AccountsContactInfoDto.class, StatementBudgetProperties.class, SqlLogProperties.class })
+@SpringBootApplication(scanBasePackages = { "com.viv.accounts", "com.viv.common" })
+@EnableCaching
+@EnableScheduling
+@RemoteApplicationEventScan(basePackages = "com.viv.accounts.event")
 @OpenAPIDefinition(info = @Info(title = "Accounts microservice REST API Documentation", description = "EazyBank Accounts microservice REST API Documentation", version = "v1", contact = @Contact(name = "Madan Reddy", email = "tutor@eazybytes.com", url = "https://www.eazybytes.com"), license = @License(name = "Apache 2.0", url = "https://www.eazybytes.com")), externalDocs = @ExternalDocumentation(description = "EazyBank Accounts microservice REST API Documentation", url = "https://www.eazybytes.com/swagger-ui.html"))
 public class AccountsApplication {
 
@@ -0,0 +1,100 @@
+package com.viv.accounts.cache;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.viv.accounts.constants.AccountsConstants;
+import com.viv.accounts.event.CustomerCacheEvictEvent;
+
+/**
+ * Keeps the customer profile cache coherent across all accounts instances.
+ * Entries are dropped locally right away and the eviction is broadcast over the
+ * bus so that the other replicas drop them as well. With the bus disabled
+ * (spring.cloud.bus.enabled=false) only the local cache is evicted.
+ */
+@Component
+public class CustomerCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerCacheInvalidator.class);
+
+    private final Cache customersCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusProperties busProperties;
+    private final Destination destination;
+
+    public CustomerCacheInvalidator(CacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+            ObjectProvider<BusProperties> busProperties, ObjectProvider<Destination.Factory> destinationFactory,
+            @Value("${spring.application.name}") String applicationName) {
+        this.customersCache = cacheManager.getCache(AccountsConstants.CUSTOMERS_CACHE);
+        this.eventPublisher = eventPublisher;
+        this.busProperties = busProperties.getIfAvailable();
+        Destination.Factory factory = destinationFactory.getIfAvailable();
+        this.destination = factory != null ? factory.getDestination(applicationName + ":**") : null;
+    }
+
+    /**
+     * @param mobileNumbers - Mobile Numbers whose cached profiles are stale
+     */
+    public void evict(String... mobileNumbers) {
+        evict(Stream.of(mobileNumbers).filter(Objects::nonNull).distinct().toList());
+    }
+
+    /**
+     * @param mobileNumbers - Mobile Numbers whose cached profiles are stale
+     */
+    public void evict(Collection<String> mobileNumbers) {
+        if (mobileNumbers.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // evicting before commit would let a concurrent fetch re-cache the old profile
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(mobileNumbers);
+                }
+            });
+        } else {
+            evictEverywhere(mobileNumbers);
+        }
+    }
+
+    private void evictEverywhere(Collection<String> mobileNumbers) {
+        evictLocally(mobileNumbers);
+        if (busProperties == null || destination == null) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(
+                    new CustomerCacheEvictEvent(this, busProperties.getId(), destination, mobileNumbers));
+        } catch (RuntimeException ex) {
+            // The local cache is already clean; remote replicas fall back to the TTL.
+            log.warn("Unable to broadcast customer cache eviction for {}", mobileNumbers, ex);
+        }
+    }
+
+    @EventListener
+    public void onCustomerCacheEvict(CustomerCacheEvictEvent event) {
+        evictLocally(event.getMobileNumbers());
+    }
+
+    private void evictLocally(Collection<String> mobileNumbers) {
+        mobileNumbers.forEach(customersCache::evict);
+    }
+
+}
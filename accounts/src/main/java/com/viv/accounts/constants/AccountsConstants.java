@@ -15,6 +15,20 @@ public final class AccountsConstants {
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
+    public static final String  STATUS_400 = "400";
+    public static final String  MESSAGE_400_DUPLICATE = "Customer already registered with given mobileNumber";
+    public static final String  STATUS_404 = "404";
+    public static final String  MESSAGE_404 = "No customer or account found for the given mobileNumber";
+    public static final int  BATCH_MAX_SIZE = 500;
+    public static final String  ACCOUNT_NUMBER_SEQUENCE = "account_number_seq";
+    public static final int  NUMBER_BLOCK_SIZE = 1000;
+    // first customer_id of the customer_seq sequence, above the ids the former AUTO_INCREMENT column handed out
+    public static final int  ID_SEQUENCE_START = 1_000_000_000;
+    public static final String AGGREGATE_CUSTOMER = "customer";
+    public static final String EVENT_CREATED = "created";
+    public static final String EVENT_UPDATED = "updated";
+    public static final String EVENT_DELETED = "deleted";
+    public static final String  CUSTOMERS_CACHE = "customers";
     // public static final String  STATUS_500 = "500";
     // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 
@@ -15,12 +15,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 import com.viv.accounts.constants.AccountsConstants;
 import com.viv.accounts.dto.AccountsContactInfoDto;
+import com.viv.accounts.dto.BatchItemResponseDto;
 import com.viv.accounts.dto.CustomerDto;
 import com.viv.accounts.dto.ErrorResponseDto;
 import com.viv.accounts.dto.ResponseDto;
+import com.viv.accounts.exception.GlobalExceptionHandler;
+import com.viv.accounts.exception.ResourceNotFoundException;
 import com.viv.accounts.service.IAccountsService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,7 +36,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 
 @Tag(name = "Account Service", description = "CRUD REST APIs to CREATE, UPDATE, FETCH AND DELETE account details")
@@ -66,14 +74,19 @@ public class AccountsController {
 
         @Operation(summary = "Fetch Account Details REST API", description = "REST API to fetch Customer &  Account details based on a mobile number")
         @ApiResponses({
-                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK", content = @Content(schema = @Schema(implementation = CustomerDto.class))),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
                         @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
         })
         @GetMapping("/fetch")
-        public ResponseEntity<CustomerDto> fetchAccountDetails(
-                        @RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String mobileNumber) {
-                CustomerDto customerDto = iAccountsService.fetchAccount(mobileNumber);
-                return ResponseEntity.status(HttpStatus.OK).body(customerDto);
+        public ResponseEntity<?> fetchAccountDetails(
+                        @RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String mobileNumber,
+                        WebRequest webRequest) {
+                // unknown numbers are answered without throwing, they are mostly probes
+                return iAccountsService.findAccount(mobileNumber)
+                                .<ResponseEntity<?>>map(customerDto -> ResponseEntity.status(HttpStatus.OK).body(customerDto))
+                                .orElseGet(() -> GlobalExceptionHandler.notFound(webRequest,
+                                                ResourceNotFoundException.message("Customer", "mobileNumber", mobileNumber)));
         }
 
         @Operation(summary = "Update Account Details REST API", description = "REST API to update Customer &  Account details based on a account number")
@@ -121,6 +134,48 @@ public class AccountsController {
                 }
         }
 
+        @Operation(summary = "Batch Create Account REST API", description = "REST API to create up to "
+                        + AccountsConstants.BATCH_MAX_SIZE + " Customers &  Accounts in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/create")
+        public ResponseEntity<List<BatchItemResponseDto<CustomerDto>>> createAccounts(
+                        @RequestBody @NotEmpty @Size(max = AccountsConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + AccountsConstants.BATCH_MAX_SIZE
+                                        + " customers per batch") List<@Valid CustomerDto> customerDtos) {
+                return ResponseEntity.status(HttpStatus.OK).body(iAccountsService.createAccounts(customerDtos));
+        }
+
+        @Operation(summary = "Batch Fetch Account Details REST API", description = "REST API to fetch Customer &  Account details of up to "
+                        + AccountsConstants.BATCH_MAX_SIZE + " mobile numbers in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/fetch")
+        public ResponseEntity<List<BatchItemResponseDto<CustomerDto>>> fetchAccountsDetails(
+                        @RequestBody @NotEmpty @Size(max = AccountsConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + AccountsConstants.BATCH_MAX_SIZE
+                                        + " mobile numbers per batch") List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+                return ResponseEntity.status(HttpStatus.OK).body(iAccountsService.fetchAccounts(mobileNumbers));
+        }
+
+        @Operation(summary = "Batch Delete Account & Customer Details REST API", description = "REST API to delete Customer &  Account details of up to "
+                        + AccountsConstants.BATCH_MAX_SIZE + " mobile numbers in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/delete")
+        public ResponseEntity<List<BatchItemResponseDto<CustomerDto>>> deleteAccountsDetails(
+                        @RequestBody @NotEmpty @Size(max = AccountsConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + AccountsConstants.BATCH_MAX_SIZE
+                                        + " mobile numbers per batch") List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+                return ResponseEntity.status(HttpStatus.OK).body(iAccountsService.deleteAccounts(mobileNumbers));
+        }
+
         @Operation(summary = "Get Build Version REST API", description = "REST API to get the build version of the service")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
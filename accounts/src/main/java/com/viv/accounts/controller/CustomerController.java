@@ -0,0 +1,48 @@
+package com.viv.accounts.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.viv.accounts.dto.CustomerDetailsDto;
+import com.viv.accounts.dto.ErrorResponseDto;
+import com.viv.accounts.service.ICustomersService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+
+@Tag(name = "Customer Service", description = "REST APIs to FETCH customer details across accounts, loans and cards")
+@RestController
+@RequestMapping(path = "/api", produces = { MediaType.APPLICATION_JSON_VALUE })
+@RequiredArgsConstructor
+@Validated
+public class CustomerController {
+
+        private final ICustomersService iCustomersService;
+
+        @Operation(summary = "Fetch Customer Details REST API", description = "REST API to fetch Customer, Account, Loan and Card details based on a mobile number. "
+                        + "Loans and cards are queried in parallel; a section is left out when its service fails or times out")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @GetMapping("/fetchCustomerDetails")
+        public ResponseEntity<CustomerDetailsDto> fetchCustomerDetails(
+                        @RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String mobileNumber) {
+                CustomerDetailsDto customerDetailsDto = iCustomersService.fetchCustomerDetails(mobileNumber);
+                return ResponseEntity.status(HttpStatus.OK).body(customerDetailsDto);
+        }
+
+}
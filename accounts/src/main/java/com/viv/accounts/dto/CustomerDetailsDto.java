@@ -0,0 +1,35 @@
+package com.viv.accounts.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(name = "CustomerDetails", description = "Schema to hold Customer, Account, Loan and Card information")
+public class CustomerDetailsDto {
+
+        @Schema(description = "Name of the customer", example = "Eazy Bytes")
+        private String name;
+
+        @Schema(description = "Email address of the customer", example = "tutor@eazybytes.com")
+        private String email;
+
+        @Schema(description = "Mobile Number of the customer", example = "9345432123")
+        private String mobileNumber;
+
+        @Schema(description = "Account details of the Customer")
+        private AccountsDto accountsDto;
+
+        @Schema(description = "Loan details of the Customer, absent when none exists or the loans service did not answer in time")
+        private LoansDto loansDto;
+
+        @Schema(description = "Card details of the Customer, absent when none exists or the cards service did not answer in time")
+        private CardsDto cardsDto;
+
+        @Schema(description = "Sections left out because their service failed or did not answer in time, empty when the details are complete",
+                example = "[\"cards\"]")
+        private List<String> unavailableSections = new ArrayList<>();
+
+}
@@ -2,14 +2,16 @@ package com.viv.accounts.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 @Entity
+@Table(indexes = @Index(name = "ux_accounts_customer_id", columnList = "customer_id", unique = true))
 @Getter
 @Setter
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-public class Accounts extends BaseEntity {
+public class Accounts extends BaseEntity implements Persistable<Long> {
 
     @Column(name = "customer_id")
     private Long customerId;
@@ -24,4 +26,30 @@ public class Accounts extends BaseEntity {
     @Column(name = "branch_address")
     private String branchAddress;
 
+    /**
+     * The account number is assigned by the application, so without this flag
+     * save() would issue a SELECT before every INSERT to tell new from existing rows.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean persisted;
+
+    @Override
+    public Long getId() {
+        return accountNumber;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
 }
@@ -3,12 +3,17 @@ package com.viv.accounts.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import com.viv.accounts.constants.AccountsConstants;
+
 @Entity
+@Table(indexes = @Index(name = "ux_customer_mobile_number", columnList = "mobile_number", unique = true))
 @Getter @Setter @ToString @AllArgsConstructor @NoArgsConstructor
 public class Customer extends  BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50,
+            initialValue = AccountsConstants.ID_SEQUENCE_START)
     @Column(name="customer_id")
     private Long customerId;
 
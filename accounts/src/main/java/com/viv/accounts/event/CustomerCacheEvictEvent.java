@@ -0,0 +1,32 @@
+package com.viv.accounts.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * Bus event telling every accounts instance to drop the cached customer
+ * profiles of the given mobile numbers.
+ */
+@Getter
+public class CustomerCacheEvictEvent extends RemoteApplicationEvent {
+
+    private List<String> mobileNumbers;
+
+    @SuppressWarnings("unused")
+    private CustomerCacheEvictEvent() {
+        // for serializers
+    }
+
+    public CustomerCacheEvictEvent(Object source, String originService, Destination destination,
+            Collection<String> mobileNumbers) {
+        super(source, originService, destination);
+        this.mobileNumbers = new ArrayList<>(mobileNumbers);
+    }
+
+}
@@ -3,11 +3,37 @@ package com.viv.accounts.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+/**
+ * Unknown lookups are routine (bots probe random mobile numbers), so this exception
+ * skips the stack trace and only builds its message when it is asked for.
+ */
 @ResponseStatus(value = HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException {
 
+    private final String resourceName;
+    private final String fieldName;
+    private final String fieldValue;
+
     public ResourceNotFoundException(String resourceName, String fieldName, String fieldValue) {
-        super(String.format("%s not found with the given input data %s : '%s'", resourceName, fieldName, fieldValue));
+        super(null, null, false, false);
+        this.resourceName = resourceName;
+        this.fieldName = fieldName;
+        this.fieldValue = fieldValue;
+    }
+
+    @Override
+    public String getMessage() {
+        return message(resourceName, fieldName, fieldValue);
+    }
+
+    /**
+     * @param resourceName - what was looked up, e.g. "Customer"
+     * @param fieldName - the field it was looked up by
+     * @param fieldValue - the value that matched nothing
+     * @return the not-found message, also used where no exception is thrown
+     */
+    public static String message(String resourceName, String fieldName, String fieldValue) {
+        return resourceName + " not found with the given input data " + fieldName + " : '" + fieldValue + "'";
     }
 
 }
@@ -0,0 +1,31 @@
+package com.viv.accounts.generator;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Component;
+
+import com.viv.accounts.constants.AccountsConstants;
+import com.viv.common.generator.SequenceBlockAllocator;
+
+/**
+ * Allocates unique 10 digit account numbers: the values of account_number_seq, reserved
+ * in blocks of {@link AccountsConstants#NUMBER_BLOCK_SIZE}.
+ */
+@Component
+public class AccountNumberGenerator {
+
+    private final SequenceBlockAllocator allocator;
+
+    public AccountNumberGenerator(DataSource dataSource) {
+        this.allocator = new SequenceBlockAllocator(dataSource, AccountsConstants.ACCOUNT_NUMBER_SEQUENCE,
+                AccountsConstants.NUMBER_BLOCK_SIZE);
+    }
+
+    /**
+     * @return a new, never issued account number
+     */
+    public long nextAccountNumber() {
+        return allocator.next();
+    }
+
+}
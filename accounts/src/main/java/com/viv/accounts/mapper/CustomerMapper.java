@@ -1,5 +1,6 @@
 package com.viv.accounts.mapper;
 
+import com.viv.accounts.dto.CustomerDetailsDto;
 import com.viv.accounts.dto.CustomerDto;
 import com.viv.accounts.entity.Customer;
 
@@ -12,6 +13,15 @@ public class CustomerMapper {
         return customerDto;
     }
 
+    public static CustomerDetailsDto mapToCustomerDetailsDto(CustomerDto customerDto,
+            CustomerDetailsDto customerDetailsDto) {
+        customerDetailsDto.setName(customerDto.getName());
+        customerDetailsDto.setEmail(customerDto.getEmail());
+        customerDetailsDto.setMobileNumber(customerDto.getMobileNumber());
+        customerDetailsDto.setAccountsDto(customerDto.getAccountsDto());
+        return customerDetailsDto;
+    }
+
     public static Customer mapToCustomer(CustomerDto customerDto, Customer customer) {
         customer.setName(customerDto.getName());
         customer.setEmail(customerDto.getEmail());
@@ -4,8 +4,12 @@ import com.viv.accounts.entity.Accounts;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +21,21 @@ public interface AccountsRepository extends JpaRepository<Accounts, Long> {
     @Modifying
     void deleteByCustomerId(Long customerId);
 
+    @Modifying
+    @Query("delete from Accounts a where a.customerId in :customerIds")
+    int deleteAllByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+
+    @Query("select a.customerId from Accounts a where a.accountNumber = :accountNumber")
+    Optional<Long> findCustomerIdByAccountNumber(@Param("accountNumber") Long accountNumber);
+
+    /**
+     * @return number of updated rows, 0 when no account exists with the given account number
+     */
+    @Modifying
+    @Query("update Accounts a set a.accountType = :accountType, a.branchAddress = :branchAddress, "
+            + "a.updatedAt = :updatedAt, a.updatedBy = :updatedBy where a.accountNumber = :accountNumber")
+    int updateAccountDetails(@Param("accountNumber") Long accountNumber, @Param("accountType") String accountType,
+            @Param("branchAddress") String branchAddress,
+            @Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
 }
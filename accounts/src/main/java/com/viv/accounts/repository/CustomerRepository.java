@@ -2,8 +2,14 @@ package com.viv.accounts.repository;
 
 import com.viv.accounts.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,33 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer> findByMobileNumber(String mobileNumber);
 
+    List<Customer> findAllByMobileNumberIn(Collection<String> mobileNumbers);
+
+    @Query("select c as customer, a as accounts from Customer c "
+            + "left join Accounts a on a.customerId = c.customerId where c.mobileNumber = :mobileNumber")
+    Optional<CustomerWithAccounts> findWithAccountsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query("select c as customer, a as accounts from Customer c "
+            + "left join Accounts a on a.customerId = c.customerId where c.mobileNumber in :mobileNumbers")
+    List<CustomerWithAccounts> findAllWithAccountsByMobileNumberIn(
+            @Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    @Query("select c from Customer c "
+            + "where c.customerId = (select a.customerId from Accounts a where a.accountNumber = :accountNumber)")
+    Optional<Customer> findByAccountNumber(@Param("accountNumber") Long accountNumber);
+
+    /**
+     * Updates the customer owning the given account in place, provided its mobile number is unchanged.
+     *
+     * @return number of updated rows, 0 when the customer does not exist or has another mobile number
+     */
+    @Modifying
+    @Query("update Customer c set c.name = :name, c.email = :email, "
+            + "c.updatedAt = :updatedAt, c.updatedBy = :updatedBy "
+            + "where c.mobileNumber = :mobileNumber "
+            + "and c.customerId = (select a.customerId from Accounts a where a.accountNumber = :accountNumber)")
+    int updateCustomerDetails(@Param("accountNumber") Long accountNumber, @Param("mobileNumber") String mobileNumber,
+            @Param("name") String name, @Param("email") String email,
+            @Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
 }
@@ -0,0 +1,18 @@
+package com.viv.accounts.repository;
+
+import com.viv.accounts.entity.Accounts;
+import com.viv.accounts.entity.Customer;
+
+/**
+ * Projection holding a customer together with its account, loaded in a single statement.
+ */
+public interface CustomerWithAccounts {
+
+    Customer getCustomer();
+
+    /**
+     * @return the account of the customer, or null when none exists
+     */
+    Accounts getAccounts();
+
+}
@@ -1,5 +1,9 @@
 package com.viv.accounts.service;
 
+import java.util.List;
+import java.util.Optional;
+
+import com.viv.accounts.dto.BatchItemResponseDto;
 import com.viv.accounts.dto.CustomerDto;
 
 public interface IAccountsService {
@@ -17,6 +21,13 @@ public interface IAccountsService {
      */
     CustomerDto fetchAccount(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return Accounts Details based on a given mobileNumber, empty when there is no such customer
+     */
+    Optional<CustomerDto> findAccount(String mobileNumber);
+
     /**
      *
      * @param customerDto - CustomerDto Object
@@ -33,4 +44,25 @@ public interface IAccountsService {
      */
     boolean deleteAccount(String mobileNumber);
 
+    /**
+     *
+     * @param customerDtos - CustomerDto Objects
+     * @return creation outcome of every customer, in request order
+     */
+    List<BatchItemResponseDto<CustomerDto>> createAccounts(List<CustomerDto> customerDtos);
+
+    /**
+     *
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return Accounts Details or not found outcome of every mobileNumber, in request order
+     */
+    List<BatchItemResponseDto<CustomerDto>> fetchAccounts(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return delete outcome of every mobileNumber, in request order
+     */
+    List<BatchItemResponseDto<CustomerDto>> deleteAccounts(List<String> mobileNumbers);
+
 }
@@ -0,0 +1,15 @@
+package com.viv.accounts.service;
+
+import com.viv.accounts.dto.CustomerDetailsDto;
+
+public interface ICustomersService {
+
+    /**
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer, Account, Loan and Card Details based on a given mobileNumber;
+     *         loan and card details are left out when their service fails or is too slow
+     */
+    CustomerDetailsDto fetchCustomerDetails(String mobileNumber);
+
+}
@@ -0,0 +1,48 @@
+package com.viv.accounts.service.client;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import com.viv.accounts.dto.CardsDto;
+
+/**
+ * Calls the cards microservice. Connect and read timeouts come from
+ * {@code downstream.cards.timeout} so a slow cards service cannot hold a request
+ * longer than that budget.
+ */
+@Component
+public class CardsClient {
+
+    private final RestClient restClient;
+
+    public CardsClient(RestClient.Builder restClientBuilder,
+            @Value("${downstream.cards.url:http://localhost:9000}") String baseUrl,
+            @Value("${downstream.cards.timeout:500ms}") Duration timeout) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder.baseUrl(baseUrl).requestFactory(requestFactory).build();
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Card Details based on a given mobileNumber, or null when the customer has no card
+     */
+    public CardsDto fetchCard(String mobileNumber) {
+        try {
+            return restClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/fetch").queryParam("mobileNumber", mobileNumber).build())
+                    .retrieve()
+                    .body(CardsDto.class);
+        } catch (HttpClientErrorException.NotFound ex) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.viv.accounts.service.client;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import com.viv.accounts.dto.LoansDto;
+
+/**
+ * Calls the loans microservice. Connect and read timeouts come from
+ * {@code downstream.loans.timeout} so a slow loans service cannot hold a request
+ * longer than that budget.
+ */
+@Component
+public class LoansClient {
+
+    private final RestClient restClient;
+
+    public LoansClient(RestClient.Builder restClientBuilder,
+            @Value("${downstream.loans.url:http://localhost:8090}") String baseUrl,
+            @Value("${downstream.loans.timeout:500ms}") Duration timeout) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = restClientBuilder.baseUrl(baseUrl).requestFactory(requestFactory).build();
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return Loan Details based on a given mobileNumber, or null when the customer has no loan
+     */
+    public LoansDto fetchLoan(String mobileNumber) {
+        try {
+            return restClient.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/fetch").queryParam("mobileNumber", mobileNumber).build())
+                    .retrieve()
+                    .body(LoansDto.class);
+        } catch (HttpClientErrorException.NotFound ex) {
+            return null;
+        }
+    }
+
+}
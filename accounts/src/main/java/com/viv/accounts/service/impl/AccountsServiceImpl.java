@@ -1,23 +1,42 @@
 package com.viv.accounts.service.impl;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Service;
 
+import com.viv.accounts.cache.CustomerCacheInvalidator;
 import com.viv.accounts.constants.AccountsConstants;
 import com.viv.accounts.dto.AccountsDto;
+import com.viv.accounts.dto.BatchItemResponseDto;
 import com.viv.accounts.dto.CustomerDto;
 import com.viv.accounts.entity.Accounts;
 import com.viv.accounts.entity.Customer;
+import com.viv.accounts.generator.AccountNumberGenerator;
 import com.viv.accounts.exception.CustomerAlreadyExistsException;
 import com.viv.accounts.exception.ResourceNotFoundException;
 import com.viv.accounts.mapper.AccountsMapper;
 import com.viv.accounts.mapper.CustomerMapper;
 import com.viv.accounts.repository.AccountsRepository;
 import com.viv.accounts.repository.CustomerRepository;
+import com.viv.accounts.repository.CustomerWithAccounts;
 import com.viv.accounts.service.IAccountsService;
+import com.viv.common.audit.AuditLogWriter;
+import com.viv.common.outbox.OutboxWriter;
 
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 
 @Service
@@ -26,11 +45,17 @@ public class AccountsServiceImpl implements IAccountsService {
 
     private AccountsRepository accountsRepository;
     private CustomerRepository customerRepository;
+    private AccountNumberGenerator accountNumberGenerator;
+    private CustomerCacheInvalidator customerCacheInvalidator;
+    private AuditorAware<String> auditAwareImpl;
+    private OutboxWriter outboxWriter;
+    private ObjectProvider<AuditLogWriter> auditLogWriter;
 
     /**
      * @param customerDto - CustomerDto Object
      */
     @Override
+    @Transactional
     public void createAccount(CustomerDto customerDto) {
         Customer customer = CustomerMapper.mapToCustomer(customerDto, new Customer());
         Optional<Customer> optionalCustomer = customerRepository.findByMobileNumber(customerDto.getMobileNumber());
@@ -39,7 +64,20 @@ public class AccountsServiceImpl implements IAccountsService {
                     + customerDto.getMobileNumber());
         }
         Customer savedCustomer = customerRepository.save(customer);
-        accountsRepository.save(createNewAccount(savedCustomer));
+        Accounts savedAccount = accountsRepository.save(createNewAccount(savedCustomer));
+        outboxWriter.append(AccountsConstants.AGGREGATE_CUSTOMER, AccountsConstants.EVENT_CREATED,
+                savedCustomer.getMobileNumber(), toCustomerDto(savedCustomer, savedAccount));
+    }
+
+    /**
+     * @param customer - Customer Object
+     * @param accounts - Accounts Object of the customer
+     * @return Customer details including the account
+     */
+    private CustomerDto toCustomerDto(Customer customer, Accounts accounts) {
+        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+        return customerDto;
     }
 
     /**
@@ -49,9 +87,7 @@ public class AccountsServiceImpl implements IAccountsService {
     private Accounts createNewAccount(Customer customer) {
         Accounts newAccount = new Accounts();
         newAccount.setCustomerId(customer.getCustomerId());
-        long randomAccNumber = 1000000000L + new Random().nextInt(900000000);
-
-        newAccount.setAccountNumber(randomAccNumber);
+        newAccount.setAccountNumber(accountNumberGenerator.nextAccountNumber());
         newAccount.setAccountType(AccountsConstants.SAVINGS);
         newAccount.setBranchAddress(AccountsConstants.ADDRESS);
         return newAccount;
@@ -62,14 +98,30 @@ public class AccountsServiceImpl implements IAccountsService {
      * @return Accounts Details based on a given mobileNumber
      */
     @Override
+    @Cacheable(cacheNames = AccountsConstants.CUSTOMERS_CACHE, key = "#mobileNumber")
     public CustomerDto fetchAccount(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        return findAccount(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
-        Accounts accounts = accountsRepository.findByCustomerId(customer.getCustomerId()).orElseThrow(
-                () -> new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString()));
-        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
-        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
-        return customerDto;
+    }
+
+    /**
+     * @param mobileNumber - Input Mobile Number
+     * @return Accounts Details based on a given mobileNumber, empty when there is no such customer
+     */
+    @Override
+    @Cacheable(cacheNames = AccountsConstants.CUSTOMERS_CACHE, key = "#mobileNumber", unless = "#result == null")
+    public Optional<CustomerDto> findAccount(String mobileNumber) {
+        return customerRepository.findWithAccountsByMobileNumber(mobileNumber).map(customerWithAccounts -> {
+            Customer customer = customerWithAccounts.getCustomer();
+            Accounts accounts = customerWithAccounts.getAccounts();
+            if (accounts == null) {
+                // not a probe: keep the "Account not found" answer fetchAccount always gave
+                throw new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString());
+            }
+            CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+            customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+            return customerDto;
+        });
     }
 
     /**
@@ -78,21 +130,53 @@ public class AccountsServiceImpl implements IAccountsService {
      *         not
      */
     @Override
+    @Transactional
     public boolean updateAccount(CustomerDto customerDto) {
         boolean isUpdated = false;
         AccountsDto accountsDto = customerDto.getAccountsDto();
         if (accountsDto != null) {
-            Accounts accounts = accountsRepository.findById(accountsDto.getAccountNumber()).orElseThrow(
-                    () -> new ResourceNotFoundException("Account", "AccountNumber",
-                            accountsDto.getAccountNumber().toString()));
-            AccountsMapper.mapToAccounts(accountsDto, accounts);
-            accounts = accountsRepository.save(accounts);
-
-            Long customerId = accounts.getCustomerId();
-            Customer customer = customerRepository.findById(customerId).orElseThrow(
-                    () -> new ResourceNotFoundException("Customer", "CustomerID", customerId.toString()));
-            CustomerMapper.mapToCustomer(customerDto, customer);
-            customerRepository.save(customer);
+            Long accountNumber = accountsDto.getAccountNumber();
+            LocalDateTime updatedAt = LocalDateTime.now();
+            String updatedBy = auditAwareImpl.getCurrentAuditor().orElse(null);
+            int accountsUpdated = accountsRepository.updateAccountDetails(accountNumber,
+                    accountsDto.getAccountType(), accountsDto.getBranchAddress(), updatedAt, updatedBy);
+            if (accountsUpdated == 0) {
+                throw new ResourceNotFoundException("Account", "AccountNumber", String.valueOf(accountNumber));
+            }
+            // the bulk updates read neither row, so the history has the new values only
+            auditLogWriter.ifAvailable(writer -> writer.recordBulk(Accounts.class, accountNumber, Map.of(
+                    "accountType", new Object[] { null, accountsDto.getAccountType() },
+                    "branchAddress", new Object[] { null, accountsDto.getBranchAddress() },
+                    "updatedAt", new Object[] { null, updatedAt },
+                    "updatedBy", new Object[] { null, updatedBy })));
+
+            int customersUpdated = customerRepository.updateCustomerDetails(accountNumber,
+                    customerDto.getMobileNumber(), customerDto.getName(), customerDto.getEmail(),
+                    updatedAt, updatedBy);
+            if (customersUpdated == 0) {
+                // The mobile number itself changes: the previous one is needed to evict its cache entry
+                Customer customer = customerRepository.findByAccountNumber(accountNumber).orElseThrow(
+                        () -> new ResourceNotFoundException("Customer", "AccountNumber",
+                                accountNumber.toString()));
+                String previousMobileNumber = customer.getMobileNumber();
+                CustomerMapper.mapToCustomer(customerDto, customer);
+                customerRepository.save(customer);
+                customerCacheInvalidator.evict(previousMobileNumber, customer.getMobileNumber());
+                // keyed by the number the customer was known under until now
+                outboxWriter.append(AccountsConstants.AGGREGATE_CUSTOMER, AccountsConstants.EVENT_UPDATED,
+                        previousMobileNumber, customerDto);
+            } else {
+                // nor does it know the customer id, which the history is keyed by like the entity updates
+                auditLogWriter.ifAvailable(writer -> writer.recordBulk(Customer.class,
+                        accountsRepository.findCustomerIdByAccountNumber(accountNumber).orElseThrow(),
+                        Map.of("name", new Object[] { null, customerDto.getName() },
+                                "email", new Object[] { null, customerDto.getEmail() },
+                                "updatedAt", new Object[] { null, updatedAt },
+                                "updatedBy", new Object[] { null, updatedBy })));
+                customerCacheInvalidator.evict(customerDto.getMobileNumber());
+                outboxWriter.append(AccountsConstants.AGGREGATE_CUSTOMER, AccountsConstants.EVENT_UPDATED,
+                        customerDto.getMobileNumber(), customerDto);
+            }
             isUpdated = true;
         }
         return isUpdated;
@@ -104,12 +188,116 @@ public class AccountsServiceImpl implements IAccountsService {
      *         not
      */
     @Override
+    @Transactional
     public boolean deleteAccount(String mobileNumber) {
         Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
         accountsRepository.deleteByCustomerId(customer.getCustomerId());
         customerRepository.deleteById(customer.getCustomerId());
+        customerCacheInvalidator.evict(mobileNumber);
+        outboxWriter.append(AccountsConstants.AGGREGATE_CUSTOMER, AccountsConstants.EVENT_DELETED, mobileNumber,
+                CustomerMapper.mapToCustomerDto(customer, new CustomerDto()));
         return true;
     }
 
+    /**
+     * @param customerDtos - CustomerDto Objects
+     * @return creation outcome of every customer, in request order
+     */
+    @Override
+    @Transactional
+    public List<BatchItemResponseDto<CustomerDto>> createAccounts(List<CustomerDto> customerDtos) {
+        Set<String> registeredMobileNumbers = customerRepository.findAllByMobileNumberIn(
+                customerDtos.stream().map(CustomerDto::getMobileNumber).toList())
+                .stream().map(Customer::getMobileNumber).collect(Collectors.toCollection(HashSet::new));
+        List<BatchItemResponseDto<CustomerDto>> results = new ArrayList<>(customerDtos.size());
+        List<Customer> newCustomers = new ArrayList<>(customerDtos.size());
+        for (CustomerDto customerDto : customerDtos) {
+            String mobileNumber = customerDto.getMobileNumber();
+            // add() also rejects a mobile number repeated within the same batch
+            if (!registeredMobileNumbers.add(mobileNumber)) {
+                results.add(new BatchItemResponseDto<>(mobileNumber, AccountsConstants.STATUS_400,
+                        AccountsConstants.MESSAGE_400_DUPLICATE, null));
+                continue;
+            }
+            newCustomers.add(CustomerMapper.mapToCustomer(customerDto, new Customer()));
+            results.add(new BatchItemResponseDto<>(mobileNumber, AccountsConstants.STATUS_201,
+                    AccountsConstants.MESSAGE_201, null));
+        }
+        List<Customer> savedCustomers = customerRepository.saveAll(newCustomers);
+        List<Accounts> savedAccounts = accountsRepository.saveAll(
+                savedCustomers.stream().map(this::createNewAccount).toList());
+        List<CustomerDto> createdCustomers = new ArrayList<>(savedCustomers.size());
+        for (int i = 0; i < savedCustomers.size(); i++) {
+            createdCustomers.add(toCustomerDto(savedCustomers.get(i), savedAccounts.get(i)));
+        }
+        outboxWriter.appendAll(AccountsConstants.AGGREGATE_CUSTOMER, AccountsConstants.EVENT_CREATED,
+                createdCustomers, CustomerDto::getMobileNumber);
+        return results;
+    }
+
+    /**
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return Accounts Details or not found outcome of every mobileNumber, in request order
+     */
+    @Override
+    public List<BatchItemResponseDto<CustomerDto>> fetchAccounts(List<String> mobileNumbers) {
+        Map<String, CustomerDto> customerDtos = new HashMap<>();
+        for (CustomerWithAccounts customerWithAccounts : customerRepository
+                .findAllWithAccountsByMobileNumberIn(mobileNumbers)) {
+            if (customerWithAccounts.getAccounts() != null) {
+                CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customerWithAccounts.getCustomer(),
+                        new CustomerDto());
+                customerDto.setAccountsDto(
+                        AccountsMapper.mapToAccountsDto(customerWithAccounts.getAccounts(), new AccountsDto()));
+                customerDtos.put(customerDto.getMobileNumber(), customerDto);
+            }
+        }
+        List<BatchItemResponseDto<CustomerDto>> results = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            CustomerDto customerDto = customerDtos.get(mobileNumber);
+            results.add(customerDto != null
+                    ? new BatchItemResponseDto<>(mobileNumber, AccountsConstants.STATUS_200,
+                            AccountsConstants.MESSAGE_200, customerDto)
+                    : new BatchItemResponseDto<>(mobileNumber, AccountsConstants.STATUS_404,
+                            AccountsConstants.MESSAGE_404, null));
+        }
+        return results;
+    }
+
+    /**
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return delete outcome of every mobileNumber, in request order
+     */
+    @Override
+    @Transactional
+    public List<BatchItemResponseDto<CustomerDto>> deleteAccounts(List<String> mobileNumbers) {
+        List<CustomerWithAccounts> customersWithAccounts = customerRepository
+                .findAllWithAccountsByMobileNumberIn(mobileNumbers);
+        List<Customer> customers = customersWithAccounts.stream().map(CustomerWithAccounts::getCustomer).toList();
+        List<Long> customerIds = customers.stream().map(Customer::getCustomerId).toList();
+        Set<String> deletedMobileNumbers = customers.stream().map(Customer::getMobileNumber)
+                .collect(Collectors.toSet());
+        if (!customerIds.isEmpty()) {
+            accountsRepository.deleteAllByCustomerIdIn(customerIds);
+            customerRepository.deleteAllByIdInBatch(customerIds);
+            auditLogWriter.ifAvailable(writer -> writer.recordDeleted(Stream.concat(customers.stream(),
+                    customersWithAccounts.stream().map(CustomerWithAccounts::getAccounts).filter(Objects::nonNull))
+                    .toList()));
+            customerCacheInvalidator.evict(deletedMobileNumbers);
+            outboxWriter.appendAll(AccountsConstants.AGGREGATE_CUSTOMER, AccountsConstants.EVENT_DELETED,
+                    customers.stream().map(c -> CustomerMapper.mapToCustomerDto(c, new CustomerDto())).toList(),
+                    CustomerDto::getMobileNumber);
+        }
+        List<BatchItemResponseDto<CustomerDto>> results = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            results.add(deletedMobileNumbers.contains(mobileNumber)
+                    ? new BatchItemResponseDto<>(mobileNumber, AccountsConstants.STATUS_200,
+                            AccountsConstants.MESSAGE_200, null)
+                    : new BatchItemResponseDto<>(mobileNumber, AccountsConstants.STATUS_404,
+                            AccountsConstants.MESSAGE_404, null));
+        }
+        return results;
+    }
+
 }
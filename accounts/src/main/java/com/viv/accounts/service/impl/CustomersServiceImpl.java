@@ -0,0 +1,119 @@
+package com.viv.accounts.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.viv.accounts.dto.CardsDto;
+import com.viv.accounts.dto.CustomerDetailsDto;
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.accounts.dto.LoansDto;
+import com.viv.accounts.mapper.CustomerMapper;
+import com.viv.accounts.service.IAccountsService;
+import com.viv.accounts.service.ICustomersService;
+import com.viv.accounts.service.client.CardsClient;
+import com.viv.accounts.service.client.LoansClient;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class CustomersServiceImpl implements ICustomersService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomersServiceImpl.class);
+
+    private final IAccountsService iAccountsService;
+    private final LoansClient loansClient;
+    private final CardsClient cardsClient;
+    private final Duration loansTimeout;
+    private final Duration cardsTimeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CustomersServiceImpl(IAccountsService iAccountsService, LoansClient loansClient,
+            CardsClient cardsClient,
+            @Value("${downstream.loans.timeout:500ms}") Duration loansTimeout,
+            @Value("${downstream.cards.timeout:500ms}") Duration cardsTimeout) {
+        this.iAccountsService = iAccountsService;
+        this.loansClient = loansClient;
+        this.cardsClient = cardsClient;
+        this.loansTimeout = loansTimeout;
+        this.cardsTimeout = cardsTimeout;
+    }
+
+    /**
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer, Account, Loan and Card Details based on a given mobileNumber
+     */
+    @Override
+    public CustomerDetailsDto fetchCustomerDetails(String mobileNumber) {
+        // Loans and cards are requested first so they run while the local lookup is in progress
+        CompletableFuture<LoansDto> loansDto = fetchAsync(loansTimeout, () -> loansClient.fetchLoan(mobileNumber));
+        CompletableFuture<CardsDto> cardsDto = fetchAsync(cardsTimeout, () -> cardsClient.fetchCard(mobileNumber));
+        CustomerDto customerDto;
+        try {
+            customerDto = iAccountsService.fetchAccount(mobileNumber);
+        } catch (RuntimeException ex) {
+            loansDto.cancel(true);
+            cardsDto.cancel(true);
+            throw ex;
+        }
+        CustomerDetailsDto customerDetailsDto = CustomerMapper.mapToCustomerDetailsDto(customerDto,
+                new CustomerDetailsDto());
+        customerDetailsDto.setLoansDto(join("loans", loansDto, customerDetailsDto));
+        customerDetailsDto.setCardsDto(join("cards", cardsDto, customerDetailsDto));
+        return customerDetailsDto;
+    }
+
+    /**
+     * The call's connect and read timeouts do not bound the whole exchange (a slow body or
+     * DNS lookup can outlast them), so the future also times out after the dependency's
+     * budget and interrupts the call. Cancelling the future interrupts the call as well.
+     */
+    private <T> CompletableFuture<T> fetchAsync(Duration timeout, Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(call.get());
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, ex) -> task.cancel(true));
+        return result;
+    }
+
+    /**
+     * Failures and timeouts degrade to a missing section instead of an error. The section
+     * is listed as unavailable, so callers can tell it from a customer without one.
+     */
+    private static <T> T join(String dependency, CompletableFuture<T> future, CustomerDetailsDto customerDetailsDto) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            log.warn("Leaving {} details out of the customer details: {}", dependency, ex.getCause().toString());
+        } catch (CancellationException ex) {
+            // cancelled along with the request
+        }
+        customerDetailsDto.getUnavailableSections().add(dependency);
+        return null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+
+}
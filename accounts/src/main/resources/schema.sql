@@ -1,3 +1,9 @@
+-- starts above the ids the former AUTO_INCREMENT customer_id handed out (AccountsConstants.ID_SEQUENCE_START)
+CREATE SEQUENCE IF NOT EXISTS `customer_seq` START WITH 1000000000 INCREMENT BY 50;
+
+-- handed out in blocks of AccountsConstants.NUMBER_BLOCK_SIZE, above the legacy random range
+CREATE SEQUENCE IF NOT EXISTS `account_number_seq` START WITH 2000000000 INCREMENT BY 1000;
+
 CREATE TABLE IF NOT EXISTS `customer` (
   `customer_id` int AUTO_INCREMENT  PRIMARY KEY,
   `name` varchar(100) NOT NULL,
@@ -9,13 +15,47 @@ CREATE TABLE IF NOT EXISTS `customer` (
     `updated_by` varchar(20) DEFAULT NULL
 );
 
+ALTER TABLE `customer` ADD CONSTRAINT IF NOT EXISTS `ux_customer_mobile_number` UNIQUE (`mobile_number`);
+
 CREATE TABLE IF NOT EXISTS `accounts` (
   `customer_id` int NOT NULL,
-   `account_number` int AUTO_INCREMENT  PRIMARY KEY,
+   `account_number` bigint PRIMARY KEY,
   `account_type` varchar(100) NOT NULL,
   `branch_address` varchar(200) NOT NULL,
   `created_at` date NOT NULL,
    `created_by` varchar(20) NOT NULL,
    `updated_at` date DEFAULT NULL,
     `updated_by` varchar(20) DEFAULT NULL
-);
\ No newline at end of file
+);
+
+ALTER TABLE `accounts` ADD CONSTRAINT IF NOT EXISTS `ux_accounts_customer_id` UNIQUE (`customer_id`);
+
+-- change history written by AuditLogWriter; changes maps each touched property to [old, new]
+CREATE TABLE IF NOT EXISTS `audit_log` (
+  `audit_id` bigint AUTO_INCREMENT PRIMARY KEY,
+  `entity_name` varchar(100) NOT NULL,
+  `entity_id` varchar(100) NOT NULL,
+  `action` varchar(10) NOT NULL,
+  `changes` text,
+  `changed_by` varchar(20) DEFAULT NULL,
+  `changed_at` timestamp NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS `ix_audit_log_entity` ON `audit_log` (`entity_name`, `entity_id`);
+
+-- domain events written in the same transaction as the change, published by OutboxRelay
+CREATE TABLE IF NOT EXISTS `outbox` (
+  `event_id` bigint AUTO_INCREMENT PRIMARY KEY,
+  `aggregate_type` varchar(50) NOT NULL,
+  `aggregate_id` varchar(100) NOT NULL,
+  `event_type` varchar(50) NOT NULL,
+  `payload` text NOT NULL,
+  `created_at` timestamp NOT NULL
+);
+
+-- the instance whose OutboxRelay is relaying, renewed per batch and released after each run
+CREATE TABLE IF NOT EXISTS `outbox_relay_lease` (
+  `lease_id` int PRIMARY KEY,
+  `owner` varchar(300) NOT NULL,
+  `expires_at` timestamp NOT NULL
+);
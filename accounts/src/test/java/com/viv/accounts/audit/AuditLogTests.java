@@ -0,0 +1,79 @@
+package com.viv.accounts.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.accounts.entity.Accounts;
+import com.viv.accounts.entity.Customer;
+import com.viv.accounts.service.IAccountsService;
+import com.viv.common.audit.AuditLogWriter;
+
+/**
+ * The bulk statements of updates and batch deletes, which Hibernate's events do not see.
+ */
+@SpringBootTest
+class AuditLogTests {
+
+	@Autowired
+	IAccountsService iAccountsService;
+
+	@Autowired
+	AuditLogWriter auditLogWriter;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void bulkUpdatesAreRecorded() {
+		CustomerDto customerDto = createAccount("7800000001");
+		customerDto.setName("Updated Name");
+		customerDto.getAccountsDto().setBranchAddress("1 New Street");
+
+		iAccountsService.updateAccount(customerDto);
+		auditLogWriter.flush();
+
+		assertThat(changes(Accounts.class, customerDto.getAccountsDto().getAccountNumber(), "UPDATE"))
+				.singleElement().asString().contains("1 New Street");
+		Long customerId = jdbcTemplate.queryForObject("select customer_id from customer where mobile_number = ?",
+				Long.class, "7800000001");
+		assertThat(changes(Customer.class, customerId, "UPDATE")).singleElement().asString()
+				.contains("Updated Name");
+	}
+
+	@Test
+	void batchDeletesAreRecorded() {
+		CustomerDto customerDto = createAccount("7800000002");
+
+		iAccountsService.deleteAccounts(List.of("7800000002"));
+		auditLogWriter.flush();
+
+		assertThat(changes(Accounts.class, customerDto.getAccountsDto().getAccountNumber(), "DELETE"))
+				.singleElement().asString().contains("branchAddress");
+		assertThat(jdbcTemplate.queryForList("""
+				select changes from audit_log where entity_name = ? and action = 'DELETE'""", String.class,
+				Customer.class.getName())).anySatisfy(changes -> assertThat(changes).contains("7800000002"));
+	}
+
+	private CustomerDto createAccount(String mobileNumber) {
+		CustomerDto customerDto = new CustomerDto();
+		customerDto.setName("Test Customer");
+		customerDto.setEmail("test@example.com");
+		customerDto.setMobileNumber(mobileNumber);
+		iAccountsService.createAccount(customerDto);
+		return iAccountsService.fetchAccount(mobileNumber);
+	}
+
+	private List<String> changes(Class<?> entityClass, Object entityId, String action) {
+		return jdbcTemplate.queryForList("""
+				select changes from audit_log where entity_name = ? and entity_id = ? and action = ?""", String.class,
+				entityClass.getName(), String.valueOf(entityId), action);
+	}
+
+}
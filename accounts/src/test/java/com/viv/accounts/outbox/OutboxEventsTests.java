@@ -0,0 +1,46 @@
+package com.viv.accounts.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.accounts.service.IAccountsService;
+
+/**
+ * The events the writes append; relaying them is tested in common.
+ */
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class OutboxEventsTests {
+
+	@Autowired
+	IAccountsService accountsService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void createAndDeleteAppendTheirEvents() {
+		CustomerDto customerDto = new CustomerDto();
+		customerDto.setName("Test Customer");
+		customerDto.setEmail("test@example.com");
+		customerDto.setMobileNumber("7000000001");
+
+		accountsService.createAccount(customerDto);
+		accountsService.deleteAccount("7000000001");
+
+		assertThat(routingKeys("7000000001")).containsExactly("customer.created", "customer.deleted");
+	}
+
+	private List<String> routingKeys(String aggregateId) {
+		return jdbcTemplate.queryForList("""
+				select aggregate_type || '.' || event_type from outbox where aggregate_id = ? order by event_id""",
+				String.class, aggregateId);
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.viv.accounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.viv.accounts.dto.CustomerDetailsDto;
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.accounts.service.IAccountsService;
+import com.viv.accounts.service.ICustomersService;
+
+/**
+ * Customer details with loans and cards served by a stub that answers, fails or stalls
+ * as each test tells it to. Only loans is stalled, so cards gets a budget that the
+ * first, still cold call to the stub fits in.
+ */
+@SpringBootTest(properties = { "downstream.loans.timeout=300ms", "downstream.cards.timeout=1500ms" })
+class CustomersServiceImplTests {
+
+	static final HttpServer downstream = start();
+
+	// the stub's answer per service, by its path prefix
+	static final Map<String, Answer> answers = new ConcurrentHashMap<>();
+
+	@Autowired
+	ICustomersService iCustomersService;
+
+	@Autowired
+	IAccountsService iAccountsService;
+
+	enum Answer {
+		OK, FAIL, STALL
+	}
+
+	@DynamicPropertySource
+	static void downstreamUrls(DynamicPropertyRegistry registry) {
+		String baseUrl = "http://localhost:" + downstream.getAddress().getPort();
+		registry.add("downstream.loans.url", () -> baseUrl + "/loans");
+		registry.add("downstream.cards.url", () -> baseUrl + "/cards");
+	}
+
+	@AfterAll
+	static void stop() {
+		downstream.stop(0);
+	}
+
+	@BeforeEach
+	void answerEverything() {
+		answers.put("loans", Answer.OK);
+		answers.put("cards", Answer.OK);
+	}
+
+	@Test
+	void completeDetailsListNothingAsUnavailable() {
+		CustomerDetailsDto details = iCustomersService.fetchCustomerDetails(customer("7500000001"));
+
+		assertThat(details.getLoansDto().getLoanNumber()).isEqualTo("100000000001");
+		assertThat(details.getCardsDto().getCardNumber()).isEqualTo("100000000002");
+		assertThat(details.getUnavailableSections()).isEmpty();
+	}
+
+	@Test
+	void failedServiceIsListedAsUnavailable() {
+		answers.put("cards", Answer.FAIL);
+
+		CustomerDetailsDto details = iCustomersService.fetchCustomerDetails(customer("7500000002"));
+
+		assertThat(details.getLoansDto()).isNotNull();
+		assertThat(details.getCardsDto()).isNull();
+		assertThat(details.getUnavailableSections()).containsExactly("cards");
+	}
+
+	@Test
+	void stalledServiceIsListedAsUnavailableAfterItsTimeout() {
+		answers.put("loans", Answer.STALL);
+
+		long start = System.nanoTime();
+		CustomerDetailsDto details = iCustomersService.fetchCustomerDetails(customer("7500000003"));
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+		assertThat(details.getLoansDto()).isNull();
+		assertThat(details.getCardsDto()).isNotNull();
+		assertThat(details.getUnavailableSections()).containsExactly("loans");
+	}
+
+	private String customer(String mobileNumber) {
+		CustomerDto customerDto = new CustomerDto();
+		customerDto.setName("Test Customer");
+		customerDto.setEmail("test@example.com");
+		customerDto.setMobileNumber(mobileNumber);
+		iAccountsService.createAccount(customerDto);
+		return mobileNumber;
+	}
+
+	private static HttpServer start() {
+		try {
+			HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			server.createContext("/loans/api/fetch", exchange -> answer(exchange, "loans", """
+					{"loanNumber": "100000000001", "loanType": "Home Loan", "totalLoan": 100000}"""));
+			server.createContext("/cards/api/fetch", exchange -> answer(exchange, "cards", """
+					{"cardNumber": "100000000002", "cardType": "Credit Card", "totalLimit": 100000}"""));
+			// a stalled answer must not hold up the other service's
+			server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+			server.start();
+			return server;
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static void answer(HttpExchange exchange, String service, String body) throws IOException {
+		try (exchange) {
+			switch (answers.get(service)) {
+				case FAIL -> exchange.sendResponseHeaders(500, -1);
+				case STALL -> sleep(Duration.ofSeconds(5));
+				case OK -> {
+					byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+					exchange.getResponseHeaders().add("Content-Type", "application/json");
+					exchange.sendResponseHeaders(200, bytes.length);
+					try (OutputStream out = exchange.getResponseBody()) {
+						out.write(bytes);
+					}
+				}
+			}
+		}
+	}
+
+	private static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
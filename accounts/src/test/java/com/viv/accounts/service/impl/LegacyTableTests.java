@@ -0,0 +1,35 @@
+package com.viv.accounts.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.accounts.service.IAccountsService;
+
+/**
+ * Customer and accounts tables from before the id sequence, whose ids came from
+ * AUTO_INCREMENT columns. legacy-accounts.sql creates them before schema.sql runs.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:legacy-accounts;INIT=RUNSCRIPT FROM 'classpath:legacy-accounts.sql'")
+class LegacyTableTests {
+
+	@Autowired
+	IAccountsService iAccountsService;
+
+	@Test
+	void newCustomerGetsAnIdAboveTheLegacyOnes() {
+		CustomerDto customerDto = new CustomerDto();
+		customerDto.setName("New Customer");
+		customerDto.setEmail("new@example.com");
+		customerDto.setMobileNumber("7900000102");
+
+		iAccountsService.createAccount(customerDto);
+
+		assertThat(iAccountsService.fetchAccount("7900000101").getName()).isEqualTo("Legacy Customer");
+		assertThat(iAccountsService.fetchAccount("7900000102").getName()).isEqualTo("New Customer");
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.viv.accounts.sql;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.common.sql.AbstractStatementCountTests;
+
+class StatementCountTests extends AbstractStatementCountTests<CustomerDto> {
+
+	StatementCountTests() {
+		super(CustomerDto.class, "74000000");
+	}
+
+	@Override
+	protected RequestBuilder create(String mobileNumber) {
+		return post("/api/create").contentType(MediaType.APPLICATION_JSON).content("""
+				{"name": "Test Customer", "email": "test@example.com", "mobileNumber": "%s"}""".formatted(mobileNumber));
+	}
+
+	@Override
+	protected void edit(CustomerDto customerDto) {
+		customerDto.setName("Updated Name");
+		customerDto.getAccountsDto().setBranchAddress("1 New Street");
+	}
+
+	@Override
+	protected int createStatements() {
+		// duplicate check, customer insert, account insert, outbox insert
+		return 4;
+	}
+
+	@Override
+	protected int fetchStatements() {
+		// customer and account in one join
+		return 1;
+	}
+
+	@Override
+	protected int updateStatements() {
+		// one bulk update per table, without reading either row first, the customer id for the change
+		// history, and the outbox insert
+		return 4;
+	}
+
+	@Override
+	protected int deleteStatements() {
+		// customer lookup, account load and delete (entity deletes keep the audit log complete), customer delete,
+		// outbox insert
+		return 5;
+	}
+
+}
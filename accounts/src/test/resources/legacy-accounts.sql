@@ -0,0 +1,32 @@
+-- customer and accounts tables from before the id sequence, with ids from their AUTO_INCREMENT
+-- columns; run on every new connection, so it only creates what is missing
+CREATE TABLE IF NOT EXISTS `customer` (
+  `customer_id` int AUTO_INCREMENT  PRIMARY KEY,
+  `name` varchar(100) NOT NULL,
+  `email` varchar(100) NOT NULL,
+  `mobile_number` varchar(20) NOT NULL,
+  `created_at` date NOT NULL,
+  `created_by` varchar(20) NOT NULL,
+  `updated_at` date DEFAULT NULL,
+  `updated_by` varchar(20) DEFAULT NULL
+);
+
+CREATE TABLE IF NOT EXISTS `accounts` (
+  `customer_id` int NOT NULL,
+  `account_number` int AUTO_INCREMENT  PRIMARY KEY,
+  `account_type` varchar(100) NOT NULL,
+  `branch_address` varchar(200) NOT NULL,
+  `created_at` date NOT NULL,
+  `created_by` varchar(20) NOT NULL,
+  `updated_at` date DEFAULT NULL,
+  `updated_by` varchar(20) DEFAULT NULL
+);
+
+INSERT INTO `customer` (`name`, `email`, `mobile_number`, `created_at`, `created_by`)
+SELECT 'Legacy Customer', 'legacy@example.com', '7900000101', CURRENT_DATE, 'ACCOUNTS_MS'
+WHERE NOT EXISTS (SELECT 1 FROM `customer` WHERE `mobile_number` = '7900000101');
+
+INSERT INTO `accounts` (`customer_id`, `account_type`, `branch_address`, `created_at`, `created_by`)
+SELECT `customer_id`, 'Savings', '123 Main Street, New York', CURRENT_DATE, 'ACCOUNTS_MS'
+FROM `customer` WHERE `mobile_number` = '7900000101'
+AND NOT EXISTS (SELECT 1 FROM `accounts`);
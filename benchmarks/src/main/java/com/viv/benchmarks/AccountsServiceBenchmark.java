@@ -0,0 +1,80 @@
+package com.viv.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.viv.accounts.AccountsApplication;
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.accounts.service.IAccountsService;
+
+/**
+ * IAccountsService against an in-memory H2, with the customer cache on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountsServiceBenchmark {
+
+    private static final int CUSTOMERS = 1_000;
+
+    @Param({ "caffeine", "none" })
+    public String cacheType;
+
+    private final AtomicLong created = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private IAccountsService iAccountsService;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start(AccountsApplication.class, "accounts", "--spring.cache.type=" + cacheType);
+        iAccountsService = context.getBean(IAccountsService.class);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            iAccountsService.createAccount(customer(ServiceContexts.mobileNumber(9, i)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDto fetchAccount() {
+        return iAccountsService.fetchAccount(
+                ServiceContexts.mobileNumber(9, ThreadLocalRandom.current().nextInt(CUSTOMERS)));
+    }
+
+    @Benchmark
+    public boolean createAndDeleteAccount() {
+        String mobileNumber = ServiceContexts.mobileNumber(8, created.getAndIncrement());
+        iAccountsService.createAccount(customer(mobileNumber));
+        return iAccountsService.deleteAccount(mobileNumber);
+    }
+
+    private static CustomerDto customer(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Benchmark Customer");
+        customerDto.setEmail("customer" + mobileNumber + "@example.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+
+}
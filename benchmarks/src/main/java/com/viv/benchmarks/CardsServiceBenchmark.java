@@ -0,0 +1,116 @@
+package com.viv.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.viv.cards.CardsApplication;
+import com.viv.cards.dto.BatchItemResponseDto;
+import com.viv.cards.dto.CardAuthorizationDto;
+import com.viv.cards.dto.CardsDto;
+import com.viv.cards.entity.Cards;
+import com.viv.cards.repository.CardsRepository;
+import com.viv.cards.service.ICardsService;
+import com.viv.common.sql.StatementCounter;
+
+/**
+ * ICardsService against an in-memory H2, with the second-level cache on and off. The
+ * setup prints how many SQL statements a findByCardNumber runs in either mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardsServiceBenchmark {
+
+    private static final int CARDS = 1_000;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({ "true", "false" })
+    public boolean entityCache;
+
+    private final AtomicLong created = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private ICardsService iCardsService;
+    private CardsRepository cardsRepository;
+    private String[] cardNumbers;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start(CardsApplication.class, "cards",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + entityCache);
+        iCardsService = context.getBean(ICardsService.class);
+        cardsRepository = context.getBean(CardsRepository.class);
+        cardNumbers = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            iCardsService.createCard(ServiceContexts.mobileNumber(9, i));
+            cardNumbers[i] = iCardsService.fetchCard(ServiceContexts.mobileNumber(9, i)).getCardNumber();
+        }
+        StatementCounter statementCounter = context.getBean(StatementCounter.class);
+        statementCounter.open();
+        for (String cardNumber : cardNumbers) {
+            cardsRepository.findByCardNumber(cardNumber);
+        }
+        System.out.printf("entityCache=%s: %.2f SQL statements per findByCardNumber%n", entityCache,
+                (double) statementCounter.close() / CARDS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CardsDto fetchCard() {
+        return iCardsService.fetchCard(
+                ServiceContexts.mobileNumber(9, ThreadLocalRandom.current().nextInt(CARDS)));
+    }
+
+    @Benchmark
+    public List<BatchItemResponseDto<CardsDto>> fetchCardsBatch() {
+        int first = ThreadLocalRandom.current().nextInt(CARDS - BATCH_SIZE);
+        return iCardsService.fetchCards(IntStream.range(first, first + BATCH_SIZE)
+                .mapToObj(i -> ServiceContexts.mobileNumber(9, i))
+                .toList());
+    }
+
+    @Benchmark
+    public Optional<Cards> findByCardNumber() {
+        return cardsRepository.findByCardNumber(cardNumbers[ThreadLocalRandom.current().nextInt(CARDS)]);
+    }
+
+    @Benchmark
+    public boolean createAndDeleteCard() {
+        String mobileNumber = ServiceContexts.mobileNumber(8, created.getAndIncrement());
+        iCardsService.createCard(mobileNumber);
+        return iCardsService.deleteCard(mobileNumber);
+    }
+
+    @Benchmark
+    public CardAuthorizationDto authorizeAndRelease() {
+        CardAuthorizationDto authorization = iCardsService.authorizeCard(
+                cardNumbers[ThreadLocalRandom.current().nextInt(CARDS)], 1);
+        iCardsService.releaseAuthorization(authorization.getAuthorizationId());
+        return authorization;
+    }
+
+}
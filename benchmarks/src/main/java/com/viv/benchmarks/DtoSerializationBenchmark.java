@@ -0,0 +1,114 @@
+package com.viv.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.accounts.dto.AccountsDto;
+import com.viv.accounts.dto.CustomerDetailsDto;
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.accounts.mapper.CustomerMapper;
+import com.viv.cards.dto.CardsDto;
+import com.viv.loans.dto.LoansDto;
+
+/**
+ * Jackson cost of the response bodies, with the same ObjectMapper defaults Spring Boot
+ * configures for the services.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CustomerDto customerDto;
+    private LoansDto loansDto;
+    private CardsDto cardsDto;
+    private CustomerDetailsDto customerDetailsDto;
+    private byte[] customerJson;
+    private byte[] loansJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(2000000001L);
+        accountsDto.setAccountType("Savings");
+        accountsDto.setBranchAddress("123 Main Street, New York");
+        customerDto = new CustomerDto();
+        customerDto.setName("Eazy Bytes");
+        customerDto.setEmail("tutor@eazybytes.com");
+        customerDto.setMobileNumber("9345432123");
+        customerDto.setAccountsDto(accountsDto);
+
+        loansDto = new LoansDto();
+        loansDto.setMobileNumber("9345432123");
+        loansDto.setLoanNumber("200000000001");
+        loansDto.setLoanType("Home Loan");
+        loansDto.setTotalLoan(100000);
+        loansDto.setAmountPaid(1000);
+        loansDto.setOutstandingAmount(99000);
+
+        cardsDto = new CardsDto();
+        cardsDto.setMobileNumber("9345432123");
+        cardsDto.setCardNumber("200000000014");
+        cardsDto.setCardType("Credit Card");
+        cardsDto.setTotalLimit(100000);
+        cardsDto.setAmountUsed(1000);
+        cardsDto.setAvailableAmount(99000);
+
+        customerDetailsDto = CustomerMapper.mapToCustomerDetailsDto(customerDto, new CustomerDetailsDto());
+        customerDetailsDto.setLoansDto(objectMapper.convertValue(loansDto, com.viv.accounts.dto.LoansDto.class));
+        customerDetailsDto.setCardsDto(objectMapper.convertValue(cardsDto, com.viv.accounts.dto.CardsDto.class));
+
+        customerJson = objectMapper.writeValueAsBytes(customerDto);
+        loansJson = objectMapper.writeValueAsBytes(loansDto);
+    }
+
+    @Benchmark
+    public byte[] writeCustomer() throws IOException {
+        return objectMapper.writeValueAsBytes(customerDto);
+    }
+
+    @Benchmark
+    public byte[] writeLoans() throws IOException {
+        return objectMapper.writeValueAsBytes(loansDto);
+    }
+
+    @Benchmark
+    public byte[] writeCards() throws IOException {
+        return objectMapper.writeValueAsBytes(cardsDto);
+    }
+
+    @Benchmark
+    public byte[] writeCustomerDetails() throws IOException {
+        return objectMapper.writeValueAsBytes(customerDetailsDto);
+    }
+
+    @Benchmark
+    public CustomerDto readCustomer() throws IOException {
+        return objectMapper.readValue(customerJson, CustomerDto.class);
+    }
+
+    @Benchmark
+    public LoansDto readLoans() throws IOException {
+        return objectMapper.readValue(loansJson, LoansDto.class);
+    }
+
+}
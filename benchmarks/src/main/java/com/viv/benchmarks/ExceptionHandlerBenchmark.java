@@ -0,0 +1,82 @@
+package com.viv.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.accounts.dto.ErrorResponseDto;
+import com.viv.accounts.exception.GlobalExceptionHandler;
+import com.viv.accounts.exception.ResourceNotFoundException;
+
+/**
+ * Cost of the not-found error path: building the exception, turning it into an
+ * ErrorResponseDto in GlobalExceptionHandler and writing the body. The split shows how
+ * much of it is the exception itself; fullResultPath is the throw-free route the fetch
+ * endpoints take.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler exceptionHandler;
+    private WebRequest webRequest;
+    private ObjectMapper objectMapper;
+    private ResourceNotFoundException prebuiltException;
+
+    @Setup
+    public void setUp() {
+        exceptionHandler = new GlobalExceptionHandler();
+        webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/fetch"));
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        prebuiltException = new ResourceNotFoundException("Customer", "mobileNumber", "9345432123");
+    }
+
+    @Benchmark
+    public ResourceNotFoundException createException() {
+        return new ResourceNotFoundException("Customer", "mobileNumber", "9345432123");
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponseDto> handlePrebuiltException() {
+        return exceptionHandler.handleResourceNotFoundException(prebuiltException, webRequest);
+    }
+
+    @Benchmark
+    public byte[] fullErrorPath() throws IOException {
+        ResponseEntity<ErrorResponseDto> response;
+        try {
+            throw new ResourceNotFoundException("Customer", "mobileNumber", "9345432123");
+        } catch (ResourceNotFoundException ex) {
+            response = exceptionHandler.handleResourceNotFoundException(ex, webRequest);
+        }
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] fullResultPath() throws IOException {
+        ResponseEntity<ErrorResponseDto> response = GlobalExceptionHandler.notFound(webRequest,
+                ResourceNotFoundException.message("Customer", "mobileNumber", "9345432123"));
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.viv.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.viv.common.sql.StatementCounter;
+import com.viv.loans.LoansApplication;
+import com.viv.loans.dto.BatchItemResponseDto;
+import com.viv.loans.dto.LoansDto;
+import com.viv.loans.entity.Loans;
+import com.viv.loans.repository.LoansRepository;
+import com.viv.loans.service.ILoansService;
+
+/**
+ * ILoansService against an in-memory H2, with the second-level cache on and off. The
+ * setup prints how many SQL statements a findByLoanNumber runs in either mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoansServiceBenchmark {
+
+    private static final int LOANS = 1_000;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({ "true", "false" })
+    public boolean entityCache;
+
+    private final AtomicLong created = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private ILoansService iLoansService;
+    private LoansRepository loansRepository;
+    private String[] loanNumbers;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start(LoansApplication.class, "loans",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + entityCache);
+        iLoansService = context.getBean(ILoansService.class);
+        loansRepository = context.getBean(LoansRepository.class);
+        loanNumbers = new String[LOANS];
+        for (int i = 0; i < LOANS; i++) {
+            iLoansService.createLoan(ServiceContexts.mobileNumber(9, i));
+            loanNumbers[i] = iLoansService.fetchLoan(ServiceContexts.mobileNumber(9, i)).getLoanNumber();
+        }
+        StatementCounter statementCounter = context.getBean(StatementCounter.class);
+        statementCounter.open();
+        for (String loanNumber : loanNumbers) {
+            loansRepository.findByLoanNumber(loanNumber);
+        }
+        System.out.printf("entityCache=%s: %.2f SQL statements per findByLoanNumber%n", entityCache,
+                (double) statementCounter.close() / LOANS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LoansDto fetchLoan() {
+        return iLoansService.fetchLoan(
+                ServiceContexts.mobileNumber(9, ThreadLocalRandom.current().nextInt(LOANS)));
+    }
+
+    @Benchmark
+    public List<BatchItemResponseDto<LoansDto>> fetchLoansBatch() {
+        int first = ThreadLocalRandom.current().nextInt(LOANS - BATCH_SIZE);
+        return iLoansService.fetchLoans(IntStream.range(first, first + BATCH_SIZE)
+                .mapToObj(i -> ServiceContexts.mobileNumber(9, i))
+                .toList());
+    }
+
+    @Benchmark
+    public Optional<Loans> findByLoanNumber() {
+        return loansRepository.findByLoanNumber(loanNumbers[ThreadLocalRandom.current().nextInt(LOANS)]);
+    }
+
+    @Benchmark
+    public boolean createAndDeleteLoan() {
+        String mobileNumber = ServiceContexts.mobileNumber(8, created.getAndIncrement());
+        iLoansService.createLoan(mobileNumber);
+        return iLoansService.deleteLoan(mobileNumber);
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.viv.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.viv.accounts.dto.AccountsDto;
+import com.viv.accounts.dto.CustomerDto;
+import com.viv.accounts.entity.Accounts;
+import com.viv.accounts.entity.Customer;
+import com.viv.accounts.mapper.AccountsMapper;
+import com.viv.accounts.mapper.CustomerMapper;
+import com.viv.cards.dto.CardsDto;
+import com.viv.cards.entity.Cards;
+import com.viv.cards.mapper.CardsMapper;
+import com.viv.loans.dto.LoansDto;
+import com.viv.loans.entity.Loans;
+import com.viv.loans.mapper.LoansMapper;
+
+/**
+ * Entity to DTO mapping in both directions, as done on every request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Customer customer;
+    private CustomerDto customerDto;
+    private Accounts accounts;
+    private AccountsDto accountsDto;
+    private Loans loans;
+    private LoansDto loansDto;
+    private Cards cards;
+    private CardsDto cardsDto;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setName("Eazy Bytes");
+        customer.setEmail("tutor@eazybytes.com");
+        customer.setMobileNumber("9345432123");
+        accounts = new Accounts();
+        accounts.setCustomerId(1L);
+        accounts.setAccountNumber(2000000001L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("123 Main Street, New York");
+        customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        accountsDto = AccountsMapper.mapToAccountsDto(accounts, new AccountsDto());
+
+        loans = new Loans();
+        loans.setMobileNumber("9345432123");
+        loans.setLoanNumber("200000000001");
+        loans.setLoanType("Home Loan");
+        loans.setTotalLoan(100000);
+        loans.setAmountPaid(1000);
+        loans.setOutstandingAmount(99000);
+        loansDto = LoansMapper.mapToLoansDto(loans, new LoansDto());
+
+        cards = new Cards();
+        cards.setMobileNumber("9345432123");
+        cards.setCardNumber("200000000014");
+        cards.setCardType("Credit Card");
+        cards.setTotalLimit(100000);
+        cards.setAmountUsed(1000);
+        cards.setAvailableAmount(99000);
+        cardsDto = CardsMapper.mapToCardsDto(cards, new CardsDto());
+    }
+
+    @Benchmark
+    public CustomerDto customerToDto() {
+        CustomerDto dto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
+        dto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
+        return dto;
+    }
+
+    @Benchmark
+    public Customer dtoToCustomer() {
+        return CustomerMapper.mapToCustomer(customerDto, new Customer());
+    }
+
+    @Benchmark
+    public Accounts dtoToAccounts() {
+        return AccountsMapper.mapToAccounts(accountsDto, new Accounts());
+    }
+
+    @Benchmark
+    public LoansDto loansToDto() {
+        return LoansMapper.mapToLoansDto(loans, new LoansDto());
+    }
+
+    @Benchmark
+    public Loans dtoToLoans() {
+        return LoansMapper.mapToLoans(loansDto, new Loans());
+    }
+
+    @Benchmark
+    public CardsDto cardsToDto() {
+        return CardsMapper.mapToCardsDto(cards, new CardsDto());
+    }
+
+    @Benchmark
+    public Cards dtoToCards() {
+        return CardsMapper.mapToCards(cardsDto, new Cards());
+    }
+
+}
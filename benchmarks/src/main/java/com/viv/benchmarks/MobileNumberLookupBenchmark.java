@@ -0,0 +1,134 @@
+package com.viv.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viv.accounts.AccountsApplication;
+import com.viv.accounts.repository.CustomerRepository;
+import com.viv.cards.CardsApplication;
+import com.viv.cards.repository.CardsRepository;
+import com.viv.loans.LoansApplication;
+import com.viv.loans.repository.LoansRepository;
+
+/**
+ * findByMobileNumber on the customer, loans and cards tables from 10k to 5M rows, with the
+ * unique mobile number index and without it. With the index the time per lookup should stay
+ * flat as the table grows; without it every lookup scans the table. The rows go into an H2
+ * file database under target/lookup-bench, so 5M of them do not have to fit in the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MobileNumberLookupBenchmark {
+
+    private static final int SEED_CHUNK = 100_000;
+
+    @Param({ "accounts", "loans", "cards" })
+    public String service;
+
+    @Param({ "10000", "100000", "1000000", "5000000" })
+    public int rows;
+
+    @Param({ "true", "false" })
+    public boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private Function<String, Optional<?>> lookup;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path database = Path.of("target", "lookup-bench", service + "-" + rows).toAbsolutePath();
+        Files.deleteIfExists(Path.of(database + ".mv.db"));
+        Files.deleteIfExists(Path.of(database + ".trace.db"));
+        context = ServiceContexts.start(applicationClass(), service,
+                "--spring.datasource.url=jdbc:h2:file:" + database,
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        String table = "accounts".equals(service) ? "customer" : service;
+        String constraint = "ux_" + table + "_mobile_number";
+        // filling the table without the unique index and building it afterwards is much faster
+        jdbcTemplate.execute("ALTER TABLE `" + table + "` DROP CONSTRAINT IF EXISTS `" + constraint + "`");
+        long start = System.nanoTime();
+        for (int first = 0; first < rows; first += SEED_CHUNK) {
+            jdbcTemplate.update(seedSql(), first, Math.min(first + SEED_CHUNK, rows) - 1);
+        }
+        if (indexed) {
+            jdbcTemplate.execute("ALTER TABLE `" + table + "` ADD CONSTRAINT `" + constraint
+                    + "` UNIQUE (`mobile_number`)");
+        }
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("%s: %d rows seeded in %d ms, indexed=%s%n", table, rows,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), indexed);
+        lookup = switch (service) {
+            case "accounts" -> context.getBean(CustomerRepository.class)::findByMobileNumber;
+            case "loans" -> context.getBean(LoansRepository.class)::findByMobileNumber;
+            default -> context.getBean(CardsRepository.class)::findByMobileNumber;
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<?> findByMobileNumber() {
+        return lookup.apply(ServiceContexts.mobileNumber(9, ThreadLocalRandom.current().nextInt(rows)));
+    }
+
+    private Class<?> applicationClass() {
+        return switch (service) {
+            case "accounts" -> AccountsApplication.class;
+            case "loans" -> LoansApplication.class;
+            default -> CardsApplication.class;
+        };
+    }
+
+    /**
+     * @return an INSERT ... SELECT adding the rows numbered by its two parameters, both
+     *         inclusive, with the mobile numbers ServiceContexts.mobileNumber(9, n) gives
+     */
+    private String seedSql() {
+        String mobileNumber = "'9' || LPAD(CAST(X AS VARCHAR), 9, '0')";
+        String number = "LPAD(CAST(X AS VARCHAR), 12, '0')";
+        return switch (service) {
+            case "accounts" -> "INSERT INTO `customer` (`customer_id`, `name`, `email`, `mobile_number`, "
+                    + "`created_at`, `created_by`) SELECT X, 'Bench', 'bench@example.com', " + mobileNumber
+                    + ", CURRENT_DATE, 'BENCH' FROM SYSTEM_RANGE(?, ?)";
+            case "loans" -> "INSERT INTO `loans` (`loan_id`, `mobile_number`, `loan_number`, `loan_type`, "
+                    + "`total_loan`, `amount_paid`, `outstanding_amount`, `created_at`, `created_by`) SELECT X, "
+                    + mobileNumber + ", " + number + ", 'Home Loan', 100000, 0, 100000, CURRENT_TIMESTAMP, 'BENCH' "
+                    + "FROM SYSTEM_RANGE(?, ?)";
+            default -> "INSERT INTO `cards` (`card_id`, `mobile_number`, `card_number`, `card_type`, "
+                    + "`total_limit`, `amount_used`, `available_amount`, `created_at`, `created_by`) SELECT X, "
+                    + mobileNumber + ", " + number + ", 'Credit Card', 100000, 0, 100000, CURRENT_TIMESTAMP, 'BENCH' "
+                    + "FROM SYSTEM_RANGE(?, ?)";
+        };
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.viv.benchmarks;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The loans or cards service as a JVM jar and as a native executable, side by side. One
+ * process per trial serves GET /api/fetch to 8 client threads, and the score is requests
+ * per second once warmed up. The setup prints the time to ready and the resident set size
+ * at idle, and the teardown prints the resident set size after the load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class NativeComparisonBenchmark {
+
+    private static final int CUSTOMERS = 1_000;
+
+    @Param({ "loans", "cards" })
+    public String service;
+
+    @Param({ "jar", "native" })
+    public String build;
+
+    private HttpClient httpClient;
+    private Process process;
+    private HttpRequest[] fetches;
+
+    @Setup
+    public void setUp() throws Exception {
+        httpClient = HttpClient.newHttpClient();
+        long start = System.nanoTime();
+        process = ServiceProcesses.start(service, build);
+        ServiceProcesses.awaitReady(process, service, build, httpClient);
+        long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.printf("%s %s: ready in %d ms, %d MB RSS at idle%n", service, build, readyMillis,
+                ServiceProcesses.rssMegabytes(process));
+        fetches = new HttpRequest[CUSTOMERS];
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String mobileNumber = ServiceContexts.mobileNumber(8, i);
+            send(HttpRequest.newBuilder(ServiceProcesses.uri(service, "/api/create?mobileNumber=" + mobileNumber))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), 201);
+            fetches[i] = HttpRequest.newBuilder(ServiceProcesses.uri(service, "/api/fetch?mobileNumber=" + mobileNumber))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public int fetch() throws Exception {
+        return send(fetches[ThreadLocalRandom.current().nextInt(CUSTOMERS)], 200);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.out.printf("%s %s: %d MB RSS after the load%n", service, build, ServiceProcesses.rssMegabytes(process));
+        ServiceProcesses.stop(process);
+    }
+
+    private int send(HttpRequest request, int expectedStatus) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+}
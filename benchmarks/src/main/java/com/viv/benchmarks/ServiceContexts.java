@@ -0,0 +1,69 @@
+package com.viv.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots one of the services against its own in-memory H2 database, without the web
+ * server, config server or a reachable broker.
+ */
+final class ServiceContexts {
+
+    private ServiceContexts() {
+    }
+
+    /**
+     * @param applicationClass - the service's @SpringBootApplication class
+     * @param service - folder the service's resources are copied to, e.g. "loans"
+     * @param extraArgs - additional --name=value arguments, replacing a default of the same name
+     * @return the started context
+     */
+    static ConfigurableApplicationContext start(Class<?> applicationClass, String service, String... extraArgs) {
+        String[] args = {
+                "--spring.config.location=classpath:/" + service + "/application.properties",
+                "--spring.cloud.config.enabled=false",
+                "--spring.cloud.bus.enabled=false",
+                // events still land in the outbox table, there is just no broker to relay them to
+                "--outbox.relay.enabled=false",
+                "--cascade.delete.enabled=false",
+                "--spring.sql.init.schema-locations=classpath:/" + service + "/schema.sql",
+                "--spring.datasource.url=jdbc:h2:mem:" + service + "-bench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--spring.rabbitmq.host=localhost",
+                "--spring.rabbitmq.port=5672",
+                "--spring.rabbitmq.username=guest",
+                "--spring.rabbitmq.password=guest",
+                "--build.version=benchmark",
+                "--logging.level.root=WARN",
+        };
+        // the command line joins repeated names into one comma separated value, so drop the default
+        Map<String, String> allArgs = new LinkedHashMap<>();
+        for (String arg : args) {
+            allArgs.put(arg.substring(0, arg.indexOf('=')), arg);
+        }
+        for (String arg : extraArgs) {
+            allArgs.put(arg.substring(0, arg.indexOf('=')), arg);
+        }
+        return new SpringApplicationBuilder(applicationClass)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run(allArgs.values().toArray(String[]::new));
+    }
+
+    /**
+     * @param prefix - leading digit keeping seeded and created customers apart
+     * @param index - running number
+     * @return a valid 10 digit mobile number
+     */
+    static String mobileNumber(int prefix, long index) {
+        return prefix + String.format("%09d", index);
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.viv.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts a service's packaged build as a separate process, the way it runs in a pod,
+ * against an in-memory H2 database and without a reachable config server or broker.
+ * The builds come from the service's own folder:
+ * <ul>
+ * <li>{@code jar}: target/&lt;service&gt;-0.0.1-SNAPSHOT.jar from mvn package;</li>
+ * <li>{@code aot-cds}: target/cds from mvn -Pfast-startup package, started on its CDS
+ * archive with the AOT-generated bean definitions;</li>
+ * <li>{@code native}: the target/&lt;service&gt; executable from mvn -Pnative native:compile
+ * (loans and cards only).</li>
+ * </ul>
+ */
+final class ServiceProcesses {
+
+    private static final Map<String, Integer> PORTS = Map.of("accounts", 8080, "loans", 8090, "cards", 9000,
+            "configserver", 8071);
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private ServiceProcesses() {
+    }
+
+    /**
+     * @param service - the service's folder, e.g. "loans"
+     * @param build - jar, aot-cds or native
+     * @return the started process, not necessarily ready yet
+     */
+    static Process start(String service, String build) throws IOException {
+        return start(service, build, Map.of());
+    }
+
+    /**
+     * @param service - the service's folder, e.g. "loans"
+     * @param build - jar, aot-cds or native
+     * @param settings - environment variables that override the defaults below
+     * @return the started process, not necessarily ready yet
+     */
+    static Process start(String service, String build, Map<String, String> settings) throws IOException {
+        Path directory = Path.of("..", service, "target");
+        List<String> command = new ArrayList<>();
+        switch (build) {
+            case "jar" -> command.addAll(List.of(java(), "-jar", jar(service)));
+            case "aot-cds" -> {
+                directory = directory.resolve("cds");
+                command.addAll(List.of(java(), "-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true",
+                        "-jar", jar(service)));
+            }
+            case "native" -> command.add(directory.resolve(service).toAbsolutePath().toString());
+            default -> throw new IllegalArgumentException("Unknown build " + build);
+        }
+        Path launched = build.equals("native") ? directory.resolve(service) : directory.resolve(jar(service));
+        if (!Files.isRegularFile(launched)) {
+            throw new IllegalStateException(launched + " is missing, build it in ../" + service + " first");
+        }
+        if (service.equals("configserver")) {
+            // serve the configured git repository without cloning it first
+            command.add("--spring.cloud.config.server.git.clone-on-start=false");
+        }
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log(service, build).toFile());
+        Map<String, String> environment = builder.environment();
+        environment.putAll(settings);
+        environment.putIfAbsent("DB_URL", "jdbc:h2:mem:" + service);
+        environment.putIfAbsent("DB_USERNAME", "sa");
+        environment.putIfAbsent("DB_PASSWORD", "");
+        environment.putIfAbsent("RABBITMQ_HOST", "localhost");
+        environment.putIfAbsent("RABBITMQ_PORT", "5672");
+        environment.putIfAbsent("RABBITMQ_USERNAME", "guest");
+        environment.putIfAbsent("RABBITMQ_PASSWORD", "guest");
+        environment.putIfAbsent("BUILD_VERSION", "benchmark");
+        environment.putIfAbsent("ENCRYPT_KEY", "benchmark");
+        environment.putIfAbsent("GIT_TOKEN", "");
+        return builder.start();
+    }
+
+    /**
+     * Polls the readiness probe every 10 ms until it reports UP.
+     */
+    static void awaitReady(Process process, String service, String build, HttpClient httpClient)
+            throws InterruptedException {
+        HttpRequest readiness = HttpRequest.newBuilder(uri(service, "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (!ok(httpClient, readiness)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(
+                        service + " exited with " + process.exitValue() + ", see " + log(service, build));
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(
+                        service + " not ready after " + START_TIMEOUT + ", see " + log(service, build));
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * @return the process's resident set size in MB, from /proc (Linux only)
+     */
+    static long rssMegabytes(Process process) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+            }
+        }
+        throw new IllegalStateException("No VmRSS for " + process.pid());
+    }
+
+    static void stop(Process process) throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    static URI uri(String service, String pathAndQuery) {
+        return URI.create("http://localhost:" + PORTS.get(service) + pathAndQuery);
+    }
+
+    private static boolean ok(HttpClient httpClient, HttpRequest request) throws InterruptedException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException ex) {
+            // not listening yet
+            return false;
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static String jar(String service) {
+        return service + "-0.0.1-SNAPSHOT.jar";
+    }
+
+    private static Path log(String service, String build) {
+        return Path.of("target", "process-" + service + "-" + build + ".log").toAbsolutePath();
+    }
+
+}
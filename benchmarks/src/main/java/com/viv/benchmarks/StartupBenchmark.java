@@ -0,0 +1,59 @@
+package com.viv.benchmarks;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time from launching a service's packaged build until its readiness probe reports UP,
+ * for the plain jar and for the fast-startup build (see {@link ServiceProcesses}). Add
+ * {@code -p mode=native -p service=loans,cards} to time the native executables. Every
+ * invocation is a fresh process, so each score is one cold start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    @Param({ "accounts", "loans", "cards", "configserver" })
+    public String service;
+
+    @Param({ "jar", "aot-cds" })
+    public String mode;
+
+    private HttpClient httpClient;
+    private Process process;
+
+    @Setup
+    public void setUp() {
+        httpClient = HttpClient.newHttpClient();
+    }
+
+    @Benchmark
+    public void timeToReady() throws Exception {
+        process = ServiceProcesses.start(service, mode);
+        ServiceProcesses.awaitReady(process, service, mode, httpClient);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        ServiceProcesses.stop(process);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.viv.benchmarks;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The loans service jar on Tomcat's platform workers and on virtual threads, under 2000
+ * concurrent connections: each client thread keeps one request to GET /api/fetch in
+ * flight. Throughput mode gives requests per second and SampleTime the latency
+ * percentiles, p0.99 included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 20)
+@Measurement(iterations = 3, time = 10)
+@Threads(2000)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final String SERVICE = "loans";
+    private static final int CUSTOMERS = 1_000;
+
+    @Param({ "false", "true" })
+    public String virtualThreads;
+
+    private HttpClient httpClient;
+    private Process process;
+    private HttpRequest[] fetches;
+
+    @Setup
+    public void setUp() throws Exception {
+        httpClient = HttpClient.newHttpClient();
+        process = ServiceProcesses.start(SERVICE, "jar", Map.of("VIRTUAL_THREADS_ENABLED", virtualThreads));
+        ServiceProcesses.awaitReady(process, SERVICE, "jar", httpClient);
+        fetches = new HttpRequest[CUSTOMERS];
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String mobileNumber = ServiceContexts.mobileNumber(7, i);
+            send(HttpRequest.newBuilder(ServiceProcesses.uri(SERVICE, "/api/create?mobileNumber=" + mobileNumber))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), 201);
+            fetches[i] = HttpRequest.newBuilder(ServiceProcesses.uri(SERVICE, "/api/fetch?mobileNumber=" + mobileNumber))
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public int fetch() throws Exception {
+        return send(fetches[ThreadLocalRandom.current().nextInt(CUSTOMERS)], 200);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ServiceProcesses.stop(process);
+    }
+
+    private int send(HttpRequest request, int expectedStatus) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+}
@@ -0,0 +1,44 @@
+-- Run against a cards database that existed before this version of the service, with every
+-- instance stopped. schema.sql only creates what is missing and leaves existing tables and
+-- sequences as they are. Running the script again is harmless. See "Upgrading an existing
+-- database" in the README.
+
+-- Lookups by mobile_number and card_number need the unique constraints below. They cannot be
+-- added while a value occurs twice, so first list the duplicates. If these queries return rows,
+-- stop and resolve them (keep one row per value); otherwise adding the constraint fails with a
+-- unique index violation and nothing after it runs.
+SELECT 'cards.mobile_number' AS `duplicate`, `mobile_number` AS `value`, COUNT(*) AS `rows` FROM `cards`
+  GROUP BY `mobile_number` HAVING COUNT(*) > 1;
+SELECT 'cards.card_number' AS `duplicate`, `card_number` AS `value`, COUNT(*) AS `rows` FROM `cards`
+  GROUP BY `card_number` HAVING COUNT(*) > 1;
+
+-- rebuilt from scratch, so whatever an earlier build left under these names (a plain unique
+-- index, Hibernate's constraint or both) ends up as one constraint with one index
+ALTER TABLE `cards` DROP CONSTRAINT IF EXISTS `ux_cards_mobile_number`;
+DROP INDEX IF EXISTS `ux_cards_mobile_number`;
+ALTER TABLE `cards` ADD CONSTRAINT `ux_cards_mobile_number` UNIQUE (`mobile_number`);
+ALTER TABLE `cards` DROP CONSTRAINT IF EXISTS `ux_cards_card_number`;
+DROP INDEX IF EXISTS `ux_cards_card_number`;
+ALTER TABLE `cards` ADD CONSTRAINT `ux_cards_card_number` UNIQUE (`card_number`);
+
+-- version used to be nullable, and rows an earlier build left without one could not be updated
+-- under optimistic locking
+ALTER TABLE `cards` ADD COLUMN IF NOT EXISTS `version` bigint NOT NULL DEFAULT 0;
+UPDATE `cards` SET `version` = 0 WHERE `version` IS NULL;
+ALTER TABLE `cards` ALTER COLUMN `version` SET DEFAULT 0;
+ALTER TABLE `cards` ALTER COLUMN `version` SET NOT NULL;
+
+-- the card ledger records the last journal entry it wrote back to each card
+ALTER TABLE `cards` ADD COLUMN IF NOT EXISTS `ledger_seq` bigint NOT NULL DEFAULT 0;
+
+-- created_at used to be a date. The cascade compares it with the time of customer.deleted
+-- events, and a row created again on the day of a deletion would otherwise be deleted with the
+-- old one. Existing rows keep midnight of their day.
+ALTER TABLE `cards` ALTER COLUMN `created_at` SET DATA TYPE timestamp;
+
+-- card_id used to come from an AUTO_INCREMENT column. Hibernate hands out a block of 50 ids
+-- below each sequence value it reads, so the sequence restarts 50 above the highest id,
+-- and never below the start of a fresh sequence.
+CREATE SEQUENCE IF NOT EXISTS `cards_seq` START WITH 1000000000 INCREMENT BY 50;
+ALTER SEQUENCE `cards_seq` RESTART WITH
+  (SELECT GREATEST(COALESCE(MAX(`card_id`), 0) + 50, 1000000000) FROM `cards`);
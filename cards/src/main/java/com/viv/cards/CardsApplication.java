@@ -8,13 +8,23 @@ import io.swagger.v3.oas.annotations.info.License;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import com.viv.cards.aot.CardsRuntimeHints;
 import com.viv.cards.dto.CardsContactInfoDto;
+import com.viv.common.cache.MobileNumberFilter;
+import com.viv.common.sql.SqlLogProperties;
+import com.viv.common.sql.StatementBudgetProperties;
 
-@EnableConfigurationProperties(value = CardsContactInfoDto.class)
-@SpringBootApplication
-@EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+@EnableConfigurationProperties(value = { CardsContactInfoDto.class, StatementBudgetProperties.class, SqlLogProperties.class })
+@SpringBootApplication(scanBasePackages = { "com.viv.cards", "com.viv.common" })
+@EnableScheduling
+@RemoteApplicationEventScan(basePackages = { "com.viv.cards.event", "com.viv.common.event" })
+@Import(MobileNumberFilter.class)
+@ImportRuntimeHints(CardsRuntimeHints.class)
 @OpenAPIDefinition(info = @Info(title = "Cards microservice REST API Documentation", description = "EazyBank Cards microservice REST API Documentation", version = "v1", contact = @Contact(name = "Madan Reddy", email = "tutor@eazybytes.com", url = "https://www.eazybytes.com"), license = @License(name = "Apache 2.0", url = "https://www.eazybytes.com")), externalDocs = @ExternalDocumentation(description = "EazyBank Cards microservice REST API Documentation", url = "https://www.eazybytes.com/swagger-ui.html"))
 public class CardsApplication {
 
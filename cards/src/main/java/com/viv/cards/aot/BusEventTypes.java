@@ -0,0 +1,18 @@
+package com.viv.cards.aot;
+
+import org.springframework.stereotype.Component;
+
+import com.viv.common.aot.AbstractBusEventTypes;
+import com.viv.cards.event.CardsCacheEvictEvent;
+
+/**
+ * Names the cards bus events for Jackson, next to those of common and the bus.
+ */
+@Component
+public class BusEventTypes extends AbstractBusEventTypes {
+
+    public BusEventTypes() {
+        super("cards-bus-event-types", CardsCacheEvictEvent.class);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.viv.cards.aot;
+
+import java.util.List;
+
+import com.viv.cards.dto.BatchItemResponseDto;
+import com.viv.cards.dto.CardAuthorizationDto;
+import com.viv.cards.dto.CardsContactInfoDto;
+import com.viv.cards.dto.CardsDto;
+import com.viv.cards.dto.ErrorResponseDto;
+import com.viv.cards.dto.KeysetPageDto;
+import com.viv.cards.dto.ResponseDto;
+import com.viv.common.aot.AbstractRuntimeHints;
+
+/**
+ * The native image hints of cards: its outbox payload, bus events and documented DTOs.
+ */
+public class CardsRuntimeHints extends AbstractRuntimeHints {
+
+    public CardsRuntimeHints() {
+        super(new BusEventTypes(), CardsDto.class, List.of(CardsDto.class, ResponseDto.class, ErrorResponseDto.class,
+                BatchItemResponseDto.class, KeysetPageDto.class, CardsContactInfoDto.class, CardAuthorizationDto.class));
+    }
+
+}
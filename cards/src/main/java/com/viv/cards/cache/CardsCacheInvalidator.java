@@ -0,0 +1,112 @@
+package com.viv.cards.cache;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.viv.cards.entity.Cards;
+import com.viv.cards.event.CardsCacheEvictEvent;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the cards region of the {@link SecondLevelCache} coherent across all cards
+ * instances, one card at a time. Hibernate already updates this instance's regions for
+ * writes through the entity, while the CardLimitLedger's JDBC write-behind bypasses it and
+ * is evicted here; the other replicas learn about every change from a bus broadcast sent
+ * after the commit. With the bus disabled (spring.cloud.bus.enabled=false)
+ * they fall back to entity-cache.expire-after-write. Card numbers never change, so the
+ * cards-by-card-number region needs no eviction.
+ */
+@Component
+public class CardsCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(CardsCacheInvalidator.class);
+
+    private final Cache cache;
+    private final boolean enabled;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusProperties busProperties;
+    private final Destination destination;
+
+    public CardsCacheInvalidator(EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+            ObjectProvider<BusProperties> busProperties, ObjectProvider<Destination.Factory> destinationFactory,
+            @Value("${spring.application.name}") String applicationName) {
+        this.cache = entityManagerFactory.getCache();
+        this.enabled = entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions()
+                .isSecondLevelCacheEnabled();
+        this.eventPublisher = eventPublisher;
+        this.busProperties = busProperties.getIfAvailable();
+        Destination.Factory factory = destinationFactory.getIfAvailable();
+        this.destination = factory != null ? factory.getDestination(applicationName + ":**") : null;
+    }
+
+    /**
+     * @param cardIds - Cards changed or deleted by the current transaction
+     */
+    public void evict(Collection<Long> cardIds) {
+        if (!enabled || cardIds.isEmpty()) {
+            return;
+        }
+        afterCommit(List.copyOf(cardIds));
+    }
+
+    /**
+     * @param cardIds - Cards changed outside Hibernate by a transaction that has already committed
+     */
+    public void evictCommitted(Collection<Long> cardIds) {
+        if (enabled && !cardIds.isEmpty()) {
+            evictEverywhere(List.copyOf(cardIds));
+        }
+    }
+
+    private void afterCommit(List<Long> cardIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // evicting before commit would let a concurrent read re-cache the old card
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(cardIds);
+                }
+            });
+        } else {
+            evictEverywhere(cardIds);
+        }
+    }
+
+    private void evictEverywhere(List<Long> cardIds) {
+        evictLocally(cardIds);
+        if (busProperties == null || destination == null) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(new CardsCacheEvictEvent(this, busProperties.getId(), destination, cardIds));
+        } catch (RuntimeException ex) {
+            // This instance is already clean; remote replicas fall back to the expiry.
+            log.warn("Unable to broadcast cards cache eviction for {}", cardIds, ex);
+        }
+    }
+
+    @EventListener
+    public void onCardsCacheEvict(CardsCacheEvictEvent event) {
+        evictLocally(event.getCardIds());
+    }
+
+    private void evictLocally(List<Long> cardIds) {
+        cardIds.forEach(cardId -> cache.evict(Cards.class, cardId));
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.viv.cards.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.viv.cards.constants.CardsConstants;
+import com.viv.common.cache.AbstractSecondLevelCache;
+
+/**
+ * Hibernate's second-level cache for the cards and their card numbers; the
+ * {@link CardsCacheInvalidator} keeps it coherent across instances.
+ */
+@Component
+public class SecondLevelCache extends AbstractSecondLevelCache {
+
+    public SecondLevelCache(@Value("${entity-cache.maximum-size:10000}") long maximumSize,
+            @Value("${entity-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        super(List.of(CardsConstants.CARDS_CACHE_REGION, CardsConstants.CARD_NUMBERS_CACHE_REGION),
+                maximumSize, expireAfterWrite);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.viv.cards.cascade;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.cards.service.ICardsService;
+import com.viv.common.cascade.AbstractCustomerDeletedListener;
+import com.viv.common.cascade.ProcessedEvents;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Deletes the cards of customers deleted in the accounts service, keeping those created
+ * after the customer was deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "cascade.delete.enabled", havingValue = "true")
+public class CustomerDeletedListener extends AbstractCustomerDeletedListener {
+
+    public CustomerDeletedListener(ICardsService cardsService, ProcessedEvents processedEvents,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${cascade.delete.retention:P7D}") Duration retention) {
+        super(cardsService::deleteCardsOfCustomers, "Cards deleted because their customer was deleted",
+                processedEvents, transactionManager, objectMapper, meterRegistry, retention);
+    }
+
+}
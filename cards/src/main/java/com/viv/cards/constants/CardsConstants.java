@@ -15,6 +15,25 @@ public final class CardsConstants {
     public static final String STATUS_417 = "417";
     public static final String MESSAGE_417_UPDATE = "Update operation failed. Please try again or contact Dev team";
     public static final String MESSAGE_417_DELETE = "Delete operation failed. Please try again or contact Dev team";
+    public static final String STATUS_400 = "400";
+    public static final String MESSAGE_400_DUPLICATE = "Card already registered with given mobileNumber";
+    public static final String STATUS_404 = "404";
+    public static final String MESSAGE_404 = "No card found for the given mobileNumber";
+    public static final String STATUS_409 = "409";
+    public static final String MESSAGE_409 = "Card was modified concurrently. Fetch it again and retry";
+    public static final int BATCH_MAX_SIZE = 500;
+    public static final String LIST_DEFAULT_SIZE = "100";
+    public static final int LIST_MAX_SIZE = 1000;
+    public static final String CARD_NUMBER_SEQUENCE = "card_number_seq";
+    public static final int NUMBER_BLOCK_SIZE = 1000;
+    // first card_id of the cards_seq sequence, above the ids the former AUTO_INCREMENT column handed out
+    public static final int ID_SEQUENCE_START = 1_000_000_000;
+    public static final String CARDS_CACHE_REGION = "cards";
+    public static final String CARD_NUMBERS_CACHE_REGION = "cards-by-card-number";
+    public static final String AGGREGATE_CARD = "card";
+    public static final String EVENT_CREATED = "created";
+    public static final String EVENT_UPDATED = "updated";
+    public static final String EVENT_DELETED = "deleted";
     // public static final String STATUS_500 = "500";
     // public static final String MESSAGE_500 = "An error occurred. Please try again
     // or contact Dev team";
@@ -15,14 +15,30 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 import com.viv.cards.constants.CardsConstants;
+import com.viv.cards.dto.BatchItemResponseDto;
+import com.viv.cards.dto.CardAuthorizationDto;
+import com.viv.cards.dto.KeysetPageDto;
 import com.viv.cards.dto.CardsContactInfoDto;
 import com.viv.cards.dto.CardsDto;
 import com.viv.cards.dto.ErrorResponseDto;
 import com.viv.cards.dto.ResponseDto;
+import com.viv.cards.exception.GlobalExceptionHandler;
+import com.viv.cards.exception.ResourceNotFoundException;
 import com.viv.cards.service.ICardsService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -30,7 +46,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 
 @Tag(name = "Card Service", description = "CRUD REST APIs CREATE, UPDATE, FETCH AND DELETE card details")
@@ -49,7 +71,9 @@ public class CardsController {
         @Autowired
         private CardsContactInfoDto cardsContactInfoDto;
 
-        private ICardsService iCardsService;
+        private final ICardsService iCardsService;
+
+        private final ObjectMapper objectMapper;
 
         @Operation(summary = "Create Card REST API", description = "REST API to create new Card")
         @ApiResponses({
@@ -67,19 +91,25 @@ public class CardsController {
 
         @Operation(summary = "Fetch Card Details REST API", description = "REST API to fetch card details based on a mobile number")
         @ApiResponses({
-                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK", content = @Content(schema = @Schema(implementation = CardsDto.class))),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
                         @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
         })
         @GetMapping("/fetch")
-        public ResponseEntity<CardsDto> fetchCardDetails(
-                        @RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String mobileNumber) {
-                CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
-                return ResponseEntity.status(HttpStatus.OK).body(cardsDto);
+        public ResponseEntity<?> fetchCardDetails(
+                        @RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String mobileNumber,
+                        WebRequest webRequest) {
+                // unknown numbers are answered without throwing, they are mostly probes
+                return iCardsService.findCard(mobileNumber)
+                                .<ResponseEntity<?>>map(cardsDto -> ResponseEntity.status(HttpStatus.OK).body(cardsDto))
+                                .orElseGet(() -> GlobalExceptionHandler.notFound(webRequest,
+                                                ResourceNotFoundException.message("Card", "mobileNumber", mobileNumber)));
         }
 
         @Operation(summary = "Update Card Details REST API", description = "REST API to update card details based on a card number")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "409", description = "HTTP Status Conflict, the version is stale", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
                         @ApiResponse(responseCode = "417", description = "Expectation Failed"),
                         @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
         })
@@ -98,6 +128,67 @@ public class CardsController {
                 }
         }
 
+        @Operation(summary = "Charge Card REST API", description = "REST API to charge a card; the amount moves from availableAmount to amountUsed in a single conditional update, or through the card ledger when it is enabled, so concurrent charges never lose updates")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "400", description = "HTTP Status Bad Request, the amount exceeds the balance", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/charge")
+        public ResponseEntity<ResponseDto> chargeCard(
+                        @RequestParam @Pattern(regexp = "[0-9]{12}", message = "CardNumber must be 12 digits") String cardNumber,
+                        @RequestParam @Positive(message = "Amount should be greater than zero") int amount) {
+                iCardsService.chargeCard(cardNumber, amount);
+                return ResponseEntity
+                                .status(HttpStatus.OK)
+                                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200));
+        }
+
+        @Operation(summary = "Authorize Card REST API", description = "REST API to reserve an amount on a card against the in-memory limit ledger, which card-ledger.enabled turns on; a declined authorization is reported in the body")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK", content = @Content(schema = @Schema(implementation = CardAuthorizationDto.class))),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "501", description = "HTTP Status Not Implemented, the card ledger is disabled", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/authorize")
+        public ResponseEntity<CardAuthorizationDto> authorizeCard(
+                        @RequestParam @Pattern(regexp = "[0-9]{12}", message = "CardNumber must be 12 digits") String cardNumber,
+                        @RequestParam @Positive(message = "Amount should be greater than zero") int amount) {
+                return ResponseEntity.status(HttpStatus.OK).body(iCardsService.authorizeCard(cardNumber, amount));
+        }
+
+        @Operation(summary = "Capture Authorization REST API", description = "REST API to settle an approved authorization; the reserved amount moves to amountUsed")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found, unknown or already settled", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "501", description = "HTTP Status Not Implemented, the card ledger is disabled", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/capture")
+        public ResponseEntity<ResponseDto> captureAuthorization(@RequestParam long authorizationId) {
+                iCardsService.captureAuthorization(authorizationId);
+                return ResponseEntity
+                                .status(HttpStatus.OK)
+                                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200));
+        }
+
+        @Operation(summary = "Release Authorization REST API", description = "REST API to cancel an approved authorization; the reserved amount becomes available again")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found, unknown or already settled", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "501", description = "HTTP Status Not Implemented, the card ledger is disabled", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/release")
+        public ResponseEntity<ResponseDto> releaseAuthorization(@RequestParam long authorizationId) {
+                iCardsService.releaseAuthorization(authorizationId);
+                return ResponseEntity
+                                .status(HttpStatus.OK)
+                                .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200));
+        }
+
         @Operation(summary = "Delete Card Details REST API", description = "REST API to delete Card details based on a mobile number")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
@@ -120,6 +211,85 @@ public class CardsController {
                 }
         }
 
+        @Operation(summary = "Batch Create Card REST API", description = "REST API to create new cards for up to "
+                        + CardsConstants.BATCH_MAX_SIZE + " mobile numbers in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/create")
+        public ResponseEntity<List<BatchItemResponseDto<CardsDto>>> createCards(
+                        @RequestBody @NotEmpty @Size(max = CardsConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + CardsConstants.BATCH_MAX_SIZE
+                                        + " mobile numbers per batch") List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+                return ResponseEntity.status(HttpStatus.OK).body(iCardsService.createCards(mobileNumbers));
+        }
+
+        @Operation(summary = "Batch Fetch Card Details REST API", description = "REST API to fetch card details of up to "
+                        + CardsConstants.BATCH_MAX_SIZE + " mobile numbers in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/fetch")
+        public ResponseEntity<List<BatchItemResponseDto<CardsDto>>> fetchCardsDetails(
+                        @RequestBody @NotEmpty @Size(max = CardsConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + CardsConstants.BATCH_MAX_SIZE
+                                        + " mobile numbers per batch") List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+                return ResponseEntity.status(HttpStatus.OK).body(iCardsService.fetchCards(mobileNumbers));
+        }
+
+        @Operation(summary = "Batch Delete Card Details REST API", description = "REST API to delete Card details of up to "
+                        + CardsConstants.BATCH_MAX_SIZE + " mobile numbers in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/delete")
+        public ResponseEntity<List<BatchItemResponseDto<CardsDto>>> deleteCardsDetails(
+                        @RequestBody @NotEmpty @Size(max = CardsConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + CardsConstants.BATCH_MAX_SIZE
+                                        + " mobile numbers per batch") List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+                return ResponseEntity.status(HttpStatus.OK).body(iCardsService.deleteCards(mobileNumbers));
+        }
+
+        @Operation(summary = "List Card Details REST API", description = "REST API to page through all cards in creation order, at most "
+                        + CardsConstants.LIST_MAX_SIZE + " per page; pass nextCursor back as 'after' for the next page")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @GetMapping("/list")
+        public ResponseEntity<KeysetPageDto<CardsDto>> listCardsDetails(
+                        @RequestParam(required = false) @PositiveOrZero Long after,
+                        @RequestParam(defaultValue = CardsConstants.LIST_DEFAULT_SIZE) @Min(1) @Max(CardsConstants.LIST_MAX_SIZE) int size) {
+                return ResponseEntity.status(HttpStatus.OK).body(iCardsService.listCards(after, size));
+        }
+
+        @Operation(summary = "Export Card Details REST API", description = "REST API to stream all cards as newline delimited JSON, one card per line")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public ResponseEntity<StreamingResponseBody> exportCardsDetails() {
+                ObjectWriter writer = objectMapper.writerFor(CardsDto.class)
+                                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                StreamingResponseBody body = outputStream -> {
+                        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                                generator.setRootValueSeparator(null);
+                                iCardsService.exportCards(cardsDto -> {
+                                        try {
+                                                writer.writeValue(generator, cardsDto);
+                                                generator.writeRaw('\n');
+                                        } catch (IOException ex) {
+                                                throw new UncheckedIOException(ex);
+                                        }
+                                });
+                        }
+                };
+                return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
 
         @GetMapping("/build-info")
         public ResponseEntity<String> getBuildInfo() {
@@ -0,0 +1,32 @@
+package com.viv.cards.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "CardAuthorization", description = "Schema to hold the outcome of a card authorization")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CardAuthorizationDto {
+
+        @Schema(description = "Id to capture or release the reserved amount with, absent when declined", example = "1024")
+        private Long authorizationId;
+
+        @Schema(description = "Card Number of the customer", example = "100646930341")
+        private String cardNumber;
+
+        @Schema(description = "Amount requested", example = "250")
+        private int amount;
+
+        @Schema(description = "Whether the amount was reserved")
+        private boolean approved;
+
+        @Schema(description = "Amount still available on the card after the authorization", example = "89750")
+        private int availableAmount;
+
+}
@@ -2,6 +2,7 @@ package com.viv.cards.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -37,4 +38,9 @@ public class CardsDto {
         @Schema(description = "Total available amount against a card", example = "90000")
         private int availableAmount;
 
+        @NotNull(message = "Version can not be null; send the version the details were read at")
+        @PositiveOrZero(message = "Version should be equal or greater than zero")
+        @Schema(description = "Version the details were read at; an update based on a stale version is rejected", example = "3")
+        private Long version;
+
 }
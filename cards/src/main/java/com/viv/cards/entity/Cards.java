@@ -2,8 +2,21 @@ package com.viv.cards.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import com.viv.cards.constants.CardsConstants;
 
 @Entity
+@Table(indexes = {
+		@Index(name = "ux_cards_mobile_number", columnList = "mobile_number", unique = true),
+		@Index(name = "ux_cards_card_number", columnList = "card_number", unique = true) })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CardsConstants.CARDS_CACHE_REGION)
+@NaturalIdCache(region = CardsConstants.CARD_NUMBERS_CACHE_REGION)
 @Getter
 @Setter
 @ToString
@@ -12,11 +25,14 @@ import lombok.*;
 public class Cards extends BaseEntity {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cards_seq")
+	@SequenceGenerator(name = "cards_seq", sequenceName = "cards_seq", allocationSize = 50,
+			initialValue = CardsConstants.ID_SEQUENCE_START)
 	private Long cardId;
 
 	private String mobileNumber;
 
+	@NaturalId
 	private String cardNumber;
 
 	private String cardType;
@@ -27,4 +43,14 @@ public class Cards extends BaseEntity {
 
 	private int availableAmount;
 
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
+	// last CardLimitLedger journal sequence written to the row, maintained by the ledger only
+	@ColumnDefault("0")
+	@Column(insertable = false, updatable = false)
+	private long ledgerSeq;
+
 }
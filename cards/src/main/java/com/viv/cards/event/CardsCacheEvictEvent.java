@@ -0,0 +1,32 @@
+package com.viv.cards.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * Bus event telling every cards instance to drop the given cards from its
+ * second-level cache.
+ */
+@Getter
+public class CardsCacheEvictEvent extends RemoteApplicationEvent {
+
+    private List<Long> cardIds;
+
+    @SuppressWarnings("unused")
+    private CardsCacheEvictEvent() {
+        // for serializers
+    }
+
+    public CardsCacheEvictEvent(Object source, String originService, Destination destination,
+            Collection<Long> cardIds) {
+        super(source, originService, destination);
+        this.cardIds = new ArrayList<>(cardIds);
+    }
+
+}
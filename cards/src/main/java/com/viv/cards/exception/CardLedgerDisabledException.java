@@ -0,0 +1,13 @@
+package com.viv.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.NOT_IMPLEMENTED)
+public class CardLedgerDisabledException extends RuntimeException {
+
+    public CardLedgerDisabledException(String message){
+        super(message);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.viv.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class CardLimitExceededException extends RuntimeException {
+
+    public CardLimitExceededException(String message){
+        super(message);
+    }
+
+}
@@ -1,9 +1,13 @@
 package com.viv.cards.exception;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.ConstraintViolationException.ConstraintKind;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -12,6 +16,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.viv.cards.constants.CardsConstants;
 import com.viv.cards.dto.ErrorResponseDto;
 
 import java.time.LocalDateTime;
@@ -53,10 +58,24 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponseDto> handleResourceNotFoundException(ResourceNotFoundException exception,
                                                                             WebRequest webRequest) {
+        return notFound(webRequest, exception.getMessage());
+    }
+
+    /**
+     * Skips only the exception. The body names the value that matched nothing and the time
+     * of the miss, so one is still built and serialized per miss, and that is most of what
+     * a 404 costs now (see ExceptionHandlerBenchmark in the benchmarks README).
+     *
+     * @param webRequest - the request that found nothing
+     * @param errorMessage - message for the client
+     * @return the same 404 response handleResourceNotFoundException gives, for lookups
+     *         that report a miss without throwing
+     */
+    public static ResponseEntity<ErrorResponseDto> notFound(WebRequest webRequest, String errorMessage) {
         ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
                 webRequest.getDescription(false),
                 HttpStatus.NOT_FOUND,
-                exception.getMessage(),
+                errorMessage,
                 LocalDateTime.now()
         );
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.NOT_FOUND);
@@ -74,4 +93,60 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(CardLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDto> handleCardLimitExceededException(CardLimitExceededException exception,
+                                                                             WebRequest webRequest){
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.BAD_REQUEST,
+                exception.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(CardLedgerDisabledException.class)
+    public ResponseEntity<ErrorResponseDto> handleCardLedgerDisabledException(CardLedgerDisabledException exception,
+                                                                              WebRequest webRequest){
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.NOT_IMPLEMENTED,
+                exception.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    /**
+     * A create that the mobile number filter let through without a lookup, e.g. because the
+     * broadcast of a number created on another instance was lost, ends at the unique index.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponseDto> handleDataIntegrityViolation(DataIntegrityViolationException exception,
+                                                                         WebRequest webRequest) {
+        if (!(exception.getCause() instanceof ConstraintViolationException violation)
+                || violation.getKind() != ConstraintKind.UNIQUE) {
+            return handleGlobalException(exception, webRequest);
+        }
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.BAD_REQUEST,
+                CardsConstants.MESSAGE_400_DUPLICATE,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException exception,
+                                                                           WebRequest webRequest) {
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.CONFLICT,
+                CardsConstants.MESSAGE_409,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.CONFLICT);
+    }
+
 }
@@ -0,0 +1,55 @@
+package com.viv.cards.generator;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Component;
+
+import com.viv.cards.constants.CardsConstants;
+import com.viv.common.generator.SequenceBlockAllocator;
+
+/**
+ * Allocates unique 12 digit card numbers: an 11 digit sequence value followed by a
+ * Luhn check digit, so mistyped card numbers can be rejected without a lookup. The
+ * sequence values come from card_number_seq, reserved in blocks of
+ * {@link CardsConstants#NUMBER_BLOCK_SIZE}.
+ */
+@Component
+public class CardNumberGenerator {
+
+    private final SequenceBlockAllocator allocator;
+
+    public CardNumberGenerator(DataSource dataSource) {
+        this.allocator = new SequenceBlockAllocator(dataSource, CardsConstants.CARD_NUMBER_SEQUENCE,
+                CardsConstants.NUMBER_BLOCK_SIZE);
+    }
+
+    /**
+     * @return a new, never issued card number
+     */
+    public String nextCardNumber() {
+        long payload = allocator.next();
+        return Long.toString(payload * 10 + luhnCheckDigit(payload));
+    }
+
+    /**
+     * @param payload - digits the check digit is appended to
+     * @return the digit that makes payload followed by it pass the Luhn check
+     */
+    static int luhnCheckDigit(long payload) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = payload; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+}
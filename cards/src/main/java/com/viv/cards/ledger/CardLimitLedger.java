@@ -0,0 +1,685 @@
+package com.viv.cards.ledger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.viv.cards.cache.CardsCacheInvalidator;
+import com.viv.cards.constants.CardsConstants;
+import com.viv.cards.dto.CardAuthorizationDto;
+import com.viv.cards.dto.CardsDto;
+import com.viv.cards.entity.Cards;
+import com.viv.cards.exception.ResourceNotFoundException;
+import com.viv.cards.ledger.LedgerJournal.Entry;
+import com.viv.cards.ledger.LedgerJournal.Type;
+import com.viv.cards.repository.CardsRepository;
+import com.viv.common.audit.AuditLogWriter;
+import com.viv.common.outbox.OutboxWriter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Authorizes card spend against an in-memory copy of availableAmount, so an
+ * authorization costs a striped lock and a journal append instead of a database
+ * round trip.
+ * <p>
+ * Every operation is appended to the {@link LedgerJournal} before it takes effect
+ * and reaches the cards table in batches every {@code card-ledger.flush-interval}.
+ * Each card row remembers the last journal sequence written to it (ledger_seq), so
+ * replaying the journal on startup applies exactly what the table is missing.
+ * <p>
+ * The ledger is off unless {@code card-ledger.enabled=true}; charges are then a single
+ * conditional UPDATE that any number of cards instances can run. Once enabled it is
+ * authoritative for the balances, so charges go through it as well, and a
+ * {@link LedgerLease} keeps a second instance from starting its own. Writes made to a
+ * card outside the ledger (update, delete) are picked up by {@link #evict(String)};
+ * operations still waiting for write-behind at that moment are applied on top of them.
+ * The write-behind bypasses Hibernate, so it evicts the cards it wrote from the
+ * second-level cache itself.
+ * <p>
+ * The journal is forced and flushed on threads of their own, so neither the loss bound
+ * of {@code card-ledger.journal.force-interval} nor the lease renewal waits for other
+ * tasks of the shared scheduler, nor does forcing wait for a flush.
+ */
+@Component
+@ConditionalOnProperty(name = "card-ledger.enabled", havingValue = "true")
+public class CardLimitLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(CardLimitLedger.class);
+
+    private static final String WRITE_BEHIND_SQL = """
+            update cards set amount_used = amount_used + ?, available_amount = available_amount + ?,
+                version = version + 1, ledger_seq = ?, updated_at = ?, updated_by = ?
+            where card_number = ? and ledger_seq < ?""";
+    private static final String LEDGER_SEQ_SQL = "select card_id, ledger_seq from cards where card_number = ?";
+    private static final String MAX_LEDGER_SEQ_SQL = "select coalesce(max(ledger_seq), 0) from cards";
+    private static final String BALANCES_SQL = """
+            select card_id, card_number, mobile_number, card_type, total_limit, amount_used, available_amount, version
+            from cards where card_id in (%s)""";
+    private static final int BALANCES_CHUNK_SIZE = 1000;
+
+    private final CardsRepository cardsRepository;
+    private final CardsCacheInvalidator cardsCacheInvalidator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final AuditorAware<String> auditorAware;
+    private final ObjectProvider<AuditLogWriter> auditLogWriter;
+    private final OutboxWriter outboxWriter;
+    private final LedgerJournal journal;
+    private final long segmentSize;
+    private final ReentrantLock[] stripes;
+    private final AtomicLongArray evictions;
+    private final Map<String, Balance> balances = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    // cards whose eviction failed to write them, dropped by the flush that does
+    private final Set<String> stale = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Entry> holds = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final LedgerLease lease;
+    private final Duration forceInterval;
+    private final Duration flushInterval;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2,
+            Thread.ofPlatform().name("card-ledger-", 0).daemon().factory());
+    private volatile boolean leaseHeld;
+
+    public CardLimitLedger(CardsRepository cardsRepository, CardsCacheInvalidator cardsCacheInvalidator,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, AuditorAware<String> auditorAware,
+            ObjectProvider<AuditLogWriter> auditLogWriter, OutboxWriter outboxWriter,
+            @Value("${card-ledger.journal.directory:card-ledger}") String journalDirectory,
+            @Value("${card-ledger.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${card-ledger.stripes:1024}") int stripes,
+            @Value("${card-ledger.journal.force-interval:PT0.01S}") Duration forceInterval,
+            @Value("${card-ledger.flush-interval:PT1S}") Duration flushInterval,
+            @Value("${card-ledger.lease-duration:PT30S}") Duration leaseDuration,
+            @Value("${card-ledger.owner:}") String owner) {
+        this.cardsRepository = cardsRepository;
+        this.cardsCacheInvalidator = cardsCacheInvalidator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // eviction runs after the caller's commit, where joining its transaction would write nothing
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.auditorAware = auditorAware;
+        this.auditLogWriter = auditLogWriter;
+        this.outboxWriter = outboxWriter;
+        this.journal = new LedgerJournal(Path.of(journalDirectory));
+        this.segmentSize = segmentSize.toBytes();
+        this.stripes = new ReentrantLock[stripes];
+        this.evictions = new AtomicLongArray(stripes);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.forceInterval = forceInterval;
+        this.flushInterval = flushInterval;
+        // the host and the journal identify an instance across its restarts
+        this.lease = new LedgerLease(jdbcTemplate, owner.isEmpty()
+                ? System.getenv().getOrDefault("HOSTNAME", "localhost") + ":" + Path.of(journalDirectory).toAbsolutePath()
+                : owner, leaseDuration);
+    }
+
+    /**
+     * Writes what the journal holds beyond each card's ledger_seq to the table and
+     * restores the open authorizations.
+     *
+     * @throws IllegalStateException when another instance owns the ledger
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        lease.acquire();
+        leaseHeld = true;
+        List<Entry> entries = journal.read();
+        Map<Long, Entry> open = new LinkedHashMap<>();
+        Map<String, List<Entry>> entriesByCard = new HashMap<>();
+        long lastSequence = jdbcTemplate.queryForObject(MAX_LEDGER_SEQ_SQL, Long.class);
+        for (Entry entry : entries) {
+            lastSequence = Math.max(lastSequence, entry.sequence());
+            switch (entry.type()) {
+                case AUTHORIZE, HOLD -> open.put(entry.authorizationId(), entry);
+                case CAPTURE, RELEASE -> open.remove(entry.authorizationId());
+                case DEBIT -> {
+                }
+            }
+            if (entry.type() != Type.HOLD) {
+                entriesByCard.computeIfAbsent(entry.cardNumber(), cardNumber -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        Set<String> cardNumbers = new HashSet<>(entriesByCard.keySet());
+        open.values().forEach(hold -> cardNumbers.add(hold.cardNumber()));
+        List<Delta> deltas = new ArrayList<>();
+        for (String cardNumber : cardNumbers) {
+            long[] row = jdbcTemplate.query(LEDGER_SEQ_SQL,
+                    rs -> rs.next() ? new long[] { rs.getLong(1), rs.getLong(2) } : null, cardNumber);
+            if (row == null) {
+                // deleted meanwhile, nothing left to reserve against
+                open.values().removeIf(hold -> hold.cardNumber().equals(cardNumber));
+                continue;
+            }
+            long written = row[1];
+            Balance replay = new Balance(row[0], 0);
+            entriesByCard.getOrDefault(cardNumber, List.of()).stream()
+                    .filter(entry -> entry.sequence() > written)
+                    .forEach(replay::apply);
+            if (replay.isDirty()) {
+                deltas.add(replay.drain(cardNumber));
+            }
+        }
+        write(deltas);
+
+        holds.putAll(open);
+        sequence.set(lastSequence);
+        journal.open(open.values());
+        scheduler.scheduleWithFixedDelay(this::force, forceInterval.toNanos(), forceInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toNanos(), flushInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+        log.info("Recovered card ledger: {} journal entries, {} cards updated, {} open authorizations",
+                entries.size(), deltas.size(), open.size());
+    }
+
+    /**
+     * @param cardNumber - Card Number to reserve the amount on
+     * @param amount - amount to reserve
+     * @return the authorization, declined when availableAmount is below amount
+     */
+    public CardAuthorizationDto authorize(String cardNumber, int amount) {
+        requireLease();
+        ReentrantLock stripe = stripe(cardNumber);
+        Balance balance = lockBalance(cardNumber);
+        try {
+            if (balance.available < amount) {
+                return new CardAuthorizationDto(null, cardNumber, amount, false, balance.available);
+            }
+            long authorizationId = sequence.incrementAndGet();
+            Entry entry = new Entry(Type.AUTHORIZE, authorizationId, authorizationId, cardNumber, amount);
+            // registered before the append, so a segment rotation in between carries it over
+            holds.put(authorizationId, entry);
+            try {
+                journal.append(entry);
+            } catch (RuntimeException ex) {
+                holds.remove(authorizationId);
+                throw ex;
+            }
+            apply(cardNumber, balance, entry);
+            return new CardAuthorizationDto(authorizationId, cardNumber, amount, true, balance.available);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * @param authorizationId - open authorization to settle
+     * @return false when the authorization is unknown or already settled
+     */
+    public boolean capture(long authorizationId) {
+        return settle(authorizationId, Type.CAPTURE);
+    }
+
+    /**
+     * @param authorizationId - open authorization to cancel
+     * @return false when the authorization is unknown or already settled
+     */
+    public boolean release(long authorizationId) {
+        return settle(authorizationId, Type.RELEASE);
+    }
+
+    /**
+     * Moves amount straight to amountUsed, checked against availableAmount less the
+     * open authorizations.
+     *
+     * @param cardNumber - Card Number to charge
+     * @param amount - amount to charge
+     * @return false when availableAmount is below amount
+     */
+    public boolean charge(String cardNumber, int amount) {
+        requireLease();
+        ReentrantLock stripe = stripe(cardNumber);
+        Balance balance = lockBalance(cardNumber);
+        try {
+            if (balance.available < amount) {
+                return false;
+            }
+            Entry entry = new Entry(Type.DEBIT, sequence.incrementAndGet(), 0, cardNumber, amount);
+            journal.append(entry);
+            apply(cardNumber, balance, entry);
+            return true;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private boolean settle(long authorizationId, Type type) {
+        requireLease();
+        Entry hold = holds.get(authorizationId);
+        if (hold == null) {
+            return false;
+        }
+        ReentrantLock stripe = stripe(hold.cardNumber());
+        Balance balance = lockBalance(hold.cardNumber());
+        try {
+            if (!holds.remove(authorizationId, hold)) {
+                return false;
+            }
+            Entry entry = new Entry(type, sequence.incrementAndGet(), authorizationId, hold.cardNumber(), hold.amount());
+            try {
+                journal.append(entry);
+            } catch (RuntimeException ex) {
+                holds.put(authorizationId, hold);
+                throw ex;
+            }
+            apply(hold.cardNumber(), balance, entry);
+            return true;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Writes the card's pending operations and drops its balance, so its next operation
+     * reads the changed row. Inside a transaction this happens after the commit; a write
+     * failing there is only logged, as the caller's change is already committed, and the
+     * card stays dirty for the next flush, which drops its balance once it has written it.
+     *
+     * @param cardNumber - Card Number whose row was changed outside the ledger
+     */
+    public void evict(String cardNumber) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // evicting before commit would reload the balance the change is replacing
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        evictNow(cardNumber);
+                    } catch (RuntimeException ex) {
+                        log.error("Unable to write card {} behind before evicting it, leaving it to the next flush",
+                                cardNumber, ex);
+                    }
+                }
+            });
+        } else {
+            evictNow(cardNumber);
+        }
+    }
+
+    private void evictNow(String cardNumber) {
+        flushLock.lock();
+        ReentrantLock stripe = stripe(cardNumber);
+        stripe.lock();
+        try {
+            Balance balance = balances.remove(cardNumber);
+            dirty.remove(cardNumber);
+            stale.remove(cardNumber);
+            evictions.incrementAndGet(stripeIndex(cardNumber));
+            if (balance != null && balance.isDirty()) {
+                Delta delta = balance.drain(cardNumber);
+                try {
+                    write(List.of(delta));
+                } catch (RuntimeException ex) {
+                    balance.restore(delta);
+                    balances.put(cardNumber, balance);
+                    dirty.add(cardNumber);
+                    stale.add(cardNumber);
+                    throw ex;
+                }
+            }
+        } finally {
+            stripe.unlock();
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the balances changed since the last flush to the cards table in one batch,
+     * after starting a new journal segment once the current one is full.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (!renewLease()) {
+                return;
+            }
+            long sealed = journal.size() >= segmentSize ? journal.rotate(() -> List.copyOf(holds.values())) : -1;
+            if (sealed >= 0) {
+                // an operation may have appended to the sealed segment without having marked
+                // its card dirty yet; once it releases its stripe the card is in dirty
+                for (ReentrantLock stripe : stripes) {
+                    stripe.lock();
+                    stripe.unlock();
+                }
+            }
+            List<Delta> deltas = new ArrayList<>();
+            for (String cardNumber : dirty) {
+                ReentrantLock stripe = stripe(cardNumber);
+                stripe.lock();
+                try {
+                    dirty.remove(cardNumber);
+                    deltas.add(balances.get(cardNumber).drain(cardNumber));
+                } finally {
+                    stripe.unlock();
+                }
+            }
+            List<Delta> rejected;
+            try {
+                rejected = write(deltas);
+            } catch (RuntimeException ex) {
+                deltas.forEach(this::restore);
+                throw ex;
+            }
+            rejected.forEach(this::reload);
+            stale.forEach(this::dropStale);
+            if (sealed >= 0) {
+                journal.deleteThrough(sealed);
+            }
+        } catch (IOException ex) {
+            log.error("Unable to rotate the card ledger journal", ex);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            // a failed task would never run again; the deltas were restored for the next flush
+            log.error("Unable to write the card ledger behind", ex);
+        }
+    }
+
+    private void force() {
+        try {
+            journal.force();
+        } catch (IOException ex) {
+            log.error("Unable to force the card ledger journal", ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        scheduler.shutdown();
+        flush();
+        journal.close();
+        if (leaseHeld) {
+            lease.release();
+        }
+    }
+
+    private void requireLease() {
+        if (!leaseHeld) {
+            throw new IllegalStateException("The card ledger lost its lease to another instance");
+        }
+    }
+
+    private boolean renewLease() {
+        if (leaseHeld && !lease.renew()) {
+            leaseHeld = false;
+            log.error("The card ledger lost its lease to another instance; authorizations are refused");
+        }
+        return leaseHeld;
+    }
+
+    private ReentrantLock stripe(String cardNumber) {
+        return stripes[stripeIndex(cardNumber)];
+    }
+
+    private int stripeIndex(String cardNumber) {
+        return Math.floorMod(cardNumber.hashCode(), stripes.length);
+    }
+
+    /**
+     * Locks the card's stripe. A card used for the first time is read from the table
+     * before the stripe is locked, so the other cards of the stripe do not wait for the
+     * query; a read that an eviction in the stripe may have overtaken is repeated.
+     *
+     * @param cardNumber - Card Number
+     * @return the card's balance, with its stripe held by the caller
+     */
+    private Balance lockBalance(String cardNumber) {
+        int index = stripeIndex(cardNumber);
+        while (true) {
+            long evicted = evictions.get(index);
+            Balance loaded = balances.containsKey(cardNumber) ? null : load(cardNumber);
+            stripes[index].lock();
+            Balance balance = balances.get(cardNumber);
+            if (balance != null) {
+                return balance;
+            }
+            if (loaded != null && evictions.get(index) == evicted) {
+                balances.put(cardNumber, loaded);
+                return loaded;
+            }
+            stripes[index].unlock();
+        }
+    }
+
+    private Balance load(String cardNumber) {
+        // never from the second-level cache: the ledger's amounts must start from the row
+        Cards cards = cardsRepository.findCurrentByCardNumber(cardNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+        return new Balance(cards.getCardId(), cards.getAvailableAmount());
+    }
+
+    private void apply(String cardNumber, Balance balance, Entry entry) {
+        balance.apply(entry);
+        dirty.add(cardNumber);
+    }
+
+    /**
+     * Drops a card whose row did not take its delta, deleted meanwhile, so its next
+     * operation starts from the row again.
+     */
+    private void reload(Delta delta) {
+        ReentrantLock stripe = stripe(delta.cardNumber());
+        stripe.lock();
+        try {
+            balances.remove(delta.cardNumber());
+            dirty.remove(delta.cardNumber());
+            evictions.incrementAndGet(stripeIndex(delta.cardNumber()));
+            log.warn("Card {} did not take the ledger's write-behind (sequence {}), reloading it",
+                    delta.cardNumber(), delta.sequence());
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Drops a card whose eviction could not write it, once its balance has been written,
+     * so its next operation starts from the row the eviction was for.
+     */
+    private void dropStale(String cardNumber) {
+        ReentrantLock stripe = stripe(cardNumber);
+        stripe.lock();
+        try {
+            if (!dirty.contains(cardNumber)) {
+                balances.remove(cardNumber);
+                stale.remove(cardNumber);
+                evictions.incrementAndGet(stripeIndex(cardNumber));
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private void restore(Delta delta) {
+        ReentrantLock stripe = stripe(delta.cardNumber());
+        stripe.lock();
+        try {
+            balances.get(delta.cardNumber()).restore(delta);
+            dirty.add(delta.cardNumber());
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * @return the deltas whose row was not updated: deleted, or already past their sequence
+     */
+    private List<Delta> write(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        List<Object[]> rows = deltas.stream()
+                .map(delta -> new Object[] { delta.used(), delta.available(), delta.sequence(), now, updatedBy,
+                        delta.cardNumber(), delta.sequence() })
+                .toList();
+        int[] counts = writeTransaction.execute(status -> {
+            int[] updated = jdbcTemplate.batchUpdate(WRITE_BEHIND_SQL, rows);
+            record(deltas, updated);
+            return updated;
+        });
+        // the rows changed behind Hibernate's back, so the cached cards are stale now
+        cardsCacheInvalidator.evictCommitted(deltas.stream().map(Delta::cardId).toList());
+        List<Delta> rejected = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                rejected.add(deltas.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Records the written balances in the change history and appends an updated event
+     * per written delta to the outbox, in the write's transaction. The statement only
+     * added the deltas, so the new values are read back while the rows are still locked.
+     */
+    private void record(List<Delta> deltas, int[] counts) {
+        Map<Long, Delta> written = new HashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                written.put(deltas.get(i).cardId(), deltas.get(i));
+            }
+        }
+        AuditLogWriter writer = auditLogWriter.getIfAvailable();
+        List<CardsDto> cardsDtos = new ArrayList<>(written.size());
+        List<Long> cardIds = List.copyOf(written.keySet());
+        for (int from = 0; from < cardIds.size(); from += BALANCES_CHUNK_SIZE) {
+            List<Long> chunk = cardIds.subList(from, Math.min(from + BALANCES_CHUNK_SIZE, cardIds.size()));
+            jdbcTemplate.query(BALANCES_SQL.formatted(String.join(", ", Collections.nCopies(chunk.size(), "?"))),
+                    rs -> {
+                        Delta delta = written.get(rs.getLong(1));
+                        CardsDto cardsDto = new CardsDto();
+                        cardsDto.setCardNumber(rs.getString(2));
+                        cardsDto.setMobileNumber(rs.getString(3));
+                        cardsDto.setCardType(rs.getString(4));
+                        cardsDto.setTotalLimit(rs.getInt(5));
+                        cardsDto.setAmountUsed(rs.getInt(6));
+                        cardsDto.setAvailableAmount(rs.getInt(7));
+                        cardsDto.setVersion(rs.getLong(8));
+                        cardsDtos.add(cardsDto);
+                        if (writer != null) {
+                            writer.recordBulk(Cards.class, delta.cardId(), Map.of(
+                                    "amountUsed", new Object[] { cardsDto.getAmountUsed() - delta.used(),
+                                            cardsDto.getAmountUsed() },
+                                    "availableAmount", new Object[] {
+                                            cardsDto.getAvailableAmount() - delta.available(),
+                                            cardsDto.getAvailableAmount() }));
+                        }
+                    }, chunk.toArray());
+        }
+        outboxWriter.appendAll(CardsConstants.AGGREGATE_CARD, CardsConstants.EVENT_UPDATED, cardsDtos,
+                CardsDto::getCardNumber);
+    }
+
+    private record Delta(long cardId, String cardNumber, int used, int available, long sequence) {
+    }
+
+    /**
+     * A card's availableAmount as the ledger sees it, and the changes to it that have
+     * not been written to the table yet. Guarded by the card's stripe.
+     */
+    private static final class Balance {
+
+        private final long cardId;
+        private int available;
+        private int usedDelta;
+        private int availableDelta;
+        private long sequence;
+        private boolean pending;
+
+        private Balance(long cardId, int available) {
+            this.cardId = cardId;
+            this.available = available;
+        }
+
+        private void apply(Entry entry) {
+            switch (entry.type()) {
+                case AUTHORIZE -> {
+                    available -= entry.amount();
+                    availableDelta -= entry.amount();
+                }
+                case CAPTURE -> usedDelta += entry.amount();
+                case DEBIT -> {
+                    available -= entry.amount();
+                    availableDelta -= entry.amount();
+                    usedDelta += entry.amount();
+                }
+                case RELEASE -> {
+                    available += entry.amount();
+                    availableDelta += entry.amount();
+                }
+                case HOLD -> {
+                    return;
+                }
+            }
+            sequence = entry.sequence();
+            pending = true;
+        }
+
+        private boolean isDirty() {
+            return pending;
+        }
+
+        private Delta drain(String cardNumber) {
+            Delta delta = new Delta(cardId, cardNumber, usedDelta, availableDelta, sequence);
+            usedDelta = 0;
+            availableDelta = 0;
+            pending = false;
+            return delta;
+        }
+
+        private void restore(Delta delta) {
+            usedDelta += delta.used();
+            availableDelta += delta.available();
+            sequence = Math.max(sequence, delta.sequence());
+            pending = true;
+        }
+
+    }
+
+}
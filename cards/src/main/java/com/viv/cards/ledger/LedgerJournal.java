@@ -0,0 +1,246 @@
+package com.viv.cards.ledger;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of ledger operations, one comma separated line per entry,
+ * split into numbered segment files. A segment is only deleted once the balances
+ * it describes have been written to the cards table; each new segment starts with
+ * the authorizations that were still open, so older segments are never needed to
+ * rebuild them.
+ * <p>
+ * Appends land in the page cache and survive a crash of the process; {@link #force()}
+ * bounds what a crash of the machine can lose.
+ */
+final class LedgerJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    enum Type {
+        /** funds reserved; the sequence number doubles as the authorization id */
+        AUTHORIZE,
+        /** reserved funds moved to amountUsed */
+        CAPTURE,
+        /** reserved funds returned to availableAmount */
+        RELEASE,
+        /** a charge, moved from availableAmount to amountUsed without an authorization */
+        DEBIT,
+        /** an authorization still open when the segment was started, without balance effect */
+        HOLD
+    }
+
+    record Entry(Type type, long sequence, long authorizationId, String cardNumber, int amount) {
+
+        private String format() {
+            return type.name().charAt(0) + "," + sequence + "," + authorizationId + "," + cardNumber + "," + amount + "\n";
+        }
+
+        private static Entry parse(String line) {
+            String[] fields = line.split(",");
+            if (fields.length != 5) {
+                throw new IllegalArgumentException(line);
+            }
+            Type type = switch (fields[0]) {
+                case "A" -> Type.AUTHORIZE;
+                case "C" -> Type.CAPTURE;
+                case "R" -> Type.RELEASE;
+                case "D" -> Type.DEBIT;
+                case "H" -> Type.HOLD;
+                default -> throw new IllegalArgumentException(line);
+            };
+            return new Entry(type, Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3],
+                    Integer.parseInt(fields[4]));
+        }
+
+    }
+
+    private final Path directory;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final AtomicBoolean unforced = new AtomicBoolean();
+
+    private volatile FileChannel channel;
+    private long segment;
+    private long size;
+
+    LedgerJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return every entry of the segments left on disk, oldest first; a line torn by a
+     *         crash ends its segment
+     */
+    List<Entry> read() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Path path : segments()) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.US_ASCII)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    try {
+                        entries.add(Entry.parse(line));
+                    } catch (IllegalArgumentException ex) {
+                        break;
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Starts a fresh segment after recovery and deletes the ones that were read.
+     *
+     * @param holds - authorizations still open, written as {@link Type#HOLD} entries
+     */
+    void open(Collection<Entry> holds) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> recovered = segments();
+        segment = recovered.isEmpty() ? 0 : segmentNumber(recovered.get(recovered.size() - 1));
+        startSegment(() -> holds);
+        force();
+        for (Path path : recovered) {
+            Files.delete(path);
+        }
+    }
+
+    void append(Entry entry) {
+        ByteBuffer buffer = StandardCharsets.US_ASCII.encode(entry.format());
+        appendLock.lock();
+        try {
+            size += write(channel, buffer);
+            unforced.set(true);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes appended entries to the device; a no-op when nothing was appended since.
+     */
+    void force() throws IOException {
+        if (!unforced.getAndSet(false)) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException ex) {
+            // rotated meanwhile, the closed segment was forced before closing
+        }
+    }
+
+    long size() {
+        appendLock.lock();
+        try {
+            return size;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Seals the current segment and continues in a new one.
+     *
+     * @param holds - the authorizations open at the switch, read while appends are held
+     * @return number of the sealed segment, for {@link #deleteThrough(long)}
+     */
+    long rotate(Supplier<Collection<Entry>> holds) throws IOException {
+        appendLock.lock();
+        try {
+            FileChannel sealed = channel;
+            long sealedSegment = segment;
+            sealed.force(false);
+            startSegment(holds);
+            sealed.close();
+            return sealedSegment;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * @param lastSegment - segments up to this number are no longer needed
+     */
+    void deleteThrough(long lastSegment) throws IOException {
+        for (Path path : segments()) {
+            if (segmentNumber(path) <= lastSegment) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void startSegment(Supplier<Collection<Entry>> holds) throws IOException {
+        segment++;
+        FileChannel next = FileChannel.open(directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        long written = 0;
+        StringBuilder lines = new StringBuilder();
+        for (Entry hold : holds.get()) {
+            lines.append(new Entry(Type.HOLD, 0, hold.authorizationId(), hold.cardNumber(), hold.amount()).format());
+        }
+        if (!lines.isEmpty()) {
+            written = write(next, StandardCharsets.US_ASCII.encode(lines.toString()));
+        }
+        channel = next;
+        size = written;
+    }
+
+    private static long write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            // zero padded numbers sort in segment order
+            return paths.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.viv.cards.ledger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The one row in card_ledger_lease naming the instance whose ledger owns the card
+ * balances. Balances, journal sequence numbers and authorization ids are only
+ * consistent while a single ledger writes them, so a second instance with the ledger
+ * enabled refuses to start instead of authorizing against balances it cannot see.
+ * <p>
+ * The owner renews the lease on every flush; a lease that is not renewed for its
+ * duration, e.g. after a crash, can be taken over.
+ */
+final class LedgerLease {
+
+    private static final String TAKE_SQL = """
+            update card_ledger_lease set owner = ?, expires_at = ?
+            where lease_id = 1 and (owner = ? or expires_at < ?)""";
+    private static final String INSERT_SQL = "insert into card_ledger_lease (lease_id, owner, expires_at) values (1, ?, ?)";
+    private static final String RENEW_SQL = "update card_ledger_lease set expires_at = ? where lease_id = 1 and owner = ?";
+    private static final String RELEASE_SQL = "delete from card_ledger_lease where lease_id = 1 and owner = ?";
+    private static final String HOLDER_SQL = "select owner, expires_at from card_ledger_lease where lease_id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+    private final Duration duration;
+
+    LedgerLease(JdbcTemplate jdbcTemplate, String owner, Duration duration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = owner;
+        this.duration = duration;
+    }
+
+    /**
+     * @throws IllegalStateException when another instance holds an unexpired lease
+     */
+    void acquire() {
+        LocalDateTime now = LocalDateTime.now();
+        if (jdbcTemplate.update(TAKE_SQL, owner, now.plus(duration), owner, now) == 1) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_SQL, owner, now.plus(duration));
+        } catch (DuplicateKeyException ex) {
+            List<String> holder = jdbcTemplate.query(HOLDER_SQL,
+                    (rs, rowNum) -> rs.getString(1) + " until " + rs.getTimestamp(2));
+            throw new IllegalStateException("The card ledger is owned by " + holder
+                    + "; set card-ledger.enabled=false on this instance or wait for the lease to expire", ex);
+        }
+    }
+
+    /**
+     * @return false when the lease was lost, e.g. taken over after this instance stalled
+     */
+    boolean renew() {
+        return jdbcTemplate.update(RENEW_SQL, LocalDateTime.now().plus(duration), owner) == 1;
+    }
+
+    void release() {
+        jdbcTemplate.update(RELEASE_SQL, owner);
+    }
+
+}
@@ -11,6 +11,7 @@ public class CardsMapper {
         cardsDto.setMobileNumber(cards.getMobileNumber());
         cardsDto.setTotalLimit(cards.getTotalLimit());
         cardsDto.setAvailableAmount(cards.getAvailableAmount());
+        cardsDto.setVersion(cards.getVersion());
         cardsDto.setAmountUsed(cards.getAmountUsed());
         return cardsDto;
     }
@@ -0,0 +1,27 @@
+package com.viv.cards.repository;
+
+import java.util.Optional;
+
+/**
+ * Charge of a card as a single conditional UPDATE.
+ */
+public interface CardCharge {
+
+    /**
+     * Moves amount from availableAmount to amountUsed in a single conditional UPDATE, so concurrent
+     * calls on the same card neither lose writes nor need a lock or a retry, whichever instance
+     * serves them. The statement is issued through JDBC, since Hibernate empties the whole cards
+     * cache region on a JPQL bulk update; the caller evicts the card instead.
+     *
+     * @param cardId - Card to charge
+     * @param amount - amount to be charged
+     * @param updatedBy - caller recorded as the card's updatedBy
+     * @return the card's amounts and version after the charge, read while the row is still locked; empty when
+     *         the card is unknown or availableAmount is below amount
+     */
+    Optional<Balance> charge(long cardId, int amount, String updatedBy);
+
+    record Balance(int amountUsed, int availableAmount, long version) {
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.viv.cards.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class CardChargeImpl implements CardCharge {
+
+    private static final String CHARGE_SQL = """
+            update cards set amount_used = amount_used + ?, available_amount = available_amount - ?,
+                version = version + 1, updated_at = ?, updated_by = ?
+            where card_id = ? and available_amount >= ?""";
+    private static final String BALANCE_SQL = "select amount_used, available_amount, version from cards where card_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CardChargeImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param cardId - Card to charge
+     * @param amount - amount to be charged
+     * @param updatedBy - caller recorded as the card's updatedBy
+     * @return the card's amounts and version after the charge, empty when it was not applied
+     */
+    @Override
+    public Optional<Balance> charge(long cardId, int amount, String updatedBy) {
+        // joins the caller's transaction, which keeps the row locked until the commit
+        if (jdbcTemplate.update(CHARGE_SQL, amount, amount, LocalDateTime.now(), updatedBy, cardId, amount) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(jdbcTemplate.queryForObject(BALANCE_SQL,
+                (rs, rowNum) -> new Balance(rs.getInt(1), rs.getInt(2), rs.getLong(3)), cardId));
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.viv.cards.repository;
+
+import java.util.Optional;
+
+import com.viv.cards.entity.Cards;
+
+/**
+ * Natural-key lookup of a card, served from the second-level cache when the card has
+ * been read or written recently.
+ */
+public interface CardNumberLookup {
+
+    /**
+     * @param cardNumber - Card Number
+     * @return the card, read from the table only when the cards-by-card-number or the cards
+     *         cache region misses
+     */
+    Optional<Cards> findByCardNumber(String cardNumber);
+
+}
@@ -0,0 +1,31 @@
+package com.viv.cards.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import com.viv.cards.entity.Cards;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+public class CardNumberLookupImpl implements CardNumberLookup {
+
+    private final EntityManager entityManager;
+
+    public CardNumberLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param cardNumber - Card Number
+     * @return the card, resolved through the natural-id cache
+     */
+    @Override
+    // the shared EntityManager only keeps its session open inside a transaction
+    @Transactional
+    public Optional<Cards> findByCardNumber(String cardNumber) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Cards.class).loadOptional(cardNumber);
+    }
+
+}
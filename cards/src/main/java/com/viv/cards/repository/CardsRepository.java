@@ -1,17 +1,51 @@
 package com.viv.cards.repository;
 
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.viv.cards.entity.Cards;
+import com.viv.common.cache.MobileNumberSource;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface CardsRepository extends JpaRepository<Cards, Long> {
+public interface CardsRepository extends JpaRepository<Cards, Long>, MobileNumberSource, CardNumberLookup, CardCharge {
 
     Optional<Cards> findByMobileNumber(String mobileNumber);
 
-    Optional<Cards> findByCardNumber(String cardNumber);
+    List<Cards> findAllByMobileNumberIn(Collection<String> mobileNumbers);
+
+    /**
+     * @return the card as the table holds it, bypassing the second-level cache
+     */
+    @Query("select c from Cards c where c.cardNumber = :cardNumber")
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    Optional<Cards> findCurrentByCardNumber(String cardNumber);
+
+    /**
+     * @return the mobile number of every card, read in chunks; needs an open transaction
+     */
+    @Query("select c.mobileNumber from Cards c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllMobileNumbers();
+
+    List<Cards> findByCardIdGreaterThanOrderByCardIdAsc(Long cardId, Limit limit);
+
+    /**
+     * @return every card in cardId order, read in chunks; needs an open transaction
+     */
+    @Query("select c from Cards c order by c.cardId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Cards> streamAllOrderByCardId();
 
 }
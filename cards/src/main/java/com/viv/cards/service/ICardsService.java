@@ -1,6 +1,15 @@
 package com.viv.cards.service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.viv.cards.dto.BatchItemResponseDto;
+import com.viv.cards.dto.CardAuthorizationDto;
 import com.viv.cards.dto.CardsDto;
+import com.viv.cards.dto.KeysetPageDto;
 
 public interface ICardsService {
 
@@ -17,6 +26,13 @@ public interface ICardsService {
      */
     CardsDto fetchCard(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Card Details based on a given mobileNumber, empty when there are none
+     */
+    Optional<CardsDto> findCard(String mobileNumber);
+
     /**
      *
      * @param cardsDto - CardsDto Object
@@ -31,4 +47,79 @@ public interface ICardsService {
      */
     boolean deleteCard(String mobileNumber);
 
+    /**
+     * Moves amount from availableAmount to amountUsed in one conditional UPDATE, so
+     * concurrent charges of the same card never lose updates and need no retry. With the
+     * card ledger enabled the charge goes through the ledger instead.
+     *
+     * @param cardNumber - Card Number
+     * @param amount - amount to be charged
+     */
+    void chargeCard(String cardNumber, int amount);
+
+    /**
+     *
+     * @param cardNumber - Card Number
+     * @param amount - amount to be reserved
+     * @return the authorization, approved or declined
+     */
+    CardAuthorizationDto authorizeCard(String cardNumber, int amount);
+
+    /**
+     *
+     * @param authorizationId - id of an approved authorization
+     */
+    void captureAuthorization(long authorizationId);
+
+    /**
+     *
+     * @param authorizationId - id of an approved authorization
+     */
+    void releaseAuthorization(long authorizationId);
+
+    /**
+     *
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return creation outcome of every mobileNumber, in request order
+     */
+    List<BatchItemResponseDto<CardsDto>> createCards(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Card Details or not found outcome of every mobileNumber, in request order
+     */
+    List<BatchItemResponseDto<CardsDto>> fetchCards(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return delete outcome of every mobileNumber, in request order
+     */
+    List<BatchItemResponseDto<CardsDto>> deleteCards(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param deletedAt - when each customer was deleted, by Mobile Number; cards created later
+     *                  belong to a new customer with the same number and are kept
+     * @return number of cards deleted
+     */
+    int deleteCardsOfCustomers(Map<String, LocalDateTime> deletedAt);
+
+    /**
+     *
+     * @param after - cursor returned with the previous page, null for the first page
+     * @param size - maximum number of cards on the page
+     * @return the next page of Card Details
+     */
+    KeysetPageDto<CardsDto> listCards(Long after, int size);
+
+    /**
+     *
+     * @param consumer - receives the Card Details of every card, oldest first
+     * @throws java.util.concurrent.CancellationException when the calling thread is interrupted,
+     *         e.g. because the asynchronous request timed out
+     */
+    void exportCards(Consumer<CardsDto> consumer);
+
 }
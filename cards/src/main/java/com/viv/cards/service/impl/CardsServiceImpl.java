@@ -1,36 +1,81 @@
 package com.viv.cards.service.impl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.viv.cards.cache.CardsCacheInvalidator;
 import com.viv.cards.constants.CardsConstants;
+import com.viv.cards.dto.BatchItemResponseDto;
+import com.viv.cards.dto.CardAuthorizationDto;
 import com.viv.cards.dto.CardsDto;
+import com.viv.cards.dto.KeysetPageDto;
 import com.viv.cards.entity.Cards;
 import com.viv.cards.exception.CardAlreadyExistsException;
+import com.viv.cards.exception.CardLedgerDisabledException;
+import com.viv.cards.exception.CardLimitExceededException;
 import com.viv.cards.exception.ResourceNotFoundException;
+import com.viv.cards.generator.CardNumberGenerator;
+import com.viv.cards.ledger.CardLimitLedger;
 import com.viv.cards.mapper.CardsMapper;
+import com.viv.cards.repository.CardCharge.Balance;
 import com.viv.cards.repository.CardsRepository;
 import com.viv.cards.service.ICardsService;
+import com.viv.common.audit.AuditLogWriter;
+import com.viv.common.cache.MobileNumberFilter;
+import com.viv.common.outbox.OutboxWriter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class CardsServiceImpl implements ICardsService {
 
     private CardsRepository cardsRepository;
+    private CardNumberGenerator cardNumberGenerator;
+    private MobileNumberFilter mobileNumberFilter;
+    private PlatformTransactionManager transactionManager;
+    private EntityManager entityManager;
+    private ObjectProvider<CardLimitLedger> cardLimitLedger;
+    private OutboxWriter outboxWriter;
+    private CardsCacheInvalidator cardsCacheInvalidator;
+    private ObjectProvider<AuditLogWriter> auditLogWriter;
+    private AuditorAware<String> auditorAware;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
+    @Transactional
     public void createCard(String mobileNumber) {
-        Optional<Cards> optionalCards = cardsRepository.findByMobileNumber(mobileNumber);
+        Optional<Cards> optionalCards = mobileNumberFilter.find(mobileNumber, cardsRepository::findByMobileNumber);
         if (optionalCards.isPresent()) {
             throw new CardAlreadyExistsException("Card already registered with given mobileNumber " + mobileNumber);
         }
-        cardsRepository.save(createNewCard(mobileNumber));
+        Cards savedCard = cardsRepository.save(createNewCard(mobileNumber));
+        mobileNumberFilter.add(List.of(mobileNumber));
+        outboxWriter.append(CardsConstants.AGGREGATE_CARD, CardsConstants.EVENT_CREATED, savedCard.getCardNumber(),
+                CardsMapper.mapToCardsDto(savedCard, new CardsDto()));
     }
 
     /**
@@ -39,8 +84,7 @@ public class CardsServiceImpl implements ICardsService {
      */
     private Cards createNewCard(String mobileNumber) {
         Cards newCard = new Cards();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(cardNumberGenerator.nextCardNumber());
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CardsConstants.CREDIT_CARD);
         newCard.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
@@ -56,9 +100,19 @@ public class CardsServiceImpl implements ICardsService {
      */
     @Override
     public CardsDto fetchCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        return findCard(mobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber));
-        return CardsMapper.mapToCardsDto(cards, new CardsDto());
+    }
+
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Card Details based on a given mobileNumber, empty when there are none
+     */
+    @Override
+    public Optional<CardsDto> findCard(String mobileNumber) {
+        return mobileNumberFilter.find(mobileNumber, cardsRepository::findByMobileNumber)
+                .map(cards -> CardsMapper.mapToCardsDto(cards, new CardsDto()));
     }
 
     /**
@@ -67,11 +121,24 @@ public class CardsServiceImpl implements ICardsService {
      * @return boolean indicating if the update of card details is successful or not
      */
     @Override
+    @Transactional
     public boolean updateCard(CardsDto cardsDto) {
         Cards cards = cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber()));
+        if (!Objects.equals(cardsDto.getVersion(), cards.getVersion())) {
+            // the caller edited an older read, or did not say which; either would overwrite the charges made
+            // since. @Version only guards the window from here to the save
+            throw new ObjectOptimisticLockingFailureException(Cards.class, cards.getCardId());
+        }
         CardsMapper.mapToCards(cardsDto, cards);
-        cardsRepository.save(cards);
+        // flushed here so that the event carries the incremented version
+        cardsRepository.saveAndFlush(cards);
+        cardLimitLedger.ifAvailable(ledger -> ledger.evict(cards.getCardNumber()));
+        cardsCacheInvalidator.evict(List.of(cards.getCardId()));
+        // the update may have moved the card to another mobile number
+        mobileNumberFilter.add(List.of(cards.getMobileNumber()));
+        outboxWriter.append(CardsConstants.AGGREGATE_CARD, CardsConstants.EVENT_UPDATED, cards.getCardNumber(),
+                CardsMapper.mapToCardsDto(cards, new CardsDto()));
         return true;
     }
 
@@ -80,11 +147,230 @@ public class CardsServiceImpl implements ICardsService {
      * @return boolean indicating if the delete of card details is successful or not
      */
     @Override
+    @Transactional
     public boolean deleteCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Cards cards = mobileNumberFilter.find(mobileNumber, cardsRepository::findByMobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber));
         cardsRepository.deleteById(cards.getCardId());
+        cardsCacheInvalidator.evict(List.of(cards.getCardId()));
+        outboxWriter.append(CardsConstants.AGGREGATE_CARD, CardsConstants.EVENT_DELETED, cards.getCardNumber(),
+                CardsMapper.mapToCardsDto(cards, new CardsDto()));
+        cardLimitLedger.ifAvailable(ledger -> ledger.evict(cards.getCardNumber()));
         return true;
     }
 
+    /**
+     * @param cardNumber - Card Number
+     * @param amount - amount to be charged
+     */
+    @Override
+    @Transactional
+    public void chargeCard(String cardNumber, int amount) {
+        CardLimitLedger ledger = cardLimitLedger.getIfAvailable();
+        if (ledger != null) {
+            // through the ledger, so the charge sees its open authorizations and unwritten balance
+            if (!ledger.charge(cardNumber, amount)) {
+                throw new CardLimitExceededException("Charge exceeds the available amount of card " + cardNumber);
+            }
+            return;
+        }
+        // resolved through the natural-id cache; card numbers never change, so the id stays valid
+        Cards cards = cardsRepository.findByCardNumber(cardNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        Balance balance = cardsRepository.charge(cards.getCardId(), amount, updatedBy).orElseThrow(
+                () -> new CardLimitExceededException("Charge exceeds the available amount of card " + cardNumber));
+        // the statement bypassed Hibernate, so only this card is evicted, here and on the other instances
+        cardsCacheInvalidator.evict(List.of(cards.getCardId()));
+        auditLogWriter.ifAvailable(writer -> writer.recordBulk(Cards.class, cards.getCardId(), Map.of(
+                "amountUsed", new Object[] { balance.amountUsed() - amount, balance.amountUsed() },
+                "availableAmount", new Object[] { balance.availableAmount() + amount, balance.availableAmount() })));
+        // the card was read before the statement, so the amounts and version come from the row
+        CardsDto cardsDto = CardsMapper.mapToCardsDto(cards, new CardsDto());
+        cardsDto.setAmountUsed(balance.amountUsed());
+        cardsDto.setAvailableAmount(balance.availableAmount());
+        cardsDto.setVersion(balance.version());
+        outboxWriter.append(CardsConstants.AGGREGATE_CARD, CardsConstants.EVENT_UPDATED, cardNumber, cardsDto);
+    }
+
+    /**
+     * @param cardNumber - Card Number
+     * @param amount - amount to be reserved
+     * @return the authorization, approved or declined
+     */
+    @Override
+    public CardAuthorizationDto authorizeCard(String cardNumber, int amount) {
+        return ledger().authorize(cardNumber, amount);
+    }
+
+    /**
+     * @param authorizationId - id of an approved authorization
+     */
+    @Override
+    public void captureAuthorization(long authorizationId) {
+        if (!ledger().capture(authorizationId)) {
+            throw new ResourceNotFoundException("Authorization", "authorizationId", String.valueOf(authorizationId));
+        }
+    }
+
+    /**
+     * @param authorizationId - id of an approved authorization
+     */
+    @Override
+    public void releaseAuthorization(long authorizationId) {
+        if (!ledger().release(authorizationId)) {
+            throw new ResourceNotFoundException("Authorization", "authorizationId", String.valueOf(authorizationId));
+        }
+    }
+
+    /**
+     * @return the card ledger, which authorizations need
+     */
+    private CardLimitLedger ledger() {
+        CardLimitLedger ledger = cardLimitLedger.getIfAvailable();
+        if (ledger == null) {
+            throw new CardLedgerDisabledException(
+                    "Card authorizations need the card ledger; set card-ledger.enabled=true to turn it on");
+        }
+        return ledger;
+    }
+
+    /**
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return creation outcome of every mobileNumber, in request order
+     */
+    @Override
+    @Transactional
+    public List<BatchItemResponseDto<CardsDto>> createCards(List<String> mobileNumbers) {
+        Set<String> registeredMobileNumbers = mobileNumberFilter.findAll(mobileNumbers, cardsRepository::findAllByMobileNumberIn).stream()
+                .map(Cards::getMobileNumber).collect(Collectors.toCollection(HashSet::new));
+        List<BatchItemResponseDto<CardsDto>> results = new ArrayList<>(mobileNumbers.size());
+        List<Cards> newCards = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            // add() also rejects a mobile number repeated within the same batch
+            if (!registeredMobileNumbers.add(mobileNumber)) {
+                results.add(new BatchItemResponseDto<>(mobileNumber, CardsConstants.STATUS_400,
+                        CardsConstants.MESSAGE_400_DUPLICATE, null));
+                continue;
+            }
+            newCards.add(createNewCard(mobileNumber));
+            results.add(new BatchItemResponseDto<>(mobileNumber, CardsConstants.STATUS_201, CardsConstants.MESSAGE_201, null));
+        }
+        cardsRepository.saveAll(newCards);
+        mobileNumberFilter.add(newCards.stream().map(Cards::getMobileNumber).toList());
+        outboxWriter.appendAll(CardsConstants.AGGREGATE_CARD, CardsConstants.EVENT_CREATED,
+                newCards.stream().map(c -> CardsMapper.mapToCardsDto(c, new CardsDto())).toList(), CardsDto::getCardNumber);
+        return results;
+    }
+
+    /**
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Card Details or not found outcome of every mobileNumber, in request order
+     */
+    @Override
+    public List<BatchItemResponseDto<CardsDto>> fetchCards(List<String> mobileNumbers) {
+        Map<String, CardsDto> cardsDtos = mobileNumberFilter.findAll(mobileNumbers, cardsRepository::findAllByMobileNumberIn).stream()
+                .collect(Collectors.toMap(Cards::getMobileNumber, cards -> CardsMapper.mapToCardsDto(cards, new CardsDto())));
+        List<BatchItemResponseDto<CardsDto>> results = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            CardsDto cardsDto = cardsDtos.get(mobileNumber);
+            results.add(cardsDto != null
+                    ? new BatchItemResponseDto<>(mobileNumber, CardsConstants.STATUS_200, CardsConstants.MESSAGE_200, cardsDto)
+                    : new BatchItemResponseDto<>(mobileNumber, CardsConstants.STATUS_404, CardsConstants.MESSAGE_404, null));
+        }
+        return results;
+    }
+
+    /**
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return delete outcome of every mobileNumber, in request order
+     */
+    @Override
+    @Transactional
+    public List<BatchItemResponseDto<CardsDto>> deleteCards(List<String> mobileNumbers) {
+        List<Cards> cards = mobileNumberFilter.findAll(mobileNumbers, cardsRepository::findAllByMobileNumberIn);
+        cardsRepository.deleteAllByIdInBatch(cards.stream().map(Cards::getCardId).toList());
+        auditLogWriter.ifAvailable(writer -> writer.recordDeleted(cards));
+        cardsCacheInvalidator.evict(cards.stream().map(Cards::getCardId).toList());
+        outboxWriter.appendAll(CardsConstants.AGGREGATE_CARD, CardsConstants.EVENT_DELETED,
+                cards.stream().map(c -> CardsMapper.mapToCardsDto(c, new CardsDto())).toList(), CardsDto::getCardNumber);
+        cardLimitLedger.ifAvailable(ledger -> cards.forEach(card -> ledger.evict(card.getCardNumber())));
+        Set<String> deletedMobileNumbers = cards.stream().map(Cards::getMobileNumber).collect(Collectors.toSet());
+        List<BatchItemResponseDto<CardsDto>> results = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            results.add(deletedMobileNumbers.contains(mobileNumber)
+                    ? new BatchItemResponseDto<>(mobileNumber, CardsConstants.STATUS_200, CardsConstants.MESSAGE_200, null)
+                    : new BatchItemResponseDto<>(mobileNumber, CardsConstants.STATUS_404, CardsConstants.MESSAGE_404, null));
+        }
+        return results;
+    }
+
+    /**
+     * @param deletedAt - when each customer was deleted, by Mobile Number
+     * @return number of cards deleted
+     */
+    @Override
+    @Transactional
+    public int deleteCardsOfCustomers(Map<String, LocalDateTime> deletedAt) {
+        // not through the mobile number filter: a number it missed would leave an orphaned card
+        List<Cards> cards = cardsRepository.findAllByMobileNumberIn(deletedAt.keySet()).stream()
+                // created after the deletion, for a new customer who registered the number again
+                .filter(card -> !card.getCreatedAt().isAfter(deletedAt.get(card.getMobileNumber())))
+                .toList();
+        if (cards.isEmpty()) {
+            return 0;
+        }
+        cardsRepository.deleteAllByIdInBatch(cards.stream().map(Cards::getCardId).toList());
+        auditLogWriter.ifAvailable(writer -> writer.recordDeleted(cards));
+        cardLimitLedger.ifAvailable(ledger -> cards.forEach(card -> ledger.evict(card.getCardNumber())));
+        cardsCacheInvalidator.evict(cards.stream().map(Cards::getCardId).toList());
+        outboxWriter.appendAll(CardsConstants.AGGREGATE_CARD, CardsConstants.EVENT_DELETED,
+                cards.stream().map(c -> CardsMapper.mapToCardsDto(c, new CardsDto())).toList(), CardsDto::getCardNumber);
+        return cards.size();
+    }
+
+    /**
+     * @param after - cursor returned with the previous page, null for the first page
+     * @param size - maximum number of cards on the page
+     * @return the next page of Card Details
+     */
+    @Override
+    public KeysetPageDto<CardsDto> listCards(Long after, int size) {
+        // one extra row tells whether another page follows, without a count query
+        List<Cards> cards = cardsRepository.findByCardIdGreaterThanOrderByCardIdAsc(after == null ? 0L : after,
+                Limit.of(size + 1));
+        Long nextCursor = null;
+        if (cards.size() > size) {
+            cards = cards.subList(0, size);
+            nextCursor = cards.get(size - 1).getCardId();
+        }
+        return new KeysetPageDto<>(cards.stream().map(c -> CardsMapper.mapToCardsDto(c, new CardsDto())).toList(),
+                nextCursor);
+    }
+
+    /**
+     * @param consumer - receives the Card Details of every card, oldest first
+     */
+    @Override
+    public void exportCards(Consumer<CardsDto> consumer) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // a full export would otherwise push every row through the second-level cache,
+            // evicting the hot entries; a cache mode on the query itself is reset before a stream is read
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            try (Stream<Cards> cards = cardsRepository.streamAllOrderByCardId()) {
+                cards.forEach(c -> {
+                    // set when the request timed out or the client went away; stop reading the table
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Cards export cancelled");
+                    }
+                    consumer.accept(CardsMapper.mapToCardsDto(c, new CardsDto()));
+                    // keeps the persistence context, and with it the heap, from growing with the table
+                    entityManager.detach(c);
+                });
+            }
+        });
+    }
+
 }
@@ -1,3 +1,10 @@
+-- starts above the ids the former AUTO_INCREMENT card_id handed out (CardsConstants.ID_SEQUENCE_START)
+CREATE SEQUENCE IF NOT EXISTS `cards_seq` START WITH 1000000000 INCREMENT BY 50;
+
+-- 11 digit card number payloads, handed out in blocks of CardsConstants.NUMBER_BLOCK_SIZE;
+-- the Luhn check digit appended to them keeps issued numbers above the legacy random range
+CREATE SEQUENCE IF NOT EXISTS `card_number_seq` START WITH 20000000000 INCREMENT BY 1000;
+
 CREATE TABLE IF NOT EXISTS `cards` (
   `card_id` int NOT NULL AUTO_INCREMENT,
   `mobile_number` varchar(15) NOT NULL,
@@ -6,9 +13,74 @@ CREATE TABLE IF NOT EXISTS `cards` (
   `total_limit` int NOT NULL,
   `amount_used` int NOT NULL,
   `available_amount` int NOT NULL,
-  `created_at` date NOT NULL,
+  -- compared with the time of customer.deleted events, so it keeps the time of day
+  `created_at` timestamp NOT NULL,
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint NOT NULL DEFAULT 0,
+  `ledger_seq` bigint NOT NULL DEFAULT 0,
   PRIMARY KEY (`card_id`)
-);
\ No newline at end of file
+);
+
+-- tables created before optimistic locking: add the version column, and start rows that an
+-- earlier nullable column left without a version at 0 so they can be updated
+ALTER TABLE `cards` ADD COLUMN IF NOT EXISTS `version` bigint NOT NULL DEFAULT 0;
+UPDATE `cards` SET `version` = 0 WHERE `version` IS NULL;
+ALTER TABLE `cards` ALTER COLUMN `version` SET DEFAULT 0;
+ALTER TABLE `cards` ALTER COLUMN `version` SET NOT NULL;
+
+-- tables created before the card ledger: the last journal entry written back to each card
+ALTER TABLE `cards` ADD COLUMN IF NOT EXISTS `ledger_seq` bigint NOT NULL DEFAULT 0;
+
+-- tables created when created_at was a date: the cascade compares it with the time of
+-- customer.deleted events, and a midnight value would date a same-day row before the deletion
+ALTER TABLE `cards` ALTER COLUMN `created_at` SET DATA TYPE timestamp;
+
+ALTER TABLE `cards` ADD CONSTRAINT IF NOT EXISTS `ux_cards_mobile_number` UNIQUE (`mobile_number`);
+ALTER TABLE `cards` ADD CONSTRAINT IF NOT EXISTS `ux_cards_card_number` UNIQUE (`card_number`);
+
+-- the instance whose CardLimitLedger owns the card balances, renewed while it runs (LedgerLease)
+CREATE TABLE IF NOT EXISTS `card_ledger_lease` (
+  `lease_id` int PRIMARY KEY,
+  `owner` varchar(300) NOT NULL,
+  `expires_at` timestamp NOT NULL
+);
+
+-- change history written by AuditLogWriter; changes maps each touched property to [old, new]
+CREATE TABLE IF NOT EXISTS `audit_log` (
+  `audit_id` bigint AUTO_INCREMENT PRIMARY KEY,
+  `entity_name` varchar(100) NOT NULL,
+  `entity_id` varchar(100) NOT NULL,
+  `action` varchar(10) NOT NULL,
+  `changes` text,
+  `changed_by` varchar(20) DEFAULT NULL,
+  `changed_at` timestamp NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS `ix_audit_log_entity` ON `audit_log` (`entity_name`, `entity_id`);
+
+-- domain events written in the same transaction as the change, published by OutboxRelay
+CREATE TABLE IF NOT EXISTS `outbox` (
+  `event_id` bigint AUTO_INCREMENT PRIMARY KEY,
+  `aggregate_type` varchar(50) NOT NULL,
+  `aggregate_id` varchar(100) NOT NULL,
+  `event_type` varchar(50) NOT NULL,
+  `payload` text NOT NULL,
+  `created_at` timestamp NOT NULL
+);
+
+-- the instance whose OutboxRelay is relaying, renewed per batch and released after each run
+CREATE TABLE IF NOT EXISTS `outbox_relay_lease` (
+  `lease_id` int PRIMARY KEY,
+  `owner` varchar(300) NOT NULL,
+  `expires_at` timestamp NOT NULL
+);
+
+-- customer.deleted events already applied by CustomerDeletedListener, kept for cascade.delete.retention
+CREATE TABLE IF NOT EXISTS `processed_event` (
+  `event_id` varchar(100) PRIMARY KEY,
+  `processed_at` timestamp NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS `ix_processed_event_processed_at` ON `processed_event` (`processed_at`);
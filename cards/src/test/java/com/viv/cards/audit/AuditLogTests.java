@@ -0,0 +1,46 @@
+package com.viv.cards.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viv.cards.entity.Cards;
+import com.viv.cards.service.ICardsService;
+import com.viv.common.audit.AuditLogWriter;
+
+/**
+ * The bulk statement of batch deletes, which Hibernate's events do not see.
+ */
+@SpringBootTest
+class AuditLogTests {
+
+	@Autowired
+	ICardsService iCardsService;
+
+	@Autowired
+	AuditLogWriter auditLogWriter;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void batchDeletesAreRecorded() {
+		iCardsService.createCards(List.of("7800000001", "7800000002"));
+		List<Long> cardIds = jdbcTemplate.queryForList("""
+				select card_id from cards where mobile_number in ('7800000001', '7800000002')""", Long.class);
+
+		iCardsService.deleteCards(List.of("7800000001", "7800000002"));
+		auditLogWriter.flush();
+
+		assertThat(cardIds).hasSize(2).allSatisfy(cardId -> assertThat(jdbcTemplate.queryForList("""
+				select changes from audit_log where entity_name = ? and entity_id = ? and action = 'DELETE'""",
+				String.class, Cards.class.getName(), String.valueOf(cardId))).singleElement().asString()
+				.contains("availableAmount"));
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.viv.cards.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viv.cards.constants.CardsConstants;
+import com.viv.cards.entity.Cards;
+import com.viv.cards.ledger.CardLimitLedger;
+import com.viv.cards.repository.CardsRepository;
+import com.viv.cards.service.ICardsService;
+import com.viv.common.sql.StatementCounter;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = { "card-ledger.enabled=true",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=true" })
+class SecondLevelCacheTests {
+
+	@Autowired
+	ICardsService iCardsService;
+
+	@Autowired
+	CardsRepository cardsRepository;
+
+	@Autowired
+	CardLimitLedger cardLimitLedger;
+
+	@Autowired
+	StatementCounter statementCounter;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void lookupByCardNumberIsServedFromTheCache() {
+		String cardNumber = createCard("7400000001");
+		entityManagerFactory.getCache().evictAll();
+
+		assertThat(statements(cardNumber)).isPositive();
+		assertThat(statements(cardNumber)).isZero();
+	}
+
+	@Test
+	void ledgerWriteBehindIsVisibleToTheNextLookup() {
+		String cardNumber = createCard("7400000002");
+		cardsRepository.findByCardNumber(cardNumber);
+
+		iCardsService.authorizeCard(cardNumber, 500);
+		cardLimitLedger.flush();
+
+		assertThat(cardsRepository.findByCardNumber(cardNumber)).get()
+				.extracting(Cards::getAvailableAmount).isEqualTo(CardsConstants.NEW_CARD_LIMIT - 500);
+	}
+
+	@Test
+	void ledgerStartsFromTheRowRatherThanTheCache() {
+		String cardNumber = createCard("7400000003");
+		cardsRepository.findByCardNumber(cardNumber);
+		jdbcTemplate.update("update cards set available_amount = 300 where card_number = ?", cardNumber);
+
+		assertThat(iCardsService.authorizeCard(cardNumber, 500).isApproved()).isFalse();
+	}
+
+	@Test
+	void exportLeavesTheCacheAlone() {
+		Cards cards = cardsRepository.findByCardNumber(createCard("7400000004")).orElseThrow();
+		entityManagerFactory.getCache().evictAll();
+
+		iCardsService.exportCards(cardsDto -> {
+		});
+
+		assertThat(entityManagerFactory.getCache().contains(Cards.class, cards.getCardId())).isFalse();
+	}
+
+	private String createCard(String mobileNumber) {
+		iCardsService.createCard(mobileNumber);
+		return iCardsService.fetchCard(mobileNumber).getCardNumber();
+	}
+
+	private int statements(String cardNumber) {
+		statementCounter.open();
+		assertThat(cardsRepository.findByCardNumber(cardNumber)).isPresent();
+		return statementCounter.close();
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.viv.cards.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.cards.dto.CardsDto;
+import com.viv.cards.service.ICardsService;
+
+/**
+ * A cards table from before this version of the service: ids from its AUTO_INCREMENT column,
+ * a NULL version, as ddl-auto added that column without a default, and created_at as a date.
+ * legacy-cards.sql creates it before schema.sql runs.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:legacy-cards;INIT=RUNSCRIPT FROM 'classpath:legacy-cards.sql'",
+		// Hibernate's update happens to convert column types on H2; schema.sql has to do it alone
+		"spring.jpa.hibernate.ddl-auto=none" })
+@AutoConfigureMockMvc
+class LegacyTableTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	ICardsService iCardsService;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void cardWithoutAVersionCanBeUpdated() throws Exception {
+		CardsDto cardsDto = iCardsService.fetchCard("7900000101");
+		assertThat(cardsDto.getVersion()).isNotNull();
+		cardsDto.setCardType("Debit Card");
+
+		mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(cardsDto))).andExpect(status().isOk());
+
+		assertThat(iCardsService.fetchCard("7900000101").getCardType()).isEqualTo("Debit Card");
+	}
+
+	@Test
+	void chargeCountsUpFromTheBackfilledVersion() {
+		long version = iCardsService.fetchCard("7900000101").getVersion();
+
+		iCardsService.chargeCard("100000000101", 1_000);
+
+		assertThat(iCardsService.fetchCard("7900000101").getVersion()).isEqualTo(version + 1);
+	}
+
+	@Test
+	void newCardGetsAnIdAboveTheLegacyOnes() {
+		iCardsService.createCard("7900000102");
+
+		assertThat(iCardsService.fetchCard("7900000102")).isNotNull();
+	}
+
+	@Test
+	void cardCreatedAgainOnTheDayOfTheDeletionIsKept() {
+		LocalDateTime deletedAt = LocalDateTime.now().minusSeconds(1);
+		iCardsService.createCard("7900000103");
+
+		// read back from the table, as after the cache entry expired or on another instance;
+		// a created_at cut to midnight would date the new card before the deletion
+		entityManagerFactory.getCache().evictAll();
+		assertThat(iCardsService.deleteCardsOfCustomers(Map.of("7900000103", deletedAt))).isZero();
+
+		assertThat(iCardsService.findCard("7900000103")).isPresent();
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.viv.cards.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.cards.dto.CardsDto;
+import com.viv.cards.service.ICardsService;
+
+/**
+ * Full updates racing a charge, which changes the card without going through them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UpdateConflictTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	ICardsService iCardsService;
+
+	@Test
+	void staleUpdateDoesNotUndoACharge() throws Exception {
+		iCardsService.createCard("7900000001");
+		CardsDto cardsDto = iCardsService.fetchCard("7900000001");
+		iCardsService.chargeCard(cardsDto.getCardNumber(), 1_000);
+		cardsDto.setCardType("Debit Card");
+
+		mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(cardsDto))).andExpect(status().isConflict());
+
+		assertThat(iCardsService.fetchCard("7900000001").getAmountUsed()).isEqualTo(1_000);
+	}
+
+	@Test
+	void updateWithoutAVersionIsRejected() throws Exception {
+		iCardsService.createCard("7900000002");
+		CardsDto cardsDto = iCardsService.fetchCard("7900000002");
+		cardsDto.setVersion(null);
+
+		mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(cardsDto)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.version").exists());
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.viv.cards.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The check digit; handing out the sequence values is tested with SequenceBlockAllocator
+ * in common.
+ */
+class CardNumberGeneratorTests {
+
+	// the start of card_number_seq in schema.sql
+	private static final long START = 20000000000L;
+
+	@Test
+	void appendsTheLuhnCheckDigit() {
+		// the usual worked example of the Luhn algorithm
+		assertThat(CardNumberGenerator.luhnCheckDigit(7992739871L)).isEqualTo(3);
+
+		assertThat(LongStream.range(START, START + 1_000).mapToObj(
+				payload -> Long.toString(payload * 10 + CardNumberGenerator.luhnCheckDigit(payload))))
+				.allSatisfy(cardNumber -> {
+					assertThat(cardNumber).hasSize(12);
+					assertThat(isLuhnValid(cardNumber)).isTrue();
+				});
+	}
+
+	private static boolean isLuhnValid(String number) {
+		int sum = 0;
+		for (int i = 0; i < number.length(); i++) {
+			int digit = number.charAt(number.length() - 1 - i) - '0';
+			if (i % 2 == 1) {
+				digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+			}
+			sum += digit;
+		}
+		return sum % 10 == 0;
+	}
+
+}
@@ -0,0 +1,318 @@
+package com.viv.cards.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.viv.cards.cache.CardsCacheInvalidator;
+import com.viv.cards.constants.CardsConstants;
+import com.viv.cards.dto.CardAuthorizationDto;
+import com.viv.cards.entity.Cards;
+import com.viv.cards.exception.ResourceNotFoundException;
+import com.viv.cards.ledger.LedgerJournal.Entry;
+import com.viv.cards.ledger.LedgerJournal.Type;
+import com.viv.cards.repository.CardsRepository;
+import com.viv.cards.service.ICardsService;
+import com.viv.common.audit.AuditLogWriter;
+import com.viv.common.outbox.OutboxWriter;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ledger-tests")
+class CardLimitLedgerTests {
+
+	static final String OWNER = "ledger-tests";
+	private static final int LIMIT = CardsConstants.NEW_CARD_LIMIT;
+
+	@TempDir
+	Path directory;
+
+	@Autowired
+	ICardsService iCardsService;
+
+	@Autowired
+	CardsRepository cardsRepository;
+
+	@Autowired
+	CardsCacheInvalidator cardsCacheInvalidator;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	AuditorAware<String> auditorAware;
+
+	@Autowired
+	ObjectProvider<AuditLogWriter> auditLogWriter;
+
+	@Autowired
+	OutboxWriter outboxWriter;
+
+	private final List<CardLimitLedger> ledgers = new ArrayList<>();
+
+	@AfterEach
+	void closeLedgers() throws IOException {
+		for (CardLimitLedger ledger : ledgers) {
+			ledger.close();
+		}
+	}
+
+	@Test
+	void capturedAndReleasedAuthorizationsReachTheTable() throws Exception {
+		String cardNumber = createCard("7500000001");
+		CardLimitLedger ledger = ledger(directory, DataSize.ofMegabytes(1));
+
+		CardAuthorizationDto captured = ledger.authorize(cardNumber, 400);
+		CardAuthorizationDto released = ledger.authorize(cardNumber, 100);
+		assertThat(released.getAvailableAmount()).isEqualTo(LIMIT - 500);
+		assertThat(ledger.authorize(cardNumber, LIMIT).isApproved()).isFalse();
+		assertThat(ledger.capture(captured.getAuthorizationId())).isTrue();
+		assertThat(ledger.release(released.getAuthorizationId())).isTrue();
+		assertThat(ledger.capture(captured.getAuthorizationId())).isFalse();
+		ledger.flush();
+
+		assertThat(row(cardNumber)).containsExactly(400, LIMIT - 400);
+	}
+
+	@Test
+	void chargesCountOpenAuthorizations() throws Exception {
+		String cardNumber = createCard("7500000002");
+		CardLimitLedger ledger = ledger(directory, DataSize.ofMegabytes(1));
+
+		ledger.authorize(cardNumber, LIMIT - 100);
+		assertThat(ledger.charge(cardNumber, 200)).isFalse();
+		assertThat(ledger.charge(cardNumber, 100)).isTrue();
+		ledger.flush();
+
+		assertThat(row(cardNumber)).containsExactly(100, 0);
+	}
+
+	@Test
+	void writeBehindIsRecordedInTheAuditLog() throws Exception {
+		String cardNumber = createCard("7500000008");
+		CardLimitLedger ledger = ledger(directory, DataSize.ofMegabytes(1));
+
+		ledger.charge(cardNumber, 100);
+		ledger.flush();
+		auditLogWriter.getObject().flush();
+
+		assertThat(jdbcTemplate.queryForList("""
+				select changes from audit_log where entity_name = ? and entity_id = ? and action = 'UPDATE'""",
+				String.class, Cards.class.getName(), String.valueOf(cardsRepository.findByCardNumber(cardNumber)
+						.orElseThrow().getCardId())))
+				.containsExactly("{\"amountUsed\":[0,100],\"availableAmount\":[%d,%d]}".formatted(LIMIT, LIMIT - 100));
+	}
+
+	@Test
+	void writeBehindAppendsOneUpdatedEventPerWrittenCard() throws Exception {
+		String cardNumber = createCard("7500000009");
+		CardLimitLedger ledger = ledger(directory, DataSize.ofMegabytes(1));
+
+		ledger.charge(cardNumber, 100);
+		ledger.charge(cardNumber, 50);
+		ledger.flush();
+
+		assertThat(jdbcTemplate.queryForList("""
+				select payload from outbox where aggregate_id = ? and event_type = ?""", String.class, cardNumber,
+				CardsConstants.EVENT_UPDATED)).singleElement().asString()
+				.contains("\"amountUsed\":150", "\"availableAmount\":" + (LIMIT - 150));
+	}
+
+	@Test
+	void flushStartsANewSegmentWithTheOpenAuthorizations() throws Exception {
+		String cardNumber = createCard("7500000003");
+		CardLimitLedger ledger = ledger(directory, DataSize.ofBytes(1));
+
+		CardAuthorizationDto open = ledger.authorize(cardNumber, 300);
+		ledger.release(ledger.authorize(cardNumber, 200).getAuthorizationId());
+		ledger.flush();
+
+		assertThat(segments(directory)).hasSize(1);
+		assertThat(new LedgerJournal(directory).read())
+				.containsExactly(new Entry(Type.HOLD, 0, open.getAuthorizationId(), cardNumber, 300));
+		assertThat(row(cardNumber)).containsExactly(0, LIMIT - 300);
+	}
+
+	@Test
+	void recoveryReplaysTheSegmentsACrashLeftBehind() throws Exception {
+		String cardNumber = createCard("7500000004");
+		CardLimitLedger ledger = ledger(directory.resolve("live"), DataSize.ofMegabytes(1));
+		ledger.capture(ledger.authorize(cardNumber, 300).getAuthorizationId());
+		CardAuthorizationDto open = ledger.authorize(cardNumber, 200);
+
+		CardLimitLedger recovered = ledger(crash(directory.resolve("live")), DataSize.ofMegabytes(1));
+
+		assertThat(row(cardNumber)).containsExactly(300, LIMIT - 500);
+		assertThat(recovered.authorize(cardNumber, LIMIT - 400).isApproved()).isFalse();
+		assertThat(recovered.capture(open.getAuthorizationId())).isTrue();
+	}
+
+	@Test
+	void evictWritesPendingOperationsOnTopOfTheChangedRow() throws Exception {
+		String cardNumber = createCard("7500000005");
+		CardLimitLedger ledger = ledger(directory, DataSize.ofMegabytes(1));
+		ledger.authorize(cardNumber, 300);
+
+		jdbcTemplate.update("update cards set total_limit = total_limit + 1000, available_amount = available_amount + 1000"
+				+ " where card_number = ?", cardNumber);
+		ledger.evict(cardNumber);
+
+		assertThat(row(cardNumber)).containsExactly(0, LIMIT + 700);
+		assertThat(ledger.authorize(cardNumber, LIMIT + 700).isApproved()).isTrue();
+	}
+
+	@Test
+	void evictAfterCommitLeavesAFailedWriteToTheNextFlush() throws Exception {
+		String cardNumber = createCard("7500000010");
+		AtomicBoolean failWrites = new AtomicBoolean();
+		JdbcTemplate failing = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+			@Override
+			public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+				if (failWrites.get()) {
+					throw new DataAccessResourceFailureException("Writes are failing");
+				}
+				return super.batchUpdate(sql, batchArgs);
+			}
+		};
+		CardLimitLedger ledger = ledger(directory, DataSize.ofMegabytes(1), failing);
+		ledger.authorize(cardNumber, 300);
+
+		failWrites.set(true);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			jdbcTemplate.update("update cards set total_limit = total_limit + 1000,"
+					+ " available_amount = available_amount + 1000 where card_number = ?", cardNumber);
+			ledger.evict(cardNumber);
+		});
+		assertThat(row(cardNumber)).containsExactly(0, LIMIT + 1000);
+
+		failWrites.set(false);
+		ledger.flush();
+		assertThat(row(cardNumber)).containsExactly(0, LIMIT + 700);
+		assertThat(ledger.authorize(cardNumber, LIMIT + 700).isApproved()).isTrue();
+	}
+
+	@Test
+	void flushDropsCardsDeletedMeanwhile() throws Exception {
+		String cardNumber = createCard("7500000006");
+		CardLimitLedger ledger = ledger(directory, DataSize.ofMegabytes(1));
+		ledger.authorize(cardNumber, 300);
+
+		jdbcTemplate.update("delete from cards where card_number = ?", cardNumber);
+		ledger.flush();
+
+		assertThatThrownBy(() -> ledger.authorize(cardNumber, 1)).isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	@Test
+	void authorizationsDuringRotatingFlushesSurviveACrash() throws Exception {
+		String cardNumber = createCard("7500000007");
+		CardLimitLedger ledger = ledger(directory.resolve("live"), DataSize.ofBytes(1));
+		AtomicInteger approved = new AtomicInteger();
+		List<Future<?>> authorizers = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+			for (int i = 0; i < 4; i++) {
+				authorizers.add(executor.submit(() -> {
+					for (int j = 0; j < 250; j++) {
+						if (ledger.authorize(cardNumber, 1).isApproved()) {
+							approved.incrementAndGet();
+						}
+					}
+				}));
+			}
+			while (!authorizers.stream().allMatch(Future::isDone)) {
+				ledger.flush();
+			}
+			for (Future<?> authorizer : authorizers) {
+				authorizer.get();
+			}
+		}
+
+		ledger(crash(directory.resolve("live")), DataSize.ofMegabytes(1));
+
+		assertThat(approved).hasValue(1000);
+		assertThat(row(cardNumber)).containsExactly(0, LIMIT - 1000);
+	}
+
+	@Test
+	void aSecondInstanceRefusesToStart() throws Exception {
+		ledger(directory, DataSize.ofMegabytes(1));
+
+		CardLimitLedger other = new CardLimitLedger(cardsRepository, cardsCacheInvalidator, jdbcTemplate,
+				transactionManager, auditorAware, auditLogWriter, outboxWriter,
+				directory.resolve("other").toString(), DataSize.ofMegabytes(1), 16, Duration.ofMillis(10),
+				Duration.ofHours(1), Duration.ofSeconds(30), "other-instance");
+
+		assertThatThrownBy(other::recover).isInstanceOf(IllegalStateException.class).hasMessageContaining(OWNER);
+	}
+
+	/**
+	 * @return a ledger that only flushes when told to
+	 */
+	private CardLimitLedger ledger(Path journalDirectory, DataSize segmentSize) throws IOException {
+		return ledger(journalDirectory, segmentSize, jdbcTemplate);
+	}
+
+	private CardLimitLedger ledger(Path journalDirectory, DataSize segmentSize, JdbcTemplate jdbcTemplate)
+			throws IOException {
+		CardLimitLedger ledger = new CardLimitLedger(cardsRepository, cardsCacheInvalidator, jdbcTemplate,
+				transactionManager, auditorAware, auditLogWriter, outboxWriter, journalDirectory.toString(),
+				segmentSize, 16, Duration.ofMillis(10), Duration.ofHours(1), Duration.ofSeconds(30), OWNER);
+		ledger.recover();
+		ledgers.add(ledger);
+		return ledger;
+	}
+
+	/**
+	 * @return a copy of the segments as a crash of the process would leave them
+	 */
+	private Path crash(Path journalDirectory) throws IOException {
+		Path copy = Files.createDirectories(directory.resolve("crashed"));
+		for (Path segment : segments(journalDirectory)) {
+			Files.copy(segment, copy.resolve(segment.getFileName()));
+		}
+		return copy;
+	}
+
+	private static List<Path> segments(Path journalDirectory) throws IOException {
+		try (Stream<Path> segments = Files.list(journalDirectory)) {
+			return segments.toList();
+		}
+	}
+
+	private String createCard(String mobileNumber) {
+		iCardsService.createCard(mobileNumber);
+		return iCardsService.fetchCard(mobileNumber).getCardNumber();
+	}
+
+	private List<Integer> row(String cardNumber) {
+		return jdbcTemplate.queryForObject("select amount_used, available_amount from cards where card_number = ?",
+				(rs, rowNum) -> List.of(rs.getInt(1), rs.getInt(2)), cardNumber);
+	}
+
+}
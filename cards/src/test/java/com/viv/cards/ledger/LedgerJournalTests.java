@@ -0,0 +1,65 @@
+package com.viv.cards.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.viv.cards.ledger.LedgerJournal.Entry;
+import com.viv.cards.ledger.LedgerJournal.Type;
+
+class LedgerJournalTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void rotationCarriesOpenAuthorizationsIntoTheNewSegment() throws Exception {
+		Entry open = new Entry(Type.AUTHORIZE, 1, 1, "200000000006", 400);
+		Entry settled = new Entry(Type.AUTHORIZE, 2, 2, "200000000006", 100);
+		Entry capture = new Entry(Type.CAPTURE, 3, 2, "200000000006", 100);
+
+		try (LedgerJournal journal = new LedgerJournal(directory)) {
+			journal.open(List.of());
+			journal.append(open);
+			journal.append(settled);
+			journal.append(capture);
+			long sealed = journal.rotate(() -> List.of(open));
+			journal.deleteThrough(sealed);
+		}
+
+		assertThat(new LedgerJournal(directory).read())
+				.containsExactly(new Entry(Type.HOLD, 0, 1, "200000000006", 400));
+	}
+
+	@Test
+	void recoveryStopsAtATornLineAndStartsAFreshSegment() throws Exception {
+		Entry authorize = new Entry(Type.AUTHORIZE, 7, 7, "200000000006", 250);
+		try (LedgerJournal journal = new LedgerJournal(directory)) {
+			journal.open(List.of());
+			journal.append(authorize);
+		}
+		try (var segments = Files.list(directory)) {
+			Path segment = segments.findFirst().orElseThrow();
+			Files.writeString(segment, "R,8,7,2000", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+		}
+
+		LedgerJournal recovered = new LedgerJournal(directory);
+		assertThat(recovered.read()).containsExactly(authorize);
+		recovered.open(List.of(authorize));
+		recovered.close();
+
+		try (var segments = Files.list(directory)) {
+			assertThat(segments).hasSize(1);
+		}
+		assertThat(new LedgerJournal(directory).read())
+				.containsExactly(new Entry(Type.HOLD, 0, 7, "200000000006", 250));
+	}
+
+}
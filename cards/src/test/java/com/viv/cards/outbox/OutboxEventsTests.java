@@ -0,0 +1,56 @@
+package com.viv.cards.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viv.cards.constants.CardsConstants;
+import com.viv.cards.service.ICardsService;
+
+/**
+ * The events the writes append; relaying them is tested in common.
+ */
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class OutboxEventsTests {
+
+	@Autowired
+	ICardsService cardsService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void createAndDeleteAppendTheirEvents() {
+		cardsService.createCard("7000000001");
+		String cardNumber = cardsService.fetchCard("7000000001").getCardNumber();
+		cardsService.deleteCard("7000000001");
+
+		assertThat(routingKeys(cardNumber)).containsExactly("card.created", "card.deleted");
+	}
+
+	@Test
+	void chargesAppendTheNewBalance() {
+		cardsService.createCard("7000000002");
+		String cardNumber = cardsService.fetchCard("7000000002").getCardNumber();
+
+		cardsService.chargeCard(cardNumber, 100);
+
+		assertThat(routingKeys(cardNumber)).containsExactly("card.created", "card.updated");
+		assertThat(jdbcTemplate.queryForObject("""
+				select payload from outbox where aggregate_id = ? and event_type = ?""", String.class, cardNumber,
+				CardsConstants.EVENT_UPDATED)).contains("\"amountUsed\":100",
+				"\"availableAmount\":" + (CardsConstants.NEW_CARD_LIMIT - 100), "\"version\":1");
+	}
+
+	private List<String> routingKeys(String aggregateId) {
+		return jdbcTemplate.queryForList("""
+				select aggregate_type || '.' || event_type from outbox where aggregate_id = ? order by event_id""",
+				String.class, aggregateId);
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.viv.cards.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.viv.cards.constants.CardsConstants;
+import com.viv.cards.dto.CardsDto;
+import com.viv.cards.exception.CardLedgerDisabledException;
+import com.viv.cards.exception.CardLimitExceededException;
+import com.viv.cards.exception.ResourceNotFoundException;
+
+/**
+ * Charges with the card ledger off, the default: one conditional UPDATE per charge.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:charge-tests")
+class CardChargeTests {
+
+	private static final int LIMIT = CardsConstants.NEW_CARD_LIMIT;
+
+	@Autowired
+	ICardsService iCardsService;
+
+	@Test
+	void concurrentChargesLoseNoUpdates() throws Exception {
+		String cardNumber = createCard("7600000001");
+		List<Future<?>> charges = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int i = 0; i < 100; i++) {
+				charges.add(executor.submit(() -> iCardsService.chargeCard(cardNumber, 10)));
+			}
+			for (Future<?> charge : charges) {
+				charge.get();
+			}
+		}
+
+		CardsDto cardsDto = iCardsService.fetchCard("7600000001");
+		assertThat(cardsDto.getAmountUsed()).isEqualTo(1_000);
+		assertThat(cardsDto.getAvailableAmount()).isEqualTo(LIMIT - 1_000);
+	}
+
+	@Test
+	void chargeBeyondTheAvailableAmountIsRejected() {
+		String cardNumber = createCard("7600000002");
+
+		assertThatThrownBy(() -> iCardsService.chargeCard(cardNumber, LIMIT + 1))
+				.isInstanceOf(CardLimitExceededException.class);
+		assertThatThrownBy(() -> iCardsService.chargeCard("100000000000", 1))
+				.isInstanceOf(ResourceNotFoundException.class);
+		assertThat(iCardsService.fetchCard("7600000002").getAvailableAmount()).isEqualTo(LIMIT);
+	}
+
+	@Test
+	void authorizationsNeedTheLedger() {
+		String cardNumber = createCard("7600000003");
+
+		assertThatThrownBy(() -> iCardsService.authorizeCard(cardNumber, 1))
+				.isInstanceOf(CardLedgerDisabledException.class);
+	}
+
+	private String createCard(String mobileNumber) {
+		iCardsService.createCard(mobileNumber);
+		return iCardsService.fetchCard(mobileNumber).getCardNumber();
+	}
+
+}
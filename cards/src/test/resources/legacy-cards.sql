@@ -0,0 +1,22 @@
+-- a cards table from before optimistic locking, after ddl-auto added the version column
+-- without a default; run on every new connection, so it only creates what is missing
+CREATE TABLE IF NOT EXISTS `cards` (
+  `card_id` int NOT NULL AUTO_INCREMENT,
+  `mobile_number` varchar(15) NOT NULL,
+  `card_number` varchar(100) NOT NULL,
+  `card_type` varchar(100) NOT NULL,
+  `total_limit` int NOT NULL,
+  `amount_used` int NOT NULL,
+  `available_amount` int NOT NULL,
+  `created_at` date NOT NULL,
+  `created_by` varchar(20) NOT NULL,
+  `updated_at` date DEFAULT NULL,
+  `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint DEFAULT NULL,
+  PRIMARY KEY (`card_id`)
+);
+
+INSERT INTO `cards` (`mobile_number`, `card_number`, `card_type`, `total_limit`, `amount_used`,
+    `available_amount`, `created_at`, `created_by`)
+SELECT '7900000101', '100000000101', 'Credit Card', 100000, 0, 100000, CURRENT_DATE, 'CARDS_MS'
+WHERE NOT EXISTS (SELECT 1 FROM `cards` WHERE `card_number` = '100000000101');
@@ -0,0 +1,54 @@
+package com.viv.common.aot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.cloud.bus.event.AckRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.EnvironmentChangeRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.cloud.bus.event.ShutdownRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.UnknownRemoteApplicationEvent;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.viv.common.event.MobileNumbersAddedEvent;
+
+/**
+ * Names the bus events for Jackson, which the bus otherwise finds by scanning the
+ * classpath when it starts. A native image has no class files to scan, so without this
+ * module it could not read any event off the bus. Spring Boot adds every Module bean
+ * to the ObjectMapper the bus uses.
+ * <p>
+ * Names the bus's own events and those of common; a service extends it with a component
+ * adding its own.
+ */
+public abstract class AbstractBusEventTypes extends SimpleModule {
+
+    private static final List<Class<? extends RemoteApplicationEvent>> COMMON_EVENT_TYPES = List.of(
+            MobileNumbersAddedEvent.class, RefreshRemoteApplicationEvent.class,
+            EnvironmentChangeRemoteApplicationEvent.class, AckRemoteApplicationEvent.class,
+            ShutdownRemoteApplicationEvent.class, UnknownRemoteApplicationEvent.class);
+
+    private final List<Class<? extends RemoteApplicationEvent>> eventTypes;
+
+    /**
+     * @param name - the module's name, e.g. loans-bus-event-types
+     * @param serviceEventTypes - the events only the service sends and receives
+     */
+    @SafeVarargs
+    protected AbstractBusEventTypes(String name, Class<? extends RemoteApplicationEvent>... serviceEventTypes) {
+        super(name);
+        List<Class<? extends RemoteApplicationEvent>> eventTypes = new ArrayList<>(List.of(serviceEventTypes));
+        eventTypes.addAll(COMMON_EVENT_TYPES);
+        this.eventTypes = List.copyOf(eventTypes);
+        registerSubtypes(this.eventTypes.toArray(Class<?>[]::new));
+    }
+
+    /**
+     * @return every event named, the service's first
+     */
+    public List<Class<? extends RemoteApplicationEvent>> getEventTypes() {
+        return eventTypes;
+    }
+
+}
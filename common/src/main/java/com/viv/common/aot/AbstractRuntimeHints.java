@@ -0,0 +1,62 @@
+package com.viv.common.aot;
+
+import java.util.List;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * What the native image needs beyond the hints Spring AOT derives by itself. AOT already
+ * covers the entities (through the persistence unit), the controller signatures and the
+ * configuration properties. These hints cover what is only reached by reflection at runtime:
+ * <ul>
+ * <li>JSON written to the outbox and read from the bus;</li>
+ * <li>the DTOs springdoc describes, including their @Schema annotations and the accessors
+ * Lombok generated;</li>
+ * <li>the second-level cache that Hibernate and JCache load by name.</li>
+ * </ul>
+ * A service extends it with a no-argument registrar for its {@code @ImportRuntimeHints}.
+ */
+public abstract class AbstractRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+    private final AbstractBusEventTypes busEventTypes;
+    private final Class<?> outboxPayload;
+    private final List<Class<?>> documentedTypes;
+
+    /**
+     * @param busEventTypes - the bus events the service reads
+     * @param outboxPayload - what the service writes to the outbox, e.g. LoansDto
+     * @param documentedTypes - the DTOs of the service's API documentation
+     */
+    protected AbstractRuntimeHints(AbstractBusEventTypes busEventTypes, Class<?> outboxPayload,
+            List<Class<?>> documentedTypes) {
+        this.busEventTypes = busEventTypes;
+        this.outboxPayload = outboxPayload;
+        this.documentedTypes = documentedTypes;
+    }
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), outboxPayload);
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+                busEventTypes.getEventTypes().toArray(Class<?>[]::new));
+        for (Class<?> type : documentedTypes) {
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        // by name, since hibernate-jcache and Caffeine's jcache are optional dependencies of common
+        hints.reflection().registerType(TypeReference.of("org.hibernate.cache.jcache.internal.JCacheRegionFactory"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(
+                TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"),
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        // Caffeine's JCache defaults, read through Typesafe Config
+        hints.resources().registerPattern("reference.conf");
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+    }
+
+}
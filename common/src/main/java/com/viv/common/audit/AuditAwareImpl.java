@@ -0,0 +1,53 @@
+package com.viv.common.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Locale;
+import java.util.Optional;
+
+@Component("auditAwareImpl")
+public class AuditAwareImpl implements AuditorAware<String> {
+
+    public static final String CALLER_HEADER = "X-Caller-Id";
+
+    private static final int MAX_AUDITOR_LENGTH = 20;
+
+    private final String serviceAuditor;
+
+    /**
+     * @param applicationName - spring.application.name; outside a request the service
+     *                        itself is the auditor, e.g. LOANS_MS for loans
+     */
+    public AuditAwareImpl(@Value("${spring.application.name}") String applicationName) {
+        this.serviceAuditor = applicationName.toUpperCase(Locale.ROOT) + "_MS";
+    }
+
+    /**
+     * Returns the current auditor of the application: the caller named by the
+     * CALLER_HEADER request header, or the service itself outside a request or
+     * without the header.
+     * <p>
+     * The header is advisory: any client can send any value, so created_by, updated_by
+     * and the change history name the caller as it claims to be, not as authenticated.
+     *
+     * @return the current auditor.
+     */
+    @SuppressWarnings("null")
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String caller = attributes.getRequest().getHeader(CALLER_HEADER);
+            if (caller != null && !caller.isBlank()) {
+                // created_by and updated_by are varchar(20)
+                caller = caller.strip();
+                return Optional.of(caller.length() > MAX_AUDITOR_LENGTH ? caller.substring(0, MAX_AUDITOR_LENGTH) : caller);
+            }
+        }
+        return Optional.of(serviceAuditor);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.viv.common.audit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Fills createdAt and createdBy when an entity is inserted and updatedAt and updatedBy
+ * when it is updated, for every entity that has these properties. The values go straight
+ * into the state Hibernate is about to write, through the persister's own accessors, so
+ * no per-row reflective lookup of annotated fields happens as with Spring Data's
+ * AuditingEntityListener. Bulk JPQL and JDBC statements set the columns themselves.
+ */
+@Component
+public class AuditColumnsListener implements PreInsertEventListener, PreUpdateEventListener {
+
+    private static final List<String> PROPERTIES = List.of("createdAt", "createdBy", "updatedAt", "updatedBy");
+    private static final int CREATED_AT = 0;
+    private static final int CREATED_BY = 1;
+    private static final int UPDATED_AT = 2;
+    private static final int UPDATED_BY = 3;
+
+    private final AuditorAware<String> auditorAware;
+    // per entity name, the positions of PROPERTIES in the persister's state, -1 where missing
+    private final Map<String, int[]> propertyIndexes = new ConcurrentHashMap<>();
+
+    public AuditColumnsListener(EntityManagerFactory entityManagerFactory, AuditorAware<String> auditorAware) {
+        this.auditorAware = auditorAware;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.PRE_INSERT, this);
+        registry.appendListeners(EventType.PRE_UPDATE, this);
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        fill(event.getPersister(), event.getEntity(), event.getState(), CREATED_AT, CREATED_BY);
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        fill(event.getPersister(), event.getEntity(), event.getState(), UPDATED_AT, UPDATED_BY);
+        return false;
+    }
+
+    private void fill(EntityPersister persister, Object entity, Object[] state, int at, int by) {
+        int[] indexes = propertyIndexes.computeIfAbsent(persister.getEntityName(), name -> {
+            List<String> propertyNames = List.of(persister.getPropertyNames());
+            return PROPERTIES.stream().mapToInt(propertyNames::indexOf).toArray();
+        });
+        if (indexes[at] >= 0) {
+            set(persister, entity, state, indexes[at], LocalDateTime.now());
+        }
+        if (indexes[by] >= 0) {
+            set(persister, entity, state, indexes[by], auditorAware.getCurrentAuditor().orElse(null));
+        }
+    }
+
+    // the state array is what gets written, the entity is kept in step with it
+    private static void set(EntityPersister persister, Object entity, Object[] state, int index, Object value) {
+        state[index] = value;
+        persister.setValue(entity, index, value);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.viv.common.audit;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Captures every committed insert, update and delete made through Hibernate with its
+ * old and new values and hands it to {@link AuditLogWriter}. It runs after the
+ * commit and only copies the state, so the transaction itself pays nothing for the
+ * history. Bulk JPQL and JDBC statements bypass Hibernate's events; their callers
+ * record them through {@link AuditLogWriter#recordBulk} and {@link AuditLogWriter#recordDeleted}.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.log.enabled", havingValue = "true")
+public class AuditLogListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final AuditLogWriter auditLogWriter;
+    private final AuditorAware<String> auditorAware;
+
+    public AuditLogListener(EntityManagerFactory entityManagerFactory, AuditLogWriter auditLogWriter,
+            AuditorAware<String> auditorAware) {
+        this.auditLogWriter = auditLogWriter;
+        this.auditorAware = auditorAware;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getPersister(), event.getId(), "INSERT", null, event.getState().clone(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getPersister(), event.getId(), "UPDATE",
+                event.getOldState() != null ? event.getOldState().clone() : null, event.getState().clone(),
+                event.getDirtyProperties());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getPersister(), event.getId(), "DELETE", event.getDeletedState().clone(), null, null);
+    }
+
+    private void record(EntityPersister persister, Object id, String action, Object[] oldState, Object[] newState,
+            int[] changedProperties) {
+        auditLogWriter.record(new AuditRecord(persister.getEntityName(), String.valueOf(id), action,
+                persister.getPropertyNames(), oldState, newState, changedProperties,
+                auditorAware.getCurrentAuditor().orElse(null), LocalDateTime.now()));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // rolled back, nothing happened
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // rolled back, nothing happened
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // rolled back, nothing happened
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+}
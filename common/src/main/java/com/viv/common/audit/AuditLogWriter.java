@@ -0,0 +1,235 @@
+package com.viv.common.audit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Writes the change history off the request path: records are queued in memory and
+ * written every {@code audit.log.flush-interval}, either as one JDBC batch into the
+ * audit_log table ({@code audit.log.sink=table}) or as JSON lines on the "audit"
+ * logger ({@code audit.log.sink=log}), which the logging setup can route to a file.
+ * <p>
+ * A full queue drops records rather than slowing down writes; the drops are counted
+ * by the audit.log.dropped metric.
+ * <p>
+ * Bulk JPQL and JDBC statements bypass {@link AuditLogListener}, so the code issuing
+ * them records its changes through {@link #recordBulk} and {@link #recordDeleted}.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.log.enabled", havingValue = "true")
+public class AuditLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final Logger auditLog = LoggerFactory.getLogger("audit");
+
+    private static final String INSERT_SQL = """
+            insert into audit_log (entity_name, entity_id, action, changes, changed_by, changed_at)
+            values (?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final SessionFactoryImplementor sessionFactory;
+    private final AuditorAware<String> auditorAware;
+    private final boolean toTable;
+    private final int batchSize;
+    private final BlockingQueue<AuditRecord> queue;
+    private final Counter written;
+    private final Counter dropped;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            EntityManagerFactory entityManagerFactory, AuditorAware<String> auditorAware,
+            @Value("${audit.log.sink:table}") String sink,
+            @Value("${audit.log.queue-capacity:100000}") int queueCapacity,
+            @Value("${audit.log.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.auditorAware = auditorAware;
+        this.toTable = switch (sink) {
+            case "table" -> true;
+            case "log" -> false;
+            default -> throw new IllegalArgumentException("audit.log.sink must be table or log, not " + sink);
+        };
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.written = Counter.builder("audit.log.written")
+                .description("Change history records written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("audit.log.dropped")
+                .description("Change history records dropped because the queue was full")
+                .register(meterRegistry);
+    }
+
+    void record(AuditRecord auditRecord) {
+        if (!queue.offer(auditRecord)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Records an update made by a bulk statement, once the current transaction commits.
+     *
+     * @param entityClass - the updated entity
+     * @param entityId - its id
+     * @param changes - property name to its old and new value; null for a value the
+     *        statement did not read
+     */
+    public void recordBulk(Class<?> entityClass, Object entityId, Map<String, Object[]> changes) {
+        // in name order, so the recorded JSON does not depend on the caller's map
+        String[] propertyNames = changes.keySet().stream().sorted().toArray(String[]::new);
+        Object[] oldState = new Object[propertyNames.length];
+        Object[] newState = new Object[propertyNames.length];
+        int[] changedProperties = new int[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            oldState[i] = changes.get(propertyNames[i])[0];
+            newState[i] = changes.get(propertyNames[i])[1];
+            changedProperties[i] = i;
+        }
+        AuditRecord auditRecord = new AuditRecord(entityClass.getName(), String.valueOf(entityId), "UPDATE",
+                propertyNames, oldState, newState, changedProperties, auditorAware.getCurrentAuditor().orElse(null),
+                LocalDateTime.now());
+        afterCommit(List.of(auditRecord));
+    }
+
+    /**
+     * Records the entities a bulk delete removed, with their loaded state as the old values,
+     * once the current transaction commits.
+     *
+     * @param entities - the deleted entities
+     */
+    public void recordDeleted(Collection<?> entities) {
+        String changedBy = auditorAware.getCurrentAuditor().orElse(null);
+        LocalDateTime changedAt = LocalDateTime.now();
+        List<AuditRecord> auditRecords = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entity.getClass());
+            auditRecords.add(new AuditRecord(persister.getEntityName(),
+                    String.valueOf(persister.getIdentifierMapping().getIdentifier(entity)), "DELETE",
+                    persister.getPropertyNames(), persister.getValues(entity), null, null, changedBy, changedAt));
+        }
+        afterCommit(auditRecords);
+    }
+
+    private void afterCommit(List<AuditRecord> auditRecords) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // like the listener, a rolled back statement leaves no history
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditRecords.forEach(AuditLogWriter.this::record);
+                }
+            });
+        } else {
+            auditRecords.forEach(this::record);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.log.flush-interval:PT1S}")
+    public void flush() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                write(batch);
+                written.increment(batch.size());
+            } catch (RuntimeException ex) {
+                log.error("Unable to write {} change history records", batch.size(), ex);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void write(List<AuditRecord> batch) {
+        if (toTable) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch.stream()
+                    .map(auditRecord -> new Object[] { auditRecord.entityName(), auditRecord.entityId(),
+                            auditRecord.action(), changes(auditRecord), auditRecord.changedBy(),
+                            auditRecord.changedAt() })
+                    .toList());
+            return;
+        }
+        for (AuditRecord auditRecord : batch) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("entityName", auditRecord.entityName());
+            line.put("entityId", auditRecord.entityId());
+            line.put("action", auditRecord.action());
+            line.put("changedBy", auditRecord.changedBy());
+            line.put("changedAt", auditRecord.changedAt());
+            line.put("changes", changeMap(auditRecord));
+            auditLog.info(json(line));
+        }
+    }
+
+    private String changes(AuditRecord auditRecord) {
+        return json(changeMap(auditRecord));
+    }
+
+    /**
+     * @return property name to its old and new value, for the properties the change touched
+     */
+    private static Map<String, Object[]> changeMap(AuditRecord auditRecord) {
+        Map<String, Object[]> changes = new LinkedHashMap<>();
+        String[] propertyNames = auditRecord.propertyNames();
+        for (int i = 0; i < propertyNames.length; i++) {
+            Object oldValue = auditRecord.oldState() != null ? auditRecord.oldState()[i] : null;
+            Object newValue = auditRecord.newState() != null ? auditRecord.newState()[i] : null;
+            boolean changed = auditRecord.changedProperties() != null
+                    ? contains(auditRecord.changedProperties(), i)
+                    : !Objects.equals(oldValue, newValue);
+            if (changed) {
+                changes.put(propertyNames[i], new Object[] { oldValue, newValue });
+            }
+        }
+        return changes;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
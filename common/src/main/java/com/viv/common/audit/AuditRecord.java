@@ -0,0 +1,12 @@
+package com.viv.common.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed insert, update or delete, as captured by {@link AuditLogListener}.
+ * The state arrays are copies of Hibernate's, indexed like propertyNames; oldState
+ * is null for inserts and newState for deletes.
+ */
+record AuditRecord(String entityName, String entityId, String action, String[] propertyNames,
+        Object[] oldState, Object[] newState, int[] changedProperties, String changedBy, LocalDateTime changedAt) {
+}
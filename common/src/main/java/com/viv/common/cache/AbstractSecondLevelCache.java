@@ -0,0 +1,65 @@
+package com.viv.common.cache;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hibernate's second-level cache, held in local Caffeine caches behind JCache. Each of a
+ * service's regions keeps at most {@code entity-cache.maximum-size} entries for
+ * {@code entity-cache.expire-after-write}, which also bounds how long another instance's
+ * change can go unnoticed if its eviction broadcast is lost.
+ * <p>
+ * A service extends it with a component naming its regions; it needs hibernate-jcache and
+ * Caffeine's jcache on its classpath.
+ */
+public abstract class AbstractSecondLevelCache implements HibernatePropertiesCustomizer {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * @param regions - the cache regions of the service's entities and natural ids
+     */
+    protected AbstractSecondLevelCache(List<String> regions, long maximumSize, Duration expireAfterWrite) {
+        // a manager of its own, so that contexts sharing the JVM (tests, benchmarks) never share entries
+        this.cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create(getClass().getName() + "-" + UUID.randomUUID()),
+                        getClass().getClassLoader(), new Properties());
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        for (String region : regions) {
+            cacheManager.createCache(region, configuration);
+        }
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        // a region missing here is a mapping mistake, not something to create unbounded
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+    }
+
+    @PreDestroy
+    public void close() {
+        cacheManager.close();
+    }
+
+}
@@ -0,0 +1,423 @@
+package com.viv.common.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.AsyncConsumerRestartedEvent;
+import org.springframework.amqp.rabbit.listener.ListenerContainerConsumerFailedEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.viv.common.event.MobileNumbersAddedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+/**
+ * Bloom filter over the mobile numbers in the service's {@link MobileNumberSource},
+ * consulted before the database so lookups for numbers without a row are answered
+ * from memory. Loans and cards each import it; the bus delivers its events to the
+ * instances of the same service only.
+ * <p>
+ * Numbers are added once the creating transaction commits, here and on the other
+ * instances through the bus. Deleted numbers cannot be taken out of a Bloom
+ * filter, so it is rebuilt from the table on startup and every
+ * {@code mobile-filter.compaction-interval}. Until the first build completes every
+ * number counts as possibly present. Numbers whose broadcast failed are sent again
+ * every {@code mobile-filter.retry-interval}, so the other instances do not answer
+ * 404 for them until their next rebuild.
+ * <p>
+ * An instance that missed a broadcast would still answer 404 for a number that has a
+ * row. So for {@code mobile-filter.fallback-window} after the first build, after a
+ * broadcast of its own failed and after one of its RabbitMQ consumers failed, numbers
+ * the filter rules out are looked up in the database anyway. A consumer that comes
+ * back also has the filter rebuilt, as the broadcasts sent while it was away are gone;
+ * the rebuild waits for the next {@code mobile-filter.retry-interval} tick and is
+ * dropped if the consumer failed again by then, so an outage, in which the container
+ * restarts its consumers every few seconds, does not rescan the table each time.
+ */
+public class MobileNumberFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(MobileNumberFilter.class);
+
+    private final MobileNumberSource mobileNumberSource;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusProperties busProperties;
+    private final Destination destination;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Duration fallbackWindow;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Counter skipped;
+    private final Counter found;
+    private final Counter falsePositives;
+    private final Counter fallbacks;
+    private final Counter missed;
+    private final Set<String> unsent = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean consumerRestarted = new AtomicBoolean();
+
+    private volatile Bits current;
+    private volatile Bits rebuilding;
+    private volatile long fallbackUntil = System.nanoTime();
+
+    public MobileNumberFilter(MobileNumberSource mobileNumberSource, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, ObjectProvider<BusProperties> busProperties,
+            ObjectProvider<Destination.Factory> destinationFactory, MeterRegistry meterRegistry,
+            @Value("${spring.application.name}") String applicationName,
+            @Value("${mobile-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${mobile-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${mobile-filter.fallback-window:PT30S}") Duration fallbackWindow) {
+        this.mobileNumberSource = mobileNumberSource;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+        this.busProperties = busProperties.getIfAvailable();
+        Destination.Factory factory = destinationFactory.getIfAvailable();
+        this.destination = factory != null ? factory.getDestination(applicationName + ":**") : null;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.fallbackWindow = fallbackWindow;
+
+        Gauge.builder("mobile.filter.memory", this, filter -> filter.current != null ? filter.current.memoryBytes() : 0)
+                .description("Memory held by the mobile number Bloom filter")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder("mobile.filter.false.positive.rate", this,
+                        filter -> filter.current != null ? filter.current.expectedFalsePositiveRate() : 1)
+                .description("False positive rate expected from the current fill of the mobile number Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("mobile.filter.unsent", unsent, Set::size)
+                .description("Mobile numbers whose broadcast to the other instances failed and waits for a retry")
+                .register(meterRegistry);
+        this.skipped = lookupCounter(meterRegistry, "skipped");
+        this.found = lookupCounter(meterRegistry, "found");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        this.fallbacks = lookupCounter(meterRegistry, "fallback");
+        this.missed = Counter.builder("mobile.filter.missed")
+                .description("Mobile numbers the filter ruled out but the database had, found during a fallback window")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("mobile.filter.lookups")
+                .description("Lookups by mobile number: skipped by the filter, found, let through but not found, "
+                        + "or ruled out by the filter and looked up anyway during a fallback window")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param mobileNumber - Mobile Number to look up
+     * @return false when there is certainly no row for the mobile number
+     */
+    public boolean mightContain(String mobileNumber) {
+        Bits bits = current;
+        return bits == null || bits.mightContain(mobileNumber);
+    }
+
+    /**
+     * @param mobileNumber - Mobile Number to look up
+     * @param finder - database lookup, only called when the filter cannot rule the number
+     *               out or during a fallback window
+     * @return the finder's result, or empty without calling it
+     */
+    public <T> Optional<T> find(String mobileNumber, Function<String, Optional<T>> finder) {
+        if (mightContain(mobileNumber)) {
+            Optional<T> result = finder.apply(mobileNumber);
+            (result.isPresent() ? found : falsePositives).increment();
+            return result;
+        }
+        if (!fallingBack()) {
+            skipped.increment();
+            return Optional.empty();
+        }
+        fallbacks.increment();
+        Optional<T> result = finder.apply(mobileNumber);
+        if (result.isPresent()) {
+            missed.increment();
+            addLocally(List.of(mobileNumber));
+        }
+        return result;
+    }
+
+    /**
+     * @param mobileNumbers - Mobile Numbers to look up
+     * @param finder - database lookup for the numbers the filter cannot rule out, or for
+     *               all of them during a fallback window, returning at most one result per number
+     * @return the finder's results
+     */
+    public <T> List<T> findAll(Collection<String> mobileNumbers, Function<List<String>, List<T>> finder) {
+        List<String> distinct = mobileNumbers.stream().distinct().toList();
+        List<String> candidates = distinct.stream().filter(this::mightContain).toList();
+        boolean fallingBack = fallingBack();
+        (fallingBack ? fallbacks : skipped).increment(distinct.size() - candidates.size());
+        if (fallingBack) {
+            candidates = distinct;
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<T> results = finder.apply(candidates);
+        found.increment(results.size());
+        if (!fallingBack) {
+            // during a fallback the results do not tell the filter's misses from its false positives
+            falsePositives.increment(candidates.size() - results.size());
+        }
+        return results;
+    }
+
+    /**
+     * @param mobileNumbers - Mobile Numbers that rows were created for
+     */
+    public void add(Collection<String> mobileNumbers) {
+        if (mobileNumbers.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // added after commit, so a rebuild that misses the row always sees the addition
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addEverywhere(mobileNumbers);
+                }
+            });
+        } else {
+            addEverywhere(mobileNumbers);
+        }
+    }
+
+    private void addEverywhere(Collection<String> mobileNumbers) {
+        addLocally(mobileNumbers);
+        if (busProperties == null || destination == null) {
+            return;
+        }
+        try {
+            broadcast(mobileNumbers);
+        } catch (RuntimeException ex) {
+            unsent.addAll(mobileNumbers);
+            // the broker is likely unreachable for this instance's consumers too
+            fallBack();
+            log.warn("Unable to broadcast new mobile numbers {}, retrying", mobileNumbers, ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mobile-filter.retry-interval:PT10S}")
+    public void retryBroadcasts() {
+        if (unsent.isEmpty()) {
+            return;
+        }
+        List<String> mobileNumbers = List.copyOf(unsent);
+        try {
+            broadcast(mobileNumbers);
+            unsent.removeAll(mobileNumbers);
+        } catch (RuntimeException ex) {
+            fallBack();
+            log.debug("Still unable to broadcast {} new mobile numbers", mobileNumbers.size(), ex);
+        }
+    }
+
+    private void broadcast(Collection<String> mobileNumbers) {
+        eventPublisher.publishEvent(new MobileNumbersAddedEvent(this, busProperties.getId(), destination, mobileNumbers));
+    }
+
+    @EventListener
+    public void onMobileNumbersAdded(MobileNumbersAddedEvent event) {
+        addLocally(event.getMobileNumbers());
+    }
+
+    private void addLocally(Collection<String> mobileNumbers) {
+        Bits bits = current;
+        Bits next = rebuilding;
+        for (String mobileNumber : mobileNumbers) {
+            if (bits != null) {
+                bits.put(mobileNumber);
+            }
+            if (next != null) {
+                next.put(mobileNumber);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+        fallBack();
+    }
+
+    /**
+     * Broadcasts may be lost while this instance's consumers are down.
+     */
+    @EventListener
+    public void onConsumerFailed(ListenerContainerConsumerFailedEvent event) {
+        consumerRestarted.set(false);
+        fallBack();
+    }
+
+    /**
+     * Published for every restart attempt, including those that fail again at once.
+     */
+    @EventListener
+    public void onConsumerRestarted(AsyncConsumerRestartedEvent event) {
+        consumerRestarted.set(true);
+        fallBack();
+    }
+
+    /**
+     * The broadcasts sent while a restarted consumer was away are gone, the table has
+     * their numbers.
+     */
+    @Scheduled(fixedDelayString = "${mobile-filter.retry-interval:PT10S}")
+    public void rebuildAfterRestart() {
+        if (consumerRestarted.compareAndSet(true, false)) {
+            rebuild();
+            fallBack();
+        }
+    }
+
+    private void fallBack() {
+        fallbackUntil = System.nanoTime() + fallbackWindow.toNanos();
+    }
+
+    private boolean fallingBack() {
+        return System.nanoTime() - fallbackUntil < 0;
+    }
+
+    @Scheduled(fixedDelayString = "${mobile-filter.compaction-interval:PT1H}",
+            initialDelayString = "${mobile-filter.compaction-interval:PT1H}")
+    public void compact() {
+        rebuild();
+    }
+
+    private void rebuild() {
+        rebuildLock.lock();
+        try {
+            long started = System.nanoTime();
+            // leave room to grow, the false positive gauge shows when it runs out
+            Bits building = new Bits(Math.max(expectedInsertions, 2 * mobileNumberSource.count()), falsePositiveRate);
+            rebuilding = building;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> mobileNumbers = mobileNumberSource.streamAllMobileNumbers()) {
+                    mobileNumbers.forEach(building::put);
+                }
+            });
+            current = building;
+            log.info("Rebuilt mobile number filter with {} numbers in {} ms", building.insertions(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException ex) {
+            // keep answering with the previous filter, or with none at startup
+            log.error("Unable to rebuild mobile number filter", ex);
+        } finally {
+            rebuilding = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Bit array sized for the expected insertions, written lock-free.
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashFunctions;
+        private final AtomicLong bitCount = new AtomicLong();
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Bits(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+            this.size = words.length() * 64L;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) size / expectedInsertions * Math.log(2)));
+        }
+
+        private void put(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, size);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word = words.get(index);
+                while ((word & mask) == 0) {
+                    long witness = words.compareAndExchange(index, word, word | mask);
+                    if (witness == word) {
+                        bitCount.incrementAndGet();
+                        break;
+                    }
+                    word = witness;
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        private boolean mightContain(String value) {
+            long hash1 = hash(value);
+            long hash2 = mix(hash1) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long insertions() {
+            return insertions.get();
+        }
+
+        private long memoryBytes() {
+            return words.length() * 8L;
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow((double) bitCount.get() / size, hashFunctions);
+        }
+
+        private static long hash(String value) {
+            // FNV-1a, then a murmur3 finalizer to spread the low-entropy digit strings
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.viv.common.cache;
+
+import java.util.stream.Stream;
+
+/**
+ * The table {@link MobileNumberFilter} is built from; the service's repository
+ * implements it.
+ */
+public interface MobileNumberSource {
+
+    long count();
+
+    /**
+     * @return the mobile number of every row, read in chunks; needs an open transaction
+     */
+    Stream<String> streamAllMobileNumbers();
+
+}
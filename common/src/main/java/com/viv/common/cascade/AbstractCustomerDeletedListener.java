@@ -0,0 +1,153 @@
+package com.viv.common.cascade;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.common.outbox.RabbitOutboxPublisher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Deletes what a service keeps for customers deleted in the accounts service. The
+ * customer.deleted events of the accounts outbox are consumed from the durable queue
+ * {@code cascade.delete.queue} in batches of up to {@code cascade.delete.batch-size}, and
+ * each batch is handed to the service's deleter at once, for one bulk delete.
+ * <p>
+ * The deleter gets the time each customer was deleted, so it can keep what a number
+ * registered again by a new customer got before the event arrived; this compares the
+ * accounts clock with the consumer's, so skew between them widens or narrows that window.
+ * <p>
+ * A batch is acknowledged after its transaction committed, together with the ids of its
+ * events; events seen before are skipped, so redeliveries and replays from the outbox
+ * delete nothing twice.
+ * <p>
+ * A service extends it with a component conditional on {@code cascade.delete.enabled}.
+ */
+public abstract class AbstractCustomerDeletedListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractCustomerDeletedListener.class);
+
+    private final Function<Map<String, LocalDateTime>, Integer> deleter;
+    private final ProcessedEvents processedEvents;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Counter deleted;
+    private final Counter duplicates;
+
+    /**
+     * @param deleter - deletes what the customers own, given when each was deleted by Mobile
+     *        Number, and returns how many records it deleted; runs in the batch's transaction
+     * @param deletedDescription - what the cascade.delete.deleted metric counts, e.g. Loans
+     *        deleted because their customer was deleted
+     * @param retention - how long the ids of processed events are kept
+     */
+    protected AbstractCustomerDeletedListener(Function<Map<String, LocalDateTime>, Integer> deleter,
+            String deletedDescription, ProcessedEvents processedEvents, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry, Duration retention) {
+        this.deleter = deleter;
+        this.processedEvents = processedEvents;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.deleted = Counter.builder("cascade.delete.deleted")
+                .description(deletedDescription)
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("cascade.delete.duplicates")
+                .description("customer.deleted events skipped because they were applied before")
+                .register(meterRegistry);
+    }
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(name = "${cascade.delete.queue}", durable = "true"),
+            exchange = @Exchange(name = "${cascade.delete.exchange}", type = ExchangeTypes.TOPIC),
+            key = "customer.deleted"), batch = "true", containerFactory = CascadeListenerContainerFactory.BEAN_NAME)
+    public void onCustomersDeleted(List<Message> messages) {
+        Map<String, CustomerDeleted> events = new LinkedHashMap<>();
+        for (Message message : messages) {
+            String eventId = message.getMessageProperties().getMessageId();
+            String mobileNumber = mobileNumber(message);
+            if (eventId == null || mobileNumber == null) {
+                // requeueing would only fail the whole batch again
+                log.warn("Skipping customer.deleted event {} without a mobile number", eventId);
+                continue;
+            }
+            events.put(eventId, new CustomerDeleted(mobileNumber, deletedAt(message)));
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> processed = processedEvents.findProcessed(events.keySet());
+            events.keySet().removeAll(processed);
+            duplicates.increment(processed.size());
+            if (events.isEmpty()) {
+                return;
+            }
+            Map<String, LocalDateTime> deletedAt = new HashMap<>();
+            for (CustomerDeleted event : events.values()) {
+                deletedAt.merge(event.mobileNumber(), event.deletedAt(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+            deleted.increment(deleter.apply(deletedAt));
+            processedEvents.markProcessed(events.keySet());
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cascade.delete.purge-interval:PT1H}")
+    public void purge() {
+        processedEvents.purge(LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * @return when the customer was deleted, on this instance's clock and in its time zone;
+     *         the time of arrival for an event without the outbox header
+     */
+    private static LocalDateTime deletedAt(Message message) {
+        if (message.getMessageProperties().getHeader(RabbitOutboxPublisher.CREATED_AT_HEADER) instanceof String createdAt) {
+            try {
+                return LocalDateTime.ofInstant(Instant.parse(createdAt), ZoneId.systemDefault());
+            } catch (DateTimeParseException ex) {
+                log.warn("Ignoring malformed {} header {}", RabbitOutboxPublisher.CREATED_AT_HEADER, createdAt);
+            }
+        }
+        return LocalDateTime.now();
+    }
+
+    private String mobileNumber(Message message) {
+        try {
+            JsonNode mobileNumber = objectMapper.readTree(message.getBody()).get("mobileNumber");
+            return mobileNumber != null && mobileNumber.isTextual() ? mobileNumber.asText() : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private record CustomerDeleted(String mobileNumber, LocalDateTime deletedAt) {
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.viv.common.cascade;
+
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener containers for the customer.deleted consumers of loans and cards, which take
+ * their events in batches of up to {@code cascade.delete.batch-size}. Batching is set
+ * here rather than under {@code spring.rabbitmq.listener.simple}, so any other
+ * {@code @RabbitListener} keeps receiving one message at a time with the default prefetch.
+ */
+@Component(CascadeListenerContainerFactory.BEAN_NAME)
+@ConditionalOnProperty(name = "cascade.delete.enabled", havingValue = "true")
+public class CascadeListenerContainerFactory extends SimpleRabbitListenerContainerFactory {
+
+    public static final String BEAN_NAME = "cascadeListenerContainerFactory";
+
+    /**
+     * @param configurer - applies the spring.rabbitmq.listener.simple settings, e.g. auto-startup
+     * @param batchSize - messages per batch, also the prefetch so that a full batch can arrive
+     */
+    public CascadeListenerContainerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory, @Value("${cascade.delete.batch-size:500}") int batchSize) {
+        configurer.configure(this, connectionFactory);
+        setBatchListener(true);
+        setConsumerBatchEnabled(true);
+        setBatchSize(batchSize);
+        setPrefetchCount(batchSize);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.viv.common.cascade;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Ids of the events the cascade delete has already applied, so that a redelivered or
+ * replayed event costs one indexed lookup instead of another delete. Kept in the
+ * processed_event table of the consuming service.
+ */
+@Component
+@ConditionalOnProperty(name = "cascade.delete.enabled", havingValue = "true")
+public class ProcessedEvents {
+
+    private static final String SELECT_SQL = "select event_id from processed_event where event_id in (:eventIds)";
+    private static final String INSERT_SQL = """
+            insert into processed_event (event_id, processed_at) values (:eventId, :processedAt)""";
+    private static final String PURGE_SQL = "delete from processed_event where processed_at < :before";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProcessedEvents(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param eventIds - ids of the events about to be applied
+     * @return the ids among them that were applied before
+     */
+    public Set<String> findProcessed(Collection<String> eventIds) {
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_SQL, Map.of("eventIds", eventIds), String.class));
+    }
+
+    /**
+     * @param eventIds - ids of the events applied by the current transaction
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void markProcessed(Collection<String> eventIds) {
+        Timestamp processedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, eventIds.stream()
+                .map(eventId -> Map.<String, Object>of("eventId", eventId, "processedAt", processedAt))
+                .toArray(Map[]::new));
+    }
+
+    /**
+     * @param before - ids recorded before this time are forgotten
+     * @return number of ids forgotten
+     */
+    public int purge(LocalDateTime before) {
+        return jdbcTemplate.update(PURGE_SQL, Map.of("before", Timestamp.valueOf(before)));
+    }
+
+}
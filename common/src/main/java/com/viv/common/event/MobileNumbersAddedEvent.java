@@ -0,0 +1,32 @@
+package com.viv.common.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * Bus event telling every instance of the sending service that it now has rows for
+ * the given mobile numbers, e.g. loans in loans or cards in cards.
+ */
+@Getter
+public class MobileNumbersAddedEvent extends RemoteApplicationEvent {
+
+    private List<String> mobileNumbers;
+
+    @SuppressWarnings("unused")
+    private MobileNumbersAddedEvent() {
+        // for serializers
+    }
+
+    public MobileNumbersAddedEvent(Object source, String originService, Destination destination,
+            Collection<String> mobileNumbers) {
+        super(source, originService, destination);
+        this.mobileNumbers = new ArrayList<>(mobileNumbers);
+    }
+
+}
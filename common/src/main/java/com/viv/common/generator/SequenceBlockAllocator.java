@@ -0,0 +1,84 @@
+package com.viv.common.generator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+
+/**
+ * Hands out unique values of a database sequence that is incremented by a whole block
+ * per call. Every instance reserves a block of consecutive values with a single sequence
+ * call and then hands them out from memory with a lock-free counter. Blocks never
+ * overlap, so values stay unique across replicas and restarts; unused values of a block
+ * are simply skipped.
+ * <p>
+ * The number generators of the services format the values into account, loan and card
+ * numbers.
+ */
+public class SequenceBlockAllocator {
+
+    private final DataFieldMaxValueIncrementer blockIncrementer;
+    private final int blockSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0);
+
+    /**
+     * @param sequenceName - an H2 sequence whose INCREMENT BY is blockSize
+     * @param blockSize - values reserved per sequence call
+     */
+    public SequenceBlockAllocator(DataSource dataSource, String sequenceName, int blockSize) {
+        this(new H2SequenceMaxValueIncrementer(dataSource, sequenceName), blockSize);
+    }
+
+    /**
+     * @param blockIncrementer - returns the first value of a fresh block on every call
+     * @param blockSize - values reserved per call
+     */
+    public SequenceBlockAllocator(DataFieldMaxValueIncrementer blockIncrementer, int blockSize) {
+        this.blockIncrementer = blockIncrementer;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return a new, never issued value
+     */
+    public long next() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return value;
+            }
+            refill(current);
+        }
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            // another thread may have reserved a fresh block while this one waited
+            if (block == exhausted) {
+                long start = blockIncrementer.nextLongValue();
+                block = new Block(start, start + blockSize);
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.viv.common.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * A domain event read back from the outbox table, waiting to be published.
+ *
+ * @param eventId - position in the outbox, increasing with every appended event
+ * @param payload - the event body as JSON
+ */
+public record OutboxMessage(long eventId, String aggregateType, String aggregateId, String eventType,
+        String payload, LocalDateTime createdAt) {
+
+    /**
+     * @return routing key on the events exchange, for example {@code loan.deleted}
+     */
+    public String routingKey() {
+        return aggregateType + "." + eventType;
+    }
+
+}
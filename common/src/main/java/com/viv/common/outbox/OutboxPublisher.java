@@ -0,0 +1,18 @@
+package com.viv.common.outbox;
+
+import java.util.List;
+
+/**
+ * Hands a batch of outbox events to the message broker.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Returns only once the broker has confirmed every message of the batch; throws
+     * otherwise, leaving the batch in the outbox to be published again.
+     *
+     * @param messages - events in outbox order
+     */
+    void publish(List<OutboxMessage> messages);
+
+}
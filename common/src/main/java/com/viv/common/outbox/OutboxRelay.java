@@ -0,0 +1,116 @@
+package com.viv.common.outbox;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Moves committed events from the outbox table to the broker every
+ * {@code outbox.relay.interval}, lowest event_id first and {@code outbox.relay.batch-size}
+ * at a time. Rows are deleted only after the broker confirmed them, so an unreachable broker
+ * delays events but never loses them; they pile up in the table until it is back.
+ * <p>
+ * A run first takes the lease in outbox_relay_lease, renews it before each further batch
+ * and gives it up at the end. While one instance holds it, the others skip their run
+ * instead of publishing the same rows at the same time. Taking the lease, reading a batch
+ * and deleting it are short statements of their own; the wait for the broker's confirms
+ * runs outside any transaction, so writers and the connection pool never wait on the broker.
+ * <p>
+ * Delivery is at least once: a crash between the broker's confirm and the delete, or an
+ * instance stalled past {@code outbox.relay.lease-duration}, publishes the batch again,
+ * so consumers must tolerate duplicates.
+ * <p>
+ * Events are not guaranteed to leave in the order of their changes. event_id is taken at
+ * insert, but transactions commit in their own order: a batch can hold event N+1 while
+ * the transaction that wrote event N is still open, and N then goes out in a later
+ * batch. Consumers must tolerate reordering, e.g. by comparing the version that loan and
+ * card payloads carry.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String SELECT_SQL = """
+            select event_id, aggregate_type, aggregate_id, event_type, payload, created_at
+            from outbox order by event_id limit ?""";
+    private static final String DELETE_SQL = "delete from outbox where event_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final OutboxPublisher outboxPublisher;
+    private final int batchSize;
+    private final RelayLease lease;
+    private final Counter published;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            OutboxPublisher outboxPublisher, MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.lease-duration:PT30S}") Duration leaseDuration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.outboxPublisher = outboxPublisher;
+        this.batchSize = batchSize;
+        this.lease = new RelayLease(jdbcTemplate,
+                System.getenv().getOrDefault("HOSTNAME", "localhost") + ":" + UUID.randomUUID(), leaseDuration);
+        this.published = Counter.builder("outbox.published")
+                .description("Outbox events confirmed by the broker")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT1S}")
+    public void relay() {
+        if (!lease.acquire()) {
+            return;
+        }
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize && lease.renew());
+        } finally {
+            lease.release();
+        }
+    }
+
+    /**
+     * @return the number of events published, 0 when the outbox is empty or the broker
+     *         did not confirm the batch
+     */
+    private int relayBatch() {
+        List<OutboxMessage> batch = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new OutboxMessage(rs.getLong("event_id"), rs.getString("aggregate_type"),
+                        rs.getString("aggregate_id"), rs.getString("event_type"), rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            outboxPublisher.publish(batch);
+        } catch (RuntimeException ex) {
+            log.warn("Unable to publish {} outbox events, retrying on the next run: {}", batch.size(),
+                    ex.toString());
+            return 0;
+        }
+        transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(DELETE_SQL,
+                batch.stream().map(message -> new Object[] { message.eventId() }).toList()));
+        published.increment(batch.size());
+        return batch.size();
+    }
+
+}
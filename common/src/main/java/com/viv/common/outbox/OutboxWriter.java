@@ -0,0 +1,75 @@
+package com.viv.common.outbox;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Function;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Records domain events in the outbox table as part of the caller's transaction, so
+ * an event exists exactly when the change it describes was committed. Publishing is
+ * left to {@link OutboxRelay}.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = """
+            insert into outbox (aggregate_type, aggregate_id, event_type, payload, created_at)
+            values (?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param aggregateType - kind of the changed entity, for example loan
+     * @param eventType - created, updated or deleted
+     * @param aggregateId - identifier of the changed entity
+     * @param payload - event body, serialized to JSON
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void append(String aggregateType, String eventType, String aggregateId, Object payload) {
+        jdbcTemplate.update(INSERT_SQL, aggregateType, aggregateId, eventType, json(payload),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * @param aggregateType - kind of the changed entities, for example loan
+     * @param eventType - created, updated or deleted
+     * @param payloads - one event body per changed entity, serialized to JSON
+     * @param aggregateId - identifier of the entity a payload describes
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public <T> void appendAll(String aggregateType, String eventType, Collection<T> payloads,
+            Function<T, String> aggregateId) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, payloads.stream()
+                .map(payload -> new Object[] { aggregateType, aggregateId.apply(payload), eventType, json(payload),
+                        createdAt })
+                .toList());
+    }
+
+    private String json(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
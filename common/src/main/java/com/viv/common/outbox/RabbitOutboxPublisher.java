@@ -0,0 +1,84 @@
+package com.viv.common.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes outbox events to a durable topic exchange on the RabbitMQ broker the bus
+ * already uses, routed by {@code <aggregateType>.<eventType>}. A batch goes out on one
+ * channel and is acknowledged with a single wait for publisher confirms, which needs
+ * {@code spring.rabbitmq.publisher-confirm-type=simple}.
+ * <p>
+ * The message id is {@code <application>:<eventId>}; a relay that crashes between the
+ * confirm and the outbox cleanup publishes the batch again, so consumers use it to
+ * drop duplicates. The {@link #CREATED_AT_HEADER} header carries the moment the event was
+ * written, as an ISO-8601 instant.
+ */
+@Component
+public class RabbitOutboxPublisher implements OutboxPublisher {
+
+    public static final String CREATED_AT_HEADER = "createdAt";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final String exchange;
+    private final String applicationName;
+    private final Duration confirmTimeout;
+
+    private volatile boolean exchangeDeclared;
+
+    public RabbitOutboxPublisher(RabbitTemplate rabbitTemplate, AmqpAdmin amqpAdmin,
+            @Value("${outbox.exchange}") String exchange,
+            @Value("${spring.application.name}") String applicationName,
+            @Value("${outbox.confirm-timeout:PT5S}") Duration confirmTimeout) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.exchange = exchange;
+        this.applicationName = applicationName;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        if (!exchangeDeclared) {
+            amqpAdmin.declareExchange(new TopicExchange(exchange, true, false));
+            exchangeDeclared = true;
+        }
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxMessage message : messages) {
+                operations.send(exchange, message.routingKey(), toAmqpMessage(message));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+            return null;
+        });
+    }
+
+    private Message toAmqpMessage(OutboxMessage message) {
+        return MessageBuilder.withBody(message.payload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setMessageId(applicationName + ":" + message.eventId())
+                .setType(message.eventType())
+                .setTimestamp(Timestamp.valueOf(message.createdAt()))
+                // the timestamp above keeps whole seconds only
+                .setHeader(CREATED_AT_HEADER, message.createdAt().atZone(ZoneId.systemDefault()).toInstant().toString())
+                .setHeader("aggregateType", message.aggregateType())
+                .setHeader("aggregateId", message.aggregateId())
+                .build();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.viv.common.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The one row in outbox_relay_lease naming the instance that relays the outbox. Each
+ * call is a single statement in its own transaction, so no lock outlives the call and
+ * the holder publishes without keeping anything open in the database.
+ * <p>
+ * A lease that is not renewed for its duration, e.g. after a crash, can be taken over.
+ * Expiry is compared on the instances' clocks, so the lease should exceed the broker's
+ * confirm timeout by more than the clock skew between them.
+ */
+final class RelayLease {
+
+    private static final String TAKE_SQL = """
+            update outbox_relay_lease set owner = ?, expires_at = ?
+            where lease_id = 1 and (owner = ? or expires_at < ?)""";
+    private static final String INSERT_SQL = "insert into outbox_relay_lease (lease_id, owner, expires_at) values (1, ?, ?)";
+    private static final String RENEW_SQL = "update outbox_relay_lease set expires_at = ? where lease_id = 1 and owner = ?";
+    private static final String RELEASE_SQL = "delete from outbox_relay_lease where lease_id = 1 and owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+    private final Duration duration;
+
+    RelayLease(JdbcTemplate jdbcTemplate, String owner, Duration duration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owner = owner;
+        this.duration = duration;
+    }
+
+    /**
+     * @return false when another instance holds an unexpired lease
+     */
+    boolean acquire() {
+        LocalDateTime now = LocalDateTime.now();
+        if (jdbcTemplate.update(TAKE_SQL, owner, now.plus(duration), owner, now) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_SQL, owner, now.plus(duration)) == 1;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * @return false when the lease was lost, e.g. taken over after this instance stalled
+     */
+    boolean renew() {
+        return jdbcTemplate.update(RENEW_SQL, LocalDateTime.now().plus(duration), owner) == 1;
+    }
+
+    void release() {
+        jdbcTemplate.update(RELEASE_SQL, owner);
+    }
+
+}
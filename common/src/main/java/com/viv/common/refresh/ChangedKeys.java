@@ -0,0 +1,39 @@
+package com.viv.common.refresh;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+
+/**
+ * The keys a refresh changed, matched against {@code @ConfigurationProperties} prefixes.
+ */
+final class ChangedKeys {
+
+    private final List<ConfigurationPropertyName> names;
+
+    /**
+     * @param keys - changed keys as the property sources spell them, e.g. loans.onCallSupport[0]
+     */
+    ChangedKeys(Set<String> keys) {
+        // in canonical form, so that loans.on-call-support[0] matches them too
+        this.names = keys.stream()
+                .map(key -> ConfigurationPropertyName.adapt(key, '.'))
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+
+    boolean isEmpty() {
+        return names.isEmpty();
+    }
+
+    /**
+     * @param prefix - a {@code @ConfigurationProperties} prefix, e.g. loans
+     * @return whether some changed key is the prefix or lies under it
+     */
+    boolean under(String prefix) {
+        ConfigurationPropertyName name = ConfigurationPropertyName.of(prefix);
+        return names.stream().anyMatch(changed -> name.equals(changed) || name.isAncestorOf(changed));
+    }
+
+}
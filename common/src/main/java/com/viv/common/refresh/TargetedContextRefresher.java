@@ -0,0 +1,116 @@
+package com.viv.common.refresh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration.RefreshProperties;
+import org.springframework.cloud.context.refresh.ConfigDataContextRefresher;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs bus and /actuator/refresh refreshes like the default refresher, which reloads
+ * the config and publishes the keys whose values changed, with two differences:
+ * <ul>
+ * <li>only the refresh-scoped beans bound to a changed key are recreated, rather than
+ * all of them on every refresh, since recreating one blocks the requests that call it
+ * until it is rebuilt;</li>
+ * <li>each refresh is timed as {@code config.refresh}, tagged with whether it changed
+ * anything.</li>
+ * </ul>
+ * Which {@code @ConfigurationProperties} beans are rebound is up to
+ * {@link TargetedPropertiesRebinder}. The native build turns the refresh scope, and with it
+ * this refresher, off.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.cloud.refresh.enabled", matchIfMissing = true)
+public class TargetedContextRefresher extends ConfigDataContextRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(TargetedContextRefresher.class);
+
+    private static final String REFRESH_SCOPE = "refresh";
+
+    private final MeterRegistry meterRegistry;
+
+    public TargetedContextRefresher(ConfigurableApplicationContext context, RefreshScope scope,
+            RefreshProperties properties, MeterRegistry meterRegistry) {
+        super(context, scope, properties);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public synchronized Set<String> refresh() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            Set<String> keys = refreshEnvironment();
+            recreate(keys);
+            outcome = keys.isEmpty() ? "unchanged" : "changed";
+            return keys;
+        } finally {
+            sample.stop(Timer.builder("config.refresh")
+                    .description("Time to reload the config and rebind what changed")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Recreates the refresh-scoped beans bound to any of the keys: those whose own
+     * {@code @ConfigurationProperties} prefix, or that of a {@code @ConfigurationProperties}
+     * bean they were created from, covers a key. A bean bound to no prefix at all, e.g. one
+     * reading {@code @Value}s, is recreated on any change.
+     *
+     * @param keys - the keys a refresh changed
+     * @return the beans recreated; ones the scope had not created yet are left out
+     */
+    public List<String> recreate(Set<String> keys) {
+        ChangedKeys changed = new ChangedKeys(keys);
+        List<String> recreated = new ArrayList<>();
+        if (changed.isEmpty()) {
+            return recreated;
+        }
+        ConfigurableListableBeanFactory beanFactory = getContext().getBeanFactory();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            if (REFRESH_SCOPE.equals(beanFactory.getBeanDefinition(beanName).getScope())
+                    && affected(beanFactory, beanName, changed) && getScope().refresh(beanName)) {
+                log.info("Recreated {} after a config refresh", beanName);
+                recreated.add(beanName);
+            }
+        }
+        return recreated;
+    }
+
+    private static boolean affected(ConfigurableListableBeanFactory beanFactory, String beanName, ChangedKeys changed) {
+        List<String> prefixes = new ArrayList<>();
+        prefix(beanFactory, beanName, prefixes);
+        // e.g. a client built from the properties bean its @Bean method takes
+        for (String dependency : beanFactory.getDependenciesForBean(beanName)) {
+            prefix(beanFactory, dependency, prefixes);
+        }
+        return prefixes.isEmpty() || prefixes.stream().anyMatch(changed::under);
+    }
+
+    private static void prefix(ConfigurableListableBeanFactory beanFactory, String beanName, List<String> prefixes) {
+        if (!beanFactory.containsBean(beanName)) {
+            return;
+        }
+        // looks at the @Bean method too, where auto-configuration puts the annotation
+        ConfigurationProperties annotation = beanFactory.findAnnotationOnBean(beanName, ConfigurationProperties.class,
+                false);
+        if (annotation != null) {
+            prefixes.add(annotation.prefix());
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.viv.common.refresh;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBean;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesBeans;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Rebinds only the {@code @ConfigurationProperties} beans whose prefix covers one of the
+ * keys a refresh changed, instead of every such bean on every refresh; a refresh that
+ * changed only {@code loans.message} rebinds the loans contact info and nothing else, and
+ * one that changed nothing rebinds nothing. Beans are rebound in place on the refreshing
+ * thread, without locks, so requests reading them never wait.
+ * <p>
+ * The price is a torn read: binding sets a bean's properties one after the other, so a
+ * request reading a bean while it is rebound can see some properties already changed and
+ * others not yet, e.g. the new message next to the old contact details. Each property on
+ * its own is either its old or its new value. Properties that only make sense together
+ * have to live in a refresh-scoped bean, which {@link TargetedContextRefresher} replaces
+ * as a whole.
+ */
+@Component
+public class TargetedPropertiesRebinder extends ConfigurationPropertiesRebinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TargetedPropertiesRebinder.class);
+
+    private final MeterRegistry meterRegistry;
+    private ApplicationContext applicationContext;
+
+    public TargetedPropertiesRebinder(ConfigurationPropertiesBeans beans, MeterRegistry meterRegistry) {
+        super(beans);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        super.setApplicationContext(applicationContext);
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void onApplicationEvent(EnvironmentChangeEvent event) {
+        // same filter as the default rebinder: ignore changes of a parent or child context
+        if (!applicationContext.equals(event.getSource()) && !event.getKeys().equals(event.getSource())) {
+            return;
+        }
+        ChangedKeys changed = new ChangedKeys(event.getKeys());
+        if (changed.isEmpty()) {
+            return;
+        }
+        for (String beanName : getBeanNames()) {
+            if (affected(beanName, changed) && rebind(beanName)) {
+                log.info("Rebound {} after a config refresh", beanName);
+                Counter.builder("config.refresh.rebinds")
+                        .description("@ConfigurationProperties beans rebound because a refresh changed their keys")
+                        .tag("bean", beanName)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+
+    private boolean affected(String beanName, ChangedKeys changed) {
+        ConfigurationPropertiesBean bean = ConfigurationPropertiesBean.get(applicationContext,
+                applicationContext.getBean(beanName), beanName);
+        // without a prefix to compare against, any change may concern it
+        return bean == null || changed.under(bean.getAnnotation().prefix());
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.viv.common.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql.log")
+public class SqlLogProperties {
+    /** share of the statements written to the "sql" logger, from 0 (none) to 1 (all) */
+    double sampleRate;
+}
@@ -0,0 +1,57 @@
+package com.viv.common.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes a random sample of the SQL statements (sql.log.sample-rate) as JSON lines on
+ * the "sql" logger, in place of spring.jpa.show-sql. Statements are logged as prepared,
+ * so bind parameters appear as ? and their values are never written.
+ */
+@Component
+public class SqlLogSampler {
+
+    private static final Logger sqlLog = LoggerFactory.getLogger("sql");
+
+    private final SqlLogProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public SqlLogSampler(SqlLogProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param sql - statement about to be prepared
+     */
+    void offer(String sql) {
+        double sampleRate = properties.getSampleRate();
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate || !sqlLog.isInfoEnabled()) {
+            return;
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            line.put("method", attributes.getRequest().getMethod());
+            line.put("uri", attributes.getRequest().getRequestURI());
+        }
+        line.put("thread", Thread.currentThread().getName());
+        line.put("sampleRate", sampleRate);
+        line.put("statement", sql);
+        try {
+            sqlLog.info(objectMapper.writeValueAsString(line));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.viv.common.sql;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements of every request and flags the requests that run more than
+ * their endpoint's budget (sql.statement-budget.*): a warning in the log and the
+ * sql.statements.over.budget metric. The count of every request is recorded by the
+ * sql.statements.per.request metric, tagged like http.server.requests by uri.
+ * <p>
+ * Statements of an asynchronous request (/api/export) run on another thread and are
+ * not counted.
+ */
+@Component
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    private final StatementCounter statementCounter;
+    private final StatementBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public StatementBudgetFilter(StatementCounter statementCounter, StatementBudgetProperties properties,
+            MeterRegistry meterRegistry) {
+        this.statementCounter = statementCounter;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statementCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = statementCounter.close();
+            // the mapped pattern keeps the tag cardinality bounded; unmapped requests share one tag
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("sql.statements.per.request")
+                    .description("SQL statements run by a request")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            int budget = properties.getEndpoints().getOrDefault(uri, properties.getDefaultBudget());
+            if (statements > budget) {
+                Counter.builder("sql.statements.over.budget")
+                        .description("Requests that ran more SQL statements than their endpoint's budget")
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("{} {} ran {} SQL statements, over its budget of {}", request.getMethod(), uri, statements,
+                        budget);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.viv.common.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql.statement-budget")
+public class StatementBudgetProperties {
+    boolean enabled = true;
+    /** statements a request may run when its endpoint has no budget of its own */
+    int defaultBudget = 10;
+    /** budget per endpoint path, for example endpoints[/api/fetch]=2 */
+    Map<String, Integer> endpoints = new HashMap<>();
+    /** reports the count of every response in the X-Sql-Statements header; not for prod */
+    boolean responseHeader;
+}
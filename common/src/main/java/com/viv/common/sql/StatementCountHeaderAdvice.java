@@ -0,0 +1,43 @@
+package com.viv.common.sql;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the request's SQL statement count as a response header when
+ * sql.statement-budget.response-header is on. The header is written with the body,
+ * which is after the service call and its transaction completed.
+ */
+@ControllerAdvice
+public class StatementCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-Sql-Statements";
+
+    private final StatementCounter statementCounter;
+    private final StatementBudgetProperties properties;
+
+    public StatementCountHeaderAdvice(StatementCounter statementCounter, StatementBudgetProperties properties) {
+        this.statementCounter = statementCounter;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isEnabled() && properties.isResponseHeader();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        response.getHeaders().set(HEADER,
+                String.valueOf(statementCounter.count()));
+        return body;
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.viv.common.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements run on the current thread while a count is open and hands
+ * every statement to the {@link SqlLogSampler}, leaving the statements themselves
+ * untouched. It wraps the DataSource, so statements of Hibernate and of JdbcTemplate
+ * (the outbox, the audit log, repayments, charges and the card ledger) are counted
+ * alike: each prepared statement once, however many rows it is batched with, and each
+ * statement a plain {@link Statement} executes.
+ */
+@Component
+public class StatementCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    // looked up on first use, so that wrapping the DataSource does not create the sampler early
+    private final ObjectProvider<SqlLogSampler> sqlLogSampler;
+    private final MethodInterceptor connections = invocation -> {
+        Object result = invocation.proceed();
+        return result instanceof Connection connection ? proxy(Connection.class, connection) : result;
+    };
+
+    public StatementCounter(ObjectProvider<SqlLogSampler> sqlLogSampler) {
+        this.sqlLogSampler = sqlLogSampler;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof Advised advised && advised.indexOf(connections) >= 0) {
+            return bean;
+        }
+        // a subclass of the pool's own class, so that binding, the refresh rebinder and the
+        // pool metrics still find the HikariDataSource they expect
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(connections);
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    /**
+     * Starts counting on the current thread, from zero.
+     */
+    public void open() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * @return statements run since {@link #open()}, 0 when no count is open
+     */
+    public int count() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+
+    /**
+     * @return statements run since {@link #open()}; the count is closed
+     */
+    public int close() {
+        int count = count();
+        COUNT.remove();
+        return count;
+    }
+
+    private void counted(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        sqlLogSampler.getObject().offer(sql);
+    }
+
+    private <T> T proxy(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new CountingHandler(target)));
+    }
+
+    /**
+     * Counts the statements a Connection prepares and wraps the plain Statements it
+     * creates, which only learn their SQL when they execute it.
+     */
+    private final class CountingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private CountingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            boolean prepares = target instanceof Connection && (name.equals("prepareStatement")
+                    || name.equals("prepareCall"));
+            boolean executes = target instanceof Statement && name.startsWith("execute") && args != null
+                    && args.length > 0 && args[0] instanceof String;
+            if (prepares || executes) {
+                counted((String) args[0]);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+            if (target instanceof Connection && name.equals("createStatement")) {
+                return proxy(Statement.class, (Statement) result);
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.viv.common.aot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.common.event.MobileNumbersAddedEvent;
+
+class RuntimeHintsTests {
+
+	// named like the top-level events of the services, rather than RuntimeHintsTests$TestEvictEvent
+	@JsonTypeName("TestEvictEvent")
+	static class TestEvictEvent extends RemoteApplicationEvent {
+
+		private List<Long> ids;
+
+		@SuppressWarnings("unused")
+		private TestEvictEvent() {
+			// for serializers
+		}
+
+		public List<Long> getIds() {
+			return ids;
+		}
+
+	}
+
+	static class TestDto {
+
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+	}
+
+	static class TestBusEventTypes extends AbstractBusEventTypes {
+
+		TestBusEventTypes() {
+			super("test-bus-event-types", TestEvictEvent.class);
+		}
+
+	}
+
+	static class TestRuntimeHints extends AbstractRuntimeHints {
+
+		TestRuntimeHints() {
+			super(new TestBusEventTypes(), TestDto.class, List.of(TestDto.class));
+		}
+
+	}
+
+	@Test
+	void hintsCoverWhatIsOnlyReachedByReflection() {
+		RuntimeHints hints = new RuntimeHints();
+		new TestRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertThat(RuntimeHintsPredicates.reflection().onType(TestDto.class)
+				.withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(TestEvictEvent.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(MobileNumbersAddedEvent.class)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection()
+				.onType(TypeReference.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"))
+				.withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource().forResource("reference.conf")).accepts(hints);
+		assertThat(RuntimeHintsPredicates.resource()
+				.forResource("META-INF/resources/webjars/swagger-ui/5.18.2/index.html")).accepts(hints);
+	}
+
+	@Test
+	void busEventsAreReadableWithoutClasspathScanning() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new TestBusEventTypes());
+
+		RemoteApplicationEvent event = objectMapper.readValue("""
+				{"type":"TestEvictEvent","originService":"test:8080:a","destinationService":"test:**","ids":[7]}
+				""", RemoteApplicationEvent.class);
+		RemoteApplicationEvent refresh = objectMapper.readValue("""
+				{"type":"RefreshRemoteApplicationEvent","originService":"config:8071:a","destinationService":"**"}
+				""", RemoteApplicationEvent.class);
+
+		assertThat(event).isInstanceOf(TestEvictEvent.class);
+		assertThat(((TestEvictEvent) event).getIds()).containsExactly(7L);
+		assertThat(refresh).isInstanceOf(RefreshRemoteApplicationEvent.class);
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.viv.common.cascade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.common.outbox.RabbitOutboxPublisher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The listener loans and cards share, with a deleter that records what it was asked to
+ * delete; the created_at guard is up to each service's deleter.
+ */
+class CustomerDeletedListenerTests {
+
+	EmbeddedDatabase database;
+
+	SimpleMeterRegistry meterRegistry;
+
+	final List<Map<String, LocalDateTime>> deletes = new CopyOnWriteArrayList<>();
+
+	AbstractCustomerDeletedListener listener;
+
+	@BeforeEach
+	void createListener() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+				.addScript("processed-event-schema.sql").build();
+		meterRegistry = new SimpleMeterRegistry();
+		listener = new AbstractCustomerDeletedListener(deletedAt -> {
+			deletes.add(deletedAt);
+			return deletedAt.size();
+		}, "Records deleted because their customer was deleted",
+				new ProcessedEvents(new NamedParameterJdbcTemplate(database)),
+				new DataSourceTransactionManager(database), new ObjectMapper(), meterRegistry, Duration.ofDays(7)) {
+		};
+	}
+
+	@AfterEach
+	void dropTables() {
+		database.shutdown();
+	}
+
+	@Test
+	void deletesABatchAtOnceAndSkipsReplays() {
+		Instant first = Instant.now().minusSeconds(10);
+		Instant second = Instant.now();
+
+		listener.onCustomersDeleted(List.of(
+				customerDeleted("accounts:1", "7100000001", first),
+				customerDeleted("accounts:2", "7100000002", first),
+				// deleted, registered again and deleted again: the later deletion counts
+				customerDeleted("accounts:3", "7100000001", second)));
+		listener.onCustomersDeleted(List.of(customerDeleted("accounts:1", "7100000001", first)));
+
+		assertThat(deletes).containsExactly(Map.of("7100000001", localTime(second), "7100000002", localTime(first)));
+		assertThat(meterRegistry.get("cascade.delete.deleted").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get("cascade.delete.duplicates").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void skipsEventsWithoutAMobileNumber() {
+		Instant deletedAt = Instant.now();
+
+		listener.onCustomersDeleted(List.of(
+				MessageBuilder.withBody("{}".getBytes(StandardCharsets.UTF_8)).setMessageId("accounts:4").build(),
+				customerDeleted("accounts:5", "7100000004", deletedAt)));
+
+		assertThat(deletes).containsExactly(Map.of("7100000004", localTime(deletedAt)));
+	}
+
+	private static LocalDateTime localTime(Instant instant) {
+		return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+	}
+
+	private static Message customerDeleted(String eventId, String mobileNumber, Instant deletedAt) {
+		String payload = "{\"name\":\"Test\",\"email\":\"test@example.com\",\"mobileNumber\":\"" + mobileNumber + "\"}";
+		return MessageBuilder.withBody(payload.getBytes(StandardCharsets.UTF_8)).setMessageId(eventId)
+				.setHeader(RabbitOutboxPublisher.CREATED_AT_HEADER, deletedAt.toString()).build();
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.viv.common.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+
+class SequenceBlockAllocatorTests {
+
+	private static final long START = 2000000000L;
+	private static final int BLOCK_SIZE = 1000;
+
+	@Test
+	void countsUpFromTheSequenceAcrossBlocks() {
+		CountingIncrementer incrementer = new CountingIncrementer(START);
+		SequenceBlockAllocator allocator = new SequenceBlockAllocator(incrementer, BLOCK_SIZE);
+
+		List<Long> values = IntStream.range(0, BLOCK_SIZE + 2).mapToObj(n -> allocator.next()).toList();
+
+		assertThat(values).containsExactlyElementsOf(LongStream.range(START, START + BLOCK_SIZE + 2)
+				.boxed()
+				.toList());
+		assertThat(incrementer.calls.get()).isEqualTo(2);
+	}
+
+	@Test
+	void issuesUniqueValuesAcrossThreads() throws Exception {
+		CountingIncrementer incrementer = new CountingIncrementer(START);
+		SequenceBlockAllocator allocator = new SequenceBlockAllocator(incrementer, BLOCK_SIZE);
+		Set<Long> values = ConcurrentHashMap.newKeySet();
+		int perThread = 2_500;
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			List<Future<?>> futures = IntStream.range(0, 8)
+					.<Future<?>>mapToObj(i -> executor.submit(() -> {
+						for (int n = 0; n < perThread; n++) {
+							values.add(allocator.next());
+						}
+					}))
+					.toList();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+
+		assertThat(values).hasSize(8 * perThread);
+		assertThat(incrementer.calls.get()).isEqualTo(8 * perThread / BLOCK_SIZE);
+	}
+
+	private static final class CountingIncrementer implements DataFieldMaxValueIncrementer {
+
+		private final AtomicLong next;
+		private final AtomicLong calls = new AtomicLong();
+
+		private CountingIncrementer(long start) {
+			this.next = new AtomicLong(start);
+		}
+
+		@Override
+		public long nextLongValue() {
+			calls.incrementAndGet();
+			return next.getAndAdd(BLOCK_SIZE);
+		}
+
+		@Override
+		public int nextIntValue() {
+			return (int) nextLongValue();
+		}
+
+		@Override
+		public String nextStringValue() {
+			return Long.toString(nextLongValue());
+		}
+
+	}
+
+}
@@ -0,0 +1,184 @@
+package com.viv.common.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The relay and its lease, on the outbox tables alone; the services' OutboxEventsTests
+ * cover the events their writes append.
+ */
+class OutboxRelayTests {
+
+	EmbeddedDatabase database;
+
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void createTables() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+				.addScript("outbox-schema.sql").build();
+		jdbcTemplate = new JdbcTemplate(database);
+	}
+
+	@AfterEach
+	void dropTables() {
+		database.shutdown();
+	}
+
+	@Test
+	void publishesInOrderAndEmptiesTheOutbox() {
+		append("loan", "created");
+		append("loan", "updated");
+		append("loan", "deleted");
+		List<OutboxMessage> published = new CopyOnWriteArrayList<>();
+
+		relay(published::addAll).relay();
+
+		assertThat(published).extracting(OutboxMessage::routingKey)
+				.containsExactly("loan.created", "loan.updated", "loan.deleted");
+		assertThat(pendingEvents()).isZero();
+	}
+
+	@Test
+	void keepsEventsUntilTheBrokerConfirmsThem() {
+		append("loan", "created");
+		append("loan", "created");
+		List<OutboxMessage> published = new CopyOnWriteArrayList<>();
+
+		relay(batch -> {
+			throw new IllegalStateException("broker unavailable");
+		}).relay();
+		assertThat(pendingEvents()).isEqualTo(2);
+		relay(published::addAll).relay();
+
+		assertThat(published).hasSize(2);
+		assertThat(pendingEvents()).isZero();
+	}
+
+	@Test
+	void rolledBackWritesLeaveNoEvent() {
+		OutboxWriter outboxWriter = new OutboxWriter(jdbcTemplate, new ObjectMapper());
+
+		new TransactionTemplate(new DataSourceTransactionManager(database)).executeWithoutResult(status -> {
+			outboxWriter.append("loan", "created", "1", Map.of("loanNumber", "1"));
+			status.setRollbackOnly();
+		});
+
+		assertThat(pendingEvents()).isZero();
+	}
+
+	@Test
+	void waitsForTheBrokerOutsideAnyTransaction() throws Exception {
+		append("loan", "created");
+		CountDownLatch publishing = new CountDownLatch(1);
+		CountDownLatch confirm = new CountDownLatch(1);
+		List<Boolean> inTransaction = new CopyOnWriteArrayList<>();
+		OutboxRelay relay = relay(batch -> {
+			inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+			publishing.countDown();
+			await(confirm);
+		});
+
+		try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+			Future<?> relaying = executor.submit(relay::relay);
+			publishing.await();
+			// writers are not held up while the broker confirms, and the lease is committed
+			append("loan", "updated");
+			assertThat(jdbcTemplate.queryForList("select owner from outbox_relay_lease", String.class)).hasSize(1);
+			confirm.countDown();
+			relaying.get();
+		}
+
+		assertThat(inTransaction).containsExactly(false);
+		assertThat(pendingEvents()).isEqualTo(1);
+	}
+
+	@Test
+	void releasesTheLeaseAfterARun() {
+		append("loan", "created");
+		List<OutboxMessage> published = new CopyOnWriteArrayList<>();
+
+		relay(published::addAll).relay();
+
+		assertThat(published).extracting(OutboxMessage::routingKey).containsExactly("loan.created");
+		assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_relay_lease", Integer.class)).isZero();
+	}
+
+	@Test
+	void skipsWhileAnotherInstanceHoldsTheLease() {
+		append("loan", "created");
+		lease("other-instance", LocalDateTime.now().plusMinutes(1));
+		List<OutboxMessage> published = new CopyOnWriteArrayList<>();
+
+		relay(published::addAll).relay();
+
+		assertThat(published).isEmpty();
+		assertThat(pendingEvents()).isEqualTo(1);
+	}
+
+	@Test
+	void takesOverALeaseThatWasNotRenewed() {
+		append("loan", "created");
+		lease("crashed-instance", LocalDateTime.now().minusSeconds(1));
+		List<OutboxMessage> published = new CopyOnWriteArrayList<>();
+
+		relay(published::addAll).relay();
+
+		assertThat(published).extracting(OutboxMessage::routingKey).containsExactly("loan.created");
+		assertThat(pendingEvents()).isZero();
+	}
+
+	private OutboxRelay relay(OutboxPublisher publisher) {
+		return new OutboxRelay(jdbcTemplate, new DataSourceTransactionManager(database), publisher,
+				new SimpleMeterRegistry(), 500, Duration.ofSeconds(30));
+	}
+
+	private void append(String aggregateType, String eventType) {
+		jdbcTemplate.update("""
+				insert into outbox (aggregate_type, aggregate_id, event_type, payload, created_at)
+				values (?, ?, ?, ?, ?)""", aggregateType, "1", eventType, "{}", Timestamp.valueOf(LocalDateTime.now()));
+	}
+
+	private void lease(String owner, LocalDateTime expiresAt) {
+		jdbcTemplate.update("insert into outbox_relay_lease (lease_id, owner, expires_at) values (1, ?, ?)", owner,
+				expiresAt);
+	}
+
+	private int pendingEvents() {
+		return jdbcTemplate.queryForObject("select count(*) from outbox", Integer.class);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
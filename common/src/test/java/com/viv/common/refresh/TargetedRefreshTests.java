@@ -0,0 +1,179 @@
+package com.viv.common.refresh;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.cloud.autoconfigure.ConfigurationPropertiesRebinderAutoConfiguration;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.refresh.ContextRefresher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The refresher and the rebinder on test beans: {@code @ConfigurationProperties} beans
+ * standing in for the services' contact info and statement budget, and refresh-scoped
+ * beans bound to a prefix or built from one of them.
+ */
+@SpringBootTest(classes = TargetedRefreshTests.RefreshContext.class, webEnvironment = WebEnvironment.NONE,
+		properties = { "refresh-test.message.text=From config", "refresh-test.budget.text=From config" })
+class TargetedRefreshTests {
+
+	@Configuration(proxyBeanMethods = false)
+	@ImportAutoConfiguration({ ConfigurationPropertiesAutoConfiguration.class, RefreshAutoConfiguration.class,
+			ConfigurationPropertiesRebinderAutoConfiguration.class })
+	@Import({ TargetedContextRefresher.class, TargetedPropertiesRebinder.class })
+	static class RefreshContext {
+
+		@Bean
+		SimpleMeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		@ConfigurationProperties("refresh-test.message")
+		Settings message() {
+			return new Settings();
+		}
+
+		@Bean
+		@ConfigurationProperties("refresh-test.budget")
+		Settings budget() {
+			return new Settings();
+		}
+
+		@Bean
+		@RefreshScope
+		@ConfigurationProperties("refresh-test.first")
+		Settings first() {
+			return new Settings();
+		}
+
+		@Bean
+		@RefreshScope
+		@ConfigurationProperties("refresh-test.second")
+		Settings second() {
+			return new Settings();
+		}
+
+		@Bean
+		@RefreshScope
+		Settings builtFromBudget(@Qualifier("budget") Settings budget) {
+			return new Settings();
+		}
+
+	}
+
+	static class Settings {
+
+		String text;
+
+		public String getText() {
+			return text;
+		}
+
+		public void setText(String text) {
+			this.text = text;
+		}
+
+	}
+
+	@Autowired
+	ConfigurableApplicationContext context;
+
+	@Autowired
+	ContextRefresher contextRefresher;
+
+	@Autowired
+	TargetedContextRefresher targetedContextRefresher;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Autowired
+	@Qualifier("message")
+	Settings message;
+
+	@Autowired
+	@Qualifier("budget")
+	Settings budget;
+
+	@Autowired
+	@Qualifier("first")
+	Settings first;
+
+	@Autowired
+	@Qualifier("second")
+	Settings second;
+
+	@Autowired
+	@Qualifier("builtFromBudget")
+	Settings builtFromBudget;
+
+	@AfterEach
+	void restore() {
+		context.getEnvironment().getPropertySources().remove("refreshed");
+		message.setText("From config");
+		budget.setText("From config");
+	}
+
+	@Test
+	void changedKeyRebindsOnlyTheBeanItBelongsTo() {
+		// a value only a rebind would reset
+		budget.setText("Changed");
+		context.getEnvironment().getPropertySources()
+				.addFirst(new MapPropertySource("refreshed", Map.of("refresh-test.message.text", "Refreshed")));
+
+		context.publishEvent(new EnvironmentChangeEvent(context, Set.of("refresh-test.message.text")));
+
+		assertThat(message.getText()).isEqualTo("Refreshed");
+		assertThat(budget.getText()).isEqualTo("Changed");
+	}
+
+	@Test
+	void refreshWithoutChangesRebindsNothing() {
+		context.getEnvironment().getPropertySources()
+				.addFirst(new MapPropertySource("refreshed", Map.of("refresh-test.message.text", "Refreshed")));
+
+		// the rebinder only acts on changed keys, so the new value stays unbound
+		context.publishEvent(new EnvironmentChangeEvent(context, Set.of()));
+		contextRefresher.refresh();
+
+		assertThat(message.getText()).isEqualTo("From config");
+		assertThat(meterRegistry.get("config.refresh").timers())
+				.anySatisfy(timer -> assertThat(timer.count()).isPositive());
+	}
+
+	@Test
+	void changedKeyRecreatesOnlyTheRefreshScopedBeansBoundToIt() {
+		// the scope creates its beans on first use, and only those can be recreated
+		first.getText();
+		second.getText();
+		builtFromBudget.getText();
+
+		assertThat(targetedContextRefresher.recreate(Set.of("refresh-test.first.text")))
+				.containsExactly("scopedTarget.first");
+		assertThat(targetedContextRefresher.recreate(Set.of("refresh-test.budget.text")))
+				.containsExactly("scopedTarget.builtFromBudget");
+		assertThat(targetedContextRefresher.recreate(Set.of("refresh-test.message.text"))).isEmpty();
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.viv.common.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Pins the number of SQL statements of every CRUD request, so that an added query
+ * shows up as a failing test rather than in production latency. A service extends it
+ * with how it creates and edits a record and the number of statements each request
+ * may take; every test uses its own mobile number, {@code mobileNumberPrefix} followed
+ * by two digits.
+ *
+ * @param <D> - the DTO the service's fetch returns and its update takes
+ */
+// without a broker every broadcast fails, which would keep the mobile number filter falling back to the table
+@SpringBootTest(properties = { "sql.statement-budget.response-header=true", "mobile-filter.fallback-window=PT0S" })
+@AutoConfigureMockMvc
+public abstract class AbstractStatementCountTests<D> {
+
+	@Autowired
+	protected MockMvc mockMvc;
+
+	@Autowired
+	protected ObjectMapper objectMapper;
+
+	private final Class<D> dtoType;
+
+	private final String mobileNumberPrefix;
+
+	protected AbstractStatementCountTests(Class<D> dtoType, String mobileNumberPrefix) {
+		this.dtoType = dtoType;
+		this.mobileNumberPrefix = mobileNumberPrefix;
+	}
+
+	protected abstract RequestBuilder create(String mobileNumber);
+
+	/**
+	 * @param dto - the fetched record, changed in place before it is sent to the update
+	 */
+	protected abstract void edit(D dto);
+
+	protected abstract int createStatements();
+
+	protected abstract int fetchStatements();
+
+	protected abstract int updateStatements();
+
+	protected abstract int deleteStatements();
+
+	@Test
+	void creates() throws Exception {
+		// the first insert also fetches a block of 50 ids from the sequence
+		perform(create(mobileNumber(5)));
+
+		assertThat(statements(create(mobileNumber(1)))).isEqualTo(createStatements());
+	}
+
+	@Test
+	void fetches() throws Exception {
+		perform(create(mobileNumber(2)));
+
+		assertThat(statements(get("/api/fetch").param("mobileNumber", mobileNumber(2)))).isEqualTo(fetchStatements());
+	}
+
+	@Test
+	void updates() throws Exception {
+		perform(create(mobileNumber(3)));
+		D dto = fetch(mobileNumber(3));
+		edit(dto);
+
+		assertThat(statements(put("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(dto)))).isEqualTo(updateStatements());
+	}
+
+	@Test
+	void deletes() throws Exception {
+		perform(create(mobileNumber(4)));
+
+		assertThat(statements(delete("/api/delete").param("mobileNumber", mobileNumber(4))))
+				.isEqualTo(deleteStatements());
+	}
+
+	private String mobileNumber(int test) {
+		return mobileNumberPrefix + "%02d".formatted(test);
+	}
+
+	private D fetch(String mobileNumber) throws Exception {
+		MvcResult result = perform(get("/api/fetch").param("mobileNumber", mobileNumber));
+		return objectMapper.readValue(result.getResponse().getContentAsString(), dtoType);
+	}
+
+	private int statements(RequestBuilder request) throws Exception {
+		return Integer.parseInt(perform(request).getResponse().getHeader(StatementCountHeaderAdvice.HEADER));
+	}
+
+	private MvcResult perform(RequestBuilder request) throws Exception {
+		return mockMvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+	}
+
+}
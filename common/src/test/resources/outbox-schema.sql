@@ -0,0 +1,15 @@
+-- the outbox tables as the services' schema.sql creates them
+CREATE TABLE outbox (
+  event_id bigint AUTO_INCREMENT PRIMARY KEY,
+  aggregate_type varchar(50) NOT NULL,
+  aggregate_id varchar(100) NOT NULL,
+  event_type varchar(50) NOT NULL,
+  payload text NOT NULL,
+  created_at timestamp NOT NULL
+);
+
+CREATE TABLE outbox_relay_lease (
+  lease_id int PRIMARY KEY,
+  owner varchar(300) NOT NULL,
+  expires_at timestamp NOT NULL
+);
@@ -0,0 +1,5 @@
+-- the processed_event table as the loans and cards schema.sql create it
+CREATE TABLE processed_event (
+  event_id varchar(100) PRIMARY KEY,
+  processed_at timestamp NOT NULL
+);
@@ -2,10 +2,17 @@ package com.viv.configserver;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.config.server.EnableConfigServer;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.viv.configserver.local.LocalConfigProperties;
+import com.viv.configserver.snapshot.SnapshotProperties;
 
 @SpringBootApplication
 @EnableConfigServer
+@EnableScheduling
+@EnableConfigurationProperties(value = { SnapshotProperties.class, LocalConfigProperties.class })
 public class ConfigserverApplication {
 
 	public static void main(String[] args) {
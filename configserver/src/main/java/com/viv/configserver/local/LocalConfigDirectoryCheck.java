@@ -0,0 +1,31 @@
+package com.viv.configserver.local;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stops a local profile startup whose config directory does not exist. The native backend
+ * would start anyway and answer every application with an empty config, so the services
+ * would quietly run on their defaults. Runs whether or not the directory is watched.
+ */
+@Component
+@Profile("local")
+public class LocalConfigDirectoryCheck implements InitializingBean {
+
+	private static final Logger log = LoggerFactory.getLogger(LocalConfigDirectoryCheck.class);
+
+	private final LocalConfigProperties properties;
+
+	public LocalConfigDirectoryCheck(LocalConfigProperties properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		log.info("Serving config files from {}", properties.existingDirectory());
+	}
+
+}
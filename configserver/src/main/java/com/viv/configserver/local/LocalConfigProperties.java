@@ -0,0 +1,39 @@
+package com.viv.configserver.local;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "config.local")
+public class LocalConfigProperties {
+	/**
+	 * directory or git checkout the local profile serves the config files from; the
+	 * default is relative to the working directory and only found from the configserver module
+	 */
+	Path directory = Path.of("src/main/resources/config");
+	/** watches the directory and notifies the applications whose files changed */
+	boolean watch;
+	/** quiet period that ends a burst of file events, so one save sends one notification */
+	Duration debounce = Duration.ofMillis(500);
+
+	/**
+	 * @return the absolute config directory
+	 * @throws IllegalStateException - when it does not exist, instead of serving every
+	 *                               application an empty config
+	 */
+	public Path existingDirectory() {
+		Path absolute = directory.toAbsolutePath().normalize();
+		if (!Files.isDirectory(absolute)) {
+			throw new IllegalStateException("Local config directory " + absolute
+					+ " does not exist; set CONFIG_LOCAL_DIR to the directory holding the config files");
+		}
+		return absolute;
+	}
+}
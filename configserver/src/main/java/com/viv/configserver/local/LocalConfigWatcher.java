@@ -0,0 +1,166 @@
+package com.viv.configserver.local;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Watches the local profile's config directory and, for every burst of changes, sends
+ * one refresh over the bus to each application whose files changed, e.g. loans:** for
+ * loans-qa.properties. Changes to application*.* files concern every application and
+ * are broadcast. Application names are guessed from the file names the way the
+ * /monitor webhook does it.
+ */
+@Component
+@ConditionalOnProperty(name = "config.local.watch", havingValue = "true")
+public class LocalConfigWatcher {
+
+	private static final Logger log = LoggerFactory.getLogger(LocalConfigWatcher.class);
+
+	private static final Set<String> CONFIG_EXTENSIONS = Set.of("properties", "yml", "yaml", "json");
+	private static final String ALL_APPLICATIONS = "*";
+
+	private final LocalConfigProperties properties;
+	private final ApplicationEventPublisher eventPublisher;
+	private final BusProperties busProperties;
+	private final Destination.Factory destinationFactory;
+	private WatchService watchService;
+
+	public LocalConfigWatcher(LocalConfigProperties properties, ApplicationEventPublisher eventPublisher,
+			ObjectProvider<BusProperties> busProperties, ObjectProvider<Destination.Factory> destinationFactory) {
+		this.properties = properties;
+		this.eventPublisher = eventPublisher;
+		this.busProperties = busProperties.getIfAvailable();
+		this.destinationFactory = destinationFactory.getIfAvailable();
+	}
+
+	@PostConstruct
+	public void start() throws IOException {
+		Path directory = properties.existingDirectory();
+		watchService = FileSystems.getDefault().newWatchService();
+		register(directory);
+		Thread.ofPlatform().daemon().name("local-config-watcher").start(this::watch);
+		log.info("Watching {} for config changes", directory);
+	}
+
+	@PreDestroy
+	public void stop() throws IOException {
+		watchService.close();
+	}
+
+	private void watch() {
+		try {
+			while (true) {
+				Set<String> applications = new LinkedHashSet<>();
+				collect(watchService.take(), applications);
+				// editors write a file in several steps; wait for the burst to end
+				WatchKey next;
+				while ((next = watchService.poll(properties.getDebounce().toMillis(), TimeUnit.MILLISECONDS)) != null) {
+					collect(next, applications);
+				}
+				notify(applications);
+			}
+		} catch (ClosedWatchServiceException ex) {
+			// stopped
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void collect(WatchKey key, Set<String> applications) {
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				applications.add(ALL_APPLICATIONS);
+				continue;
+			}
+			Path path = directory.resolve((Path) event.context());
+			if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+				try {
+					register(path);
+				} catch (IOException ex) {
+					log.warn("Unable to watch {}", path, ex);
+				}
+			} else if (CONFIG_EXTENSIONS.contains(StringUtils.getFilenameExtension(path.toString()))) {
+				applications.addAll(applicationNames(path));
+			}
+		}
+		key.reset();
+	}
+
+	private void notify(Set<String> applications) {
+		if (applications.contains(ALL_APPLICATIONS)) {
+			applications = Set.of(ALL_APPLICATIONS);
+		}
+		if (applications.isEmpty() || busProperties == null || destinationFactory == null) {
+			return;
+		}
+		for (String application : applications) {
+			String destination = application.equals(ALL_APPLICATIONS) ? "**" : application + ":**";
+			log.info("Config changed, refreshing {}", destination);
+			try {
+				eventPublisher.publishEvent(new RefreshRemoteApplicationEvent(this, busProperties.getId(),
+						destinationFactory.getDestination(destination)));
+			} catch (RuntimeException ex) {
+				log.warn("Unable to send the refresh for {}", destination, ex);
+			}
+		}
+	}
+
+	/**
+	 * @param path - changed file, e.g. accounts-prod.properties
+	 * @return every name the file may belong to, e.g. accounts-prod and accounts, or * for application*.*
+	 */
+	static Set<String> applicationNames(Path path) {
+		Set<String> names = new LinkedHashSet<>();
+		String name = StringUtils.stripFilenameExtension(path.getFileName().toString()) + "-";
+		int index;
+		while ((index = name.lastIndexOf('-')) > 0) {
+			name = name.substring(0, index);
+			names.add(name.equals("application") ? ALL_APPLICATIONS : name);
+		}
+		return names;
+	}
+
+	private void register(Path root) throws IOException {
+		Files.walkFileTree(root, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+					throws IOException {
+				if (directory.getFileName() != null && directory.getFileName().toString().equals(".git")) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+}
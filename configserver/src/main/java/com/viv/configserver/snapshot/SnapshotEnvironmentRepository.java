@@ -0,0 +1,184 @@
+package com.viv.configserver.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.CompositeEnvironmentRepository;
+import org.springframework.cloud.config.server.environment.SearchPathCompositeEnvironmentRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Sits in front of the config server's composite environment repository and answers
+ * from an in-memory snapshot of every application/profile/label asked for, so a
+ * fleet-wide restart reads each combination from git once instead of once per client.
+ * Concurrent first requests for the same combination share one backend read.
+ * {@link SnapshotRepositoryPostProcessor} puts it there.
+ * <p>
+ * Snapshots are re-read every {@code config.snapshot.refresh-interval}, and at once when
+ * a refresh is signalled through /monitor or the bus, ahead of the broadcast that makes
+ * the clients fetch again. Each snapshot carries an ETag computed from its content;
+ * {@link SnapshotEtagAdvice} answers a matching If-None-Match with a 304.
+ */
+public class SnapshotEnvironmentRepository extends SearchPathCompositeEnvironmentRepository {
+
+	private static final Logger log = LoggerFactory.getLogger(SnapshotEnvironmentRepository.class);
+
+	/** request attribute holding the ETag of the snapshot the request was answered from */
+	public static final String ETAG_ATTRIBUTE = SnapshotEnvironmentRepository.class.getName() + ".etag";
+
+	private final Map<Key, CompletableFuture<Snapshot>> snapshots = new ConcurrentHashMap<>();
+	private final ReentrantLock refreshLock = new ReentrantLock();
+	private final ObjectMapper objectMapper;
+	private final SnapshotProperties properties;
+
+	/**
+	 * @param composite the config server's composite, which already observes its backends
+	 * and applies {@code fail-on-composite-error}; its failures are passed on as they are
+	 */
+	public SnapshotEnvironmentRepository(CompositeEnvironmentRepository composite, ObjectMapper objectMapper,
+			SnapshotProperties properties) {
+		// a mutable list, the composite sorts it
+		super(new ArrayList<>(List.of(composite)), ObservationRegistry.NOOP, true);
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+	}
+
+	@Override
+	public Environment findOne(String application, String profile, String label) {
+		return findOne(application, profile, label, false);
+	}
+
+	@Override
+	public Environment findOne(String application, String profile, String label, boolean includeOrigin) {
+		if (!properties.isEnabled()) {
+			return super.findOne(application, profile, label, includeOrigin);
+		}
+		Snapshot snapshot = snapshot(new Key(application, profile, label, includeOrigin));
+		snapshot.lastRequested = System.nanoTime();
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request != null) {
+			request.setAttribute(ETAG_ATTRIBUTE, snapshot.etag, RequestAttributes.SCOPE_REQUEST);
+		}
+		// a copy, so nothing downstream can change the snapshot other requests are served from
+		Environment environment = new Environment(snapshot.environment);
+		environment.addAll(snapshot.environment.getPropertySources());
+		return environment;
+	}
+
+	/**
+	 * Re-reads every snapshot from the backend and drops the idle ones. A snapshot whose
+	 * read fails is kept, so a git outage leaves the clients with the last good config.
+	 */
+	@Scheduled(fixedDelayString = "${config.snapshot.refresh-interval:PT30S}",
+			initialDelayString = "${config.snapshot.refresh-interval:PT30S}")
+	public void refresh() {
+		refreshLock.lock();
+		try {
+			long idleSince = System.nanoTime() - properties.getMaxIdle().toNanos();
+			snapshots.forEach((key, future) -> {
+				// a first read still in flight is fresh anyway
+				Snapshot current = future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+				if (current == null) {
+					return;
+				}
+				if (current.lastRequested - idleSince < 0) {
+					snapshots.remove(key, future);
+					return;
+				}
+				try {
+					Snapshot loaded = load(key);
+					if (!loaded.etag.equals(current.etag)) {
+						loaded.lastRequested = current.lastRequested;
+						snapshots.replace(key, future, CompletableFuture.completedFuture(loaded));
+						log.info("Refreshed config snapshot {}, now {}", key, loaded.etag);
+					}
+				} catch (RuntimeException ex) {
+					log.warn("Unable to refresh config snapshot {}, still serving {}", key, current.etag, ex);
+				}
+			});
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	/**
+	 * Ordered first, so the snapshots are current before the bus tells the clients to fetch.
+	 */
+	@EventListener
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onRefresh(RefreshRemoteApplicationEvent event) {
+		if (properties.isEnabled()) {
+			refresh();
+		}
+	}
+
+	private Snapshot snapshot(Key key) {
+		CompletableFuture<Snapshot> future = snapshots.get(key);
+		if (future == null) {
+			CompletableFuture<Snapshot> loading = new CompletableFuture<>();
+			future = snapshots.putIfAbsent(key, loading);
+			if (future == null) {
+				future = loading;
+				try {
+					loading.complete(load(key));
+				} catch (RuntimeException ex) {
+					// not cached: the next request tries the backend again
+					snapshots.remove(key, loading);
+					loading.completeExceptionally(ex);
+				}
+			}
+		}
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+		}
+	}
+
+	private Snapshot load(Key key) {
+		Environment environment = super.findOne(key.application(), key.profile(), key.label(), key.includeOrigin());
+		try {
+			String etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(environment)) + "\"";
+			return new Snapshot(environment, etag);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Unable to serialize the environment of " + key, ex);
+		}
+	}
+
+	private record Key(String application, String profile, String label, boolean includeOrigin) {
+	}
+
+	private static final class Snapshot {
+
+		private final Environment environment;
+		private final String etag;
+		private volatile long lastRequested = System.nanoTime();
+
+		private Snapshot(Environment environment, String etag) {
+			this.environment = environment;
+			this.etag = etag;
+		}
+
+	}
+
+}
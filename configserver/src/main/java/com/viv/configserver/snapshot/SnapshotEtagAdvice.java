@@ -0,0 +1,43 @@
+package com.viv.configserver.snapshot;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the snapshot's ETag to environment responses and replaces the body with a 304
+ * when the client's If-None-Match already names it.
+ */
+@ControllerAdvice(assignableTypes = EnvironmentController.class)
+public class SnapshotEtagAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return Environment.class.isAssignableFrom(returnType.getParameterType());
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		if (!(request instanceof ServletServerHttpRequest servletRequest)
+				|| !(response instanceof ServletServerHttpResponse servletResponse)
+				|| !(servletRequest.getServletRequest().getAttribute(
+						SnapshotEnvironmentRepository.ETAG_ATTRIBUTE) instanceof String etag)) {
+			return body;
+		}
+		ServletWebRequest webRequest = new ServletWebRequest(servletRequest.getServletRequest(),
+				servletResponse.getServletResponse());
+		return webRequest.checkNotModified(etag) ? null : body;
+	}
+
+}
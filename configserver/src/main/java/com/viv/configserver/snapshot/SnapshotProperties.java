@@ -0,0 +1,20 @@
+package com.viv.configserver.snapshot;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "config.snapshot")
+public class SnapshotProperties {
+	/** serves environments from the in-memory snapshots; off reads the backend on every request */
+	boolean enabled = true;
+	/** how often every snapshot is re-read from the backend */
+	Duration refreshInterval = Duration.ofSeconds(30);
+	/** snapshots nobody asked for within this long are dropped instead of refreshed */
+	Duration maxIdle = Duration.ofHours(1);
+}
@@ -0,0 +1,46 @@
+package com.viv.configserver.snapshot;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.config.server.environment.CompositeEnvironmentRepository;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Wraps the config server's composite environment repository in a
+ * {@link SnapshotEnvironmentRepository}. The config server only creates its git, native
+ * and other backends while no environment repository bean exists, so the snapshot is
+ * put in front of the composite it builds from them rather than declared as a bean.
+ * <p>
+ * Ordered first, so the scheduling post-processor that runs after it finds the
+ * snapshot's refresh.
+ */
+@Component
+public class SnapshotRepositoryPostProcessor implements BeanPostProcessor, Ordered {
+
+	private final ObjectProvider<ObjectMapper> objectMapper;
+	private final ObjectProvider<SnapshotProperties> properties;
+
+	public SnapshotRepositoryPostProcessor(ObjectProvider<ObjectMapper> objectMapper,
+			ObjectProvider<SnapshotProperties> properties) {
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof CompositeEnvironmentRepository composite
+				&& !(bean instanceof SnapshotEnvironmentRepository)) {
+			return new SnapshotEnvironmentRepository(composite, objectMapper.getObject(), properties.getObject());
+		}
+		return bean;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+}
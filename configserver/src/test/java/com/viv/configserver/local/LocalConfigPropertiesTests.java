@@ -0,0 +1,34 @@
+package com.viv.configserver.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalConfigPropertiesTests {
+
+	@TempDir
+	Path configs;
+
+	@Test
+	void existingDirectoryIsResolvedToAnAbsolutePath() {
+		LocalConfigProperties properties = new LocalConfigProperties();
+		properties.setDirectory(configs.resolve("../" + configs.getFileName()));
+
+		assertThat(properties.existingDirectory()).isEqualTo(configs.toAbsolutePath().normalize());
+	}
+
+	@Test
+	void missingDirectoryNamesTheSettingToFix() {
+		LocalConfigProperties properties = new LocalConfigProperties();
+		properties.setDirectory(configs.resolve("missing"));
+
+		assertThatIllegalStateException().isThrownBy(properties::existingDirectory)
+				.withMessageContaining(configs.resolve("missing").toString())
+				.withMessageContaining("CONFIG_LOCAL_DIR");
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.viv.configserver.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(properties = { "spring.profiles.active=local", "encrypt.key=local-tests" })
+class LocalConfigWatcherTests {
+
+	@TempDir
+	static Path configs;
+
+	@Autowired
+	RefreshEvents refreshEvents;
+
+	@DynamicPropertySource
+	static void directory(DynamicPropertyRegistry registry) {
+		registry.add("config.local.directory", configs::toString);
+	}
+
+	@Test
+	void changedFileRefreshesOnlyItsApplication() throws Exception {
+		Files.writeString(configs.resolve("loans-qa.properties"), "build.version=2\n");
+
+		// the two refreshes are sent one after the other
+		await().atMost(Duration.ofSeconds(20)).untilAsserted(
+				() -> assertThat(refreshEvents.destinations).containsExactly("loans-qa:**", "loans:**"));
+	}
+
+	@Test
+	void applicationNamesAreGuessedLikeTheMonitorDoes() {
+		assertThat(LocalConfigWatcher.applicationNames(Path.of("accounts-prod.properties")))
+				.containsExactly("accounts-prod", "accounts");
+		assertThat(LocalConfigWatcher.applicationNames(Path.of("cards.yml"))).containsExactly("cards");
+		assertThat(LocalConfigWatcher.applicationNames(Path.of("application-qa.properties")))
+				.containsExactly("application-qa", "*");
+	}
+
+	@TestConfiguration
+	static class RefreshEventsConfiguration {
+
+		@Bean
+		RefreshEvents refreshEvents() {
+			return new RefreshEvents();
+		}
+
+	}
+
+	static class RefreshEvents {
+
+		final List<String> destinations = new CopyOnWriteArrayList<>();
+
+		// ahead of the bus, which fails to send without a broker
+		@EventListener
+		@Order(Ordered.HIGHEST_PRECEDENCE)
+		void onRefresh(RefreshRemoteApplicationEvent event) {
+			destinations.add(event.getDestinationService());
+		}
+
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.viv.configserver.snapshot;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Without a backend profile the config server falls back to its default git backend,
+ * which it only creates while no environment repository bean exists yet.
+ */
+@SpringBootTest(properties = { "spring.profiles.active=", "encrypt.key=snapshot-tests",
+		"config.snapshot.refresh-interval=PT1H" })
+@AutoConfigureMockMvc
+class DefaultBackendTests {
+
+	@TempDir
+	static Path configs;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@BeforeAll
+	static void commitConfig() throws Exception {
+		try (Git git = Git.init().setDirectory(configs.toFile()).setInitialBranch("main").call()) {
+			Files.writeString(configs.resolve("loans.properties"), "build.version=1\n");
+			git.add().addFilepattern(".").call();
+			git.commit().setMessage("loans config").setAuthor("tests", "tests@example.com")
+					.setCommitter("tests", "tests@example.com").call();
+		}
+	}
+
+	@DynamicPropertySource
+	static void gitUri(DynamicPropertyRegistry registry) {
+		registry.add("spring.cloud.config.server.git.uri", () -> configs.toUri().toString());
+	}
+
+	@Test
+	void snapshotIsServedFromTheDefaultGitBackend() throws Exception {
+		mockMvc.perform(get("/loans/default"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(jsonPath("$.propertySources[0].source['build.version']").value("1"));
+	}
+
+}
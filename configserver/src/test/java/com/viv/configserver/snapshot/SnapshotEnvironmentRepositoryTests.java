@@ -0,0 +1,92 @@
+package com.viv.configserver.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.bus.event.RefreshRemoteApplicationEvent;
+import org.springframework.cloud.config.server.environment.EnvironmentRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = { "spring.profiles.active=native", "encrypt.key=snapshot-tests",
+		"config.snapshot.refresh-interval=PT1H" })
+@AutoConfigureMockMvc
+class SnapshotEnvironmentRepositoryTests {
+
+	@TempDir
+	static Path configs;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	SnapshotEnvironmentRepository repository;
+
+	@Autowired
+	EnvironmentRepository environmentRepository;
+
+	@Autowired
+	ScheduledTaskHolder scheduledTasks;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	@DynamicPropertySource
+	static void searchLocations(DynamicPropertyRegistry registry) {
+		registry.add("spring.cloud.config.server.native.search-locations", () -> configs.toUri().toString());
+	}
+
+	@Test
+	void unchangedConfigIsServedFromTheSnapshotAndRevalidatedWithA304() throws Exception {
+		Files.writeString(configs.resolve("loans.properties"), "build.version=1\n");
+		String etag = mockMvc.perform(get("/loans/default"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.propertySources[0].source['build.version']").value("1"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		Files.writeString(configs.resolve("loans.properties"), "build.version=2\n");
+		mockMvc.perform(get("/loans/default").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		repository.refresh();
+		mockMvc.perform(get("/loans/default").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(jsonPath("$.propertySources[0].source['build.version']").value("2"));
+	}
+
+	@Test
+	void snapshotWrapsTheCompositeAndIsRefreshedOnSchedule() {
+		assertThat(environmentRepository).isSameAs(repository);
+		assertThat(scheduledTasks.getScheduledTasks())
+				.anyMatch(task -> task.toString().endsWith(SnapshotEnvironmentRepository.class.getName() + ".refresh"));
+	}
+
+	@Test
+	void busRefreshRereadsTheSnapshots() throws Exception {
+		Files.writeString(configs.resolve("cards.properties"), "build.version=1\n");
+		mockMvc.perform(get("/cards/default"))
+				.andExpect(jsonPath("$.propertySources[0].source['build.version']").value("1"));
+
+		Files.writeString(configs.resolve("cards.properties"), "build.version=2\n");
+		eventPublisher.publishEvent(new RefreshRemoteApplicationEvent(this, "snapshot-tests", () -> "cards:**"));
+		mockMvc.perform(get("/cards/default"))
+				.andExpect(jsonPath("$.propertySources[0].source['build.version']").value("2"));
+	}
+
+}
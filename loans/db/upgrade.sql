@@ -0,0 +1,41 @@
+-- Run against a loans database that existed before this version of the service, with every
+-- instance stopped. schema.sql only creates what is missing and leaves existing tables and
+-- sequences as they are. Running the script again is harmless. See "Upgrading an existing
+-- database" in the README.
+
+-- Lookups by mobile_number and loan_number need the unique constraints below. They cannot be
+-- added while a value occurs twice, so first list the duplicates. If these queries return rows,
+-- stop and resolve them (keep one row per value); otherwise adding the constraint fails with a
+-- unique index violation and nothing after it runs.
+SELECT 'loans.mobile_number' AS `duplicate`, `mobile_number` AS `value`, COUNT(*) AS `rows` FROM `loans`
+  GROUP BY `mobile_number` HAVING COUNT(*) > 1;
+SELECT 'loans.loan_number' AS `duplicate`, `loan_number` AS `value`, COUNT(*) AS `rows` FROM `loans`
+  GROUP BY `loan_number` HAVING COUNT(*) > 1;
+
+-- rebuilt from scratch, so whatever an earlier build left under these names (a plain unique
+-- index, Hibernate's constraint or both) ends up as one constraint with one index
+ALTER TABLE `loans` DROP CONSTRAINT IF EXISTS `ux_loans_mobile_number`;
+DROP INDEX IF EXISTS `ux_loans_mobile_number`;
+ALTER TABLE `loans` ADD CONSTRAINT `ux_loans_mobile_number` UNIQUE (`mobile_number`);
+ALTER TABLE `loans` DROP CONSTRAINT IF EXISTS `ux_loans_loan_number`;
+DROP INDEX IF EXISTS `ux_loans_loan_number`;
+ALTER TABLE `loans` ADD CONSTRAINT `ux_loans_loan_number` UNIQUE (`loan_number`);
+
+-- version used to be nullable, and rows an earlier build left without one could not be updated
+-- under optimistic locking
+ALTER TABLE `loans` ADD COLUMN IF NOT EXISTS `version` bigint NOT NULL DEFAULT 0;
+UPDATE `loans` SET `version` = 0 WHERE `version` IS NULL;
+ALTER TABLE `loans` ALTER COLUMN `version` SET DEFAULT 0;
+ALTER TABLE `loans` ALTER COLUMN `version` SET NOT NULL;
+
+-- created_at used to be a date. The cascade compares it with the time of customer.deleted
+-- events, and a row created again on the day of a deletion would otherwise be deleted with the
+-- old one. Existing rows keep midnight of their day.
+ALTER TABLE `loans` ALTER COLUMN `created_at` SET DATA TYPE timestamp;
+
+-- loan_id used to come from an AUTO_INCREMENT column. Hibernate hands out a block of 50 ids
+-- below each sequence value it reads, so the sequence restarts 50 above the highest id,
+-- and never below the start of a fresh sequence.
+CREATE SEQUENCE IF NOT EXISTS `loans_seq` START WITH 1000000000 INCREMENT BY 50;
+ALTER SEQUENCE `loans_seq` RESTART WITH
+  (SELECT GREATEST(COALESCE(MAX(`loan_id`), 0) + 50, 1000000000) FROM `loans`);
@@ -8,13 +8,23 @@ import io.swagger.v3.oas.annotations.info.License;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import com.viv.common.cache.MobileNumberFilter;
+import com.viv.common.sql.SqlLogProperties;
+import com.viv.common.sql.StatementBudgetProperties;
+import com.viv.loans.aot.LoansRuntimeHints;
 import com.viv.loans.dto.LoansContactInfoDto;
 
-@SpringBootApplication
-@EnableConfigurationProperties(value = LoansContactInfoDto.class)
-@EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+@SpringBootApplication(scanBasePackages = { "com.viv.loans", "com.viv.common" })
+@EnableConfigurationProperties(value = { LoansContactInfoDto.class, StatementBudgetProperties.class, SqlLogProperties.class })
+@EnableScheduling
+@RemoteApplicationEventScan(basePackages = { "com.viv.loans.event", "com.viv.common.event" })
+@Import(MobileNumberFilter.class)
+@ImportRuntimeHints(LoansRuntimeHints.class)
 @OpenAPIDefinition(info = @Info(title = "Loans microservice REST API Documentation", description = "Loans microservice REST API Documentation", version = "v1", contact = @Contact(name = "John Doe", email = "john@example.com"), license = @License(name = "Apache 2.0")), externalDocs = @ExternalDocumentation(description = "EazyBank Loans microservice REST API Documentation"))
 public class LoansApplication {
 
@@ -0,0 +1,18 @@
+package com.viv.loans.aot;
+
+import org.springframework.stereotype.Component;
+
+import com.viv.common.aot.AbstractBusEventTypes;
+import com.viv.loans.event.LoansCacheEvictEvent;
+
+/**
+ * Names the loans bus events for Jackson, next to those of common and the bus.
+ */
+@Component
+public class BusEventTypes extends AbstractBusEventTypes {
+
+    public BusEventTypes() {
+        super("loans-bus-event-types", LoansCacheEvictEvent.class);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.viv.loans.aot;
+
+import java.util.List;
+
+import com.viv.common.aot.AbstractRuntimeHints;
+import com.viv.loans.dto.BatchItemResponseDto;
+import com.viv.loans.dto.ErrorResponseDto;
+import com.viv.loans.dto.KeysetPageDto;
+import com.viv.loans.dto.LoansContactInfoDto;
+import com.viv.loans.dto.LoansDto;
+import com.viv.loans.dto.ResponseDto;
+
+/**
+ * The native image hints of loans: its outbox payload, bus events and documented DTOs.
+ */
+public class LoansRuntimeHints extends AbstractRuntimeHints {
+
+    public LoansRuntimeHints() {
+        super(new BusEventTypes(), LoansDto.class, List.of(LoansDto.class, ResponseDto.class, ErrorResponseDto.class,
+                BatchItemResponseDto.class, KeysetPageDto.class, LoansContactInfoDto.class));
+    }
+
+}
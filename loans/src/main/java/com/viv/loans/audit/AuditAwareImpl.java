@@ -1,22 +0,0 @@
-package com.viv.loans.audit;
-
-import org.springframework.data.domain.AuditorAware;
-import org.springframework.stereotype.Component;
-
-import java.util.Optional;
-
-@Component("auditAwareImpl")
-public class AuditAwareImpl implements AuditorAware<String> {
-
-    /**
-     * Returns the current auditor of the application.
-     *
-     * @return the current auditor.
-     */
-    @SuppressWarnings("null")
-    @Override
-    public Optional<String> getCurrentAuditor() {
-        return Optional.of("LOANS_MS");
-    }
-
-}
\ No newline at end of file
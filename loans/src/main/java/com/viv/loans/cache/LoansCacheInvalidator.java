@@ -0,0 +1,103 @@
+package com.viv.loans.cache;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.viv.loans.entity.Loans;
+import com.viv.loans.event.LoansCacheEvictEvent;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the loans region of the {@link SecondLevelCache} coherent across all loans
+ * instances, one loan at a time. Hibernate already updates this instance's regions for
+ * writes through the entity, while the repayment's JDBC UPDATE bypasses it and is evicted
+ * here; the other replicas learn about every change from a bus broadcast sent after the
+ * commit. With the bus disabled (spring.cloud.bus.enabled=false) they fall back to
+ * entity-cache.expire-after-write. Loan numbers never change, so the loans-by-loan-number
+ * region needs no eviction.
+ */
+@Component
+public class LoansCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoansCacheInvalidator.class);
+
+    private final Cache cache;
+    private final boolean enabled;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusProperties busProperties;
+    private final Destination destination;
+
+    public LoansCacheInvalidator(EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+            ObjectProvider<BusProperties> busProperties, ObjectProvider<Destination.Factory> destinationFactory,
+            @Value("${spring.application.name}") String applicationName) {
+        this.cache = entityManagerFactory.getCache();
+        this.enabled = entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions()
+                .isSecondLevelCacheEnabled();
+        this.eventPublisher = eventPublisher;
+        this.busProperties = busProperties.getIfAvailable();
+        Destination.Factory factory = destinationFactory.getIfAvailable();
+        this.destination = factory != null ? factory.getDestination(applicationName + ":**") : null;
+    }
+
+    /**
+     * @param loanIds - Loans changed or deleted by the current transaction
+     */
+    public void evict(Collection<Long> loanIds) {
+        if (!enabled || loanIds.isEmpty()) {
+            return;
+        }
+        afterCommit(List.copyOf(loanIds));
+    }
+
+    private void afterCommit(List<Long> loanIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // evicting before commit would let a concurrent read re-cache the old loan
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(loanIds);
+                }
+            });
+        } else {
+            evictEverywhere(loanIds);
+        }
+    }
+
+    private void evictEverywhere(List<Long> loanIds) {
+        evictLocally(loanIds);
+        if (busProperties == null || destination == null) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(new LoansCacheEvictEvent(this, busProperties.getId(), destination, loanIds));
+        } catch (RuntimeException ex) {
+            // This instance is already clean; remote replicas fall back to the expiry.
+            log.warn("Unable to broadcast loans cache eviction for {}", loanIds, ex);
+        }
+    }
+
+    @EventListener
+    public void onLoansCacheEvict(LoansCacheEvictEvent event) {
+        evictLocally(event.getLoanIds());
+    }
+
+    private void evictLocally(List<Long> loanIds) {
+        loanIds.forEach(loanId -> cache.evict(Loans.class, loanId));
+    }
+
+}
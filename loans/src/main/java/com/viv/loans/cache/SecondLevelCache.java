@@ -0,0 +1,25 @@
+package com.viv.loans.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.viv.common.cache.AbstractSecondLevelCache;
+import com.viv.loans.constants.LoansConstants;
+
+/**
+ * Hibernate's second-level cache for the loans and their loan numbers; the
+ * {@link LoansCacheInvalidator} keeps it coherent across instances.
+ */
+@Component
+public class SecondLevelCache extends AbstractSecondLevelCache {
+
+    public SecondLevelCache(@Value("${entity-cache.maximum-size:10000}") long maximumSize,
+            @Value("${entity-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        super(List.of(LoansConstants.LOANS_CACHE_REGION, LoansConstants.LOAN_NUMBERS_CACHE_REGION),
+                maximumSize, expireAfterWrite);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.viv.loans.cascade;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.common.cascade.AbstractCustomerDeletedListener;
+import com.viv.common.cascade.ProcessedEvents;
+import com.viv.loans.service.ILoansService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Deletes the loans of customers deleted in the accounts service, keeping those created
+ * after the customer was deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "cascade.delete.enabled", havingValue = "true")
+public class CustomerDeletedListener extends AbstractCustomerDeletedListener {
+
+    public CustomerDeletedListener(ILoansService loansService, ProcessedEvents processedEvents,
+            PlatformTransactionManager transactionManager, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${cascade.delete.retention:P7D}") Duration retention) {
+        super(loansService::deleteLoansOfCustomers, "Loans deleted because their customer was deleted",
+                processedEvents, transactionManager, objectMapper, meterRegistry, retention);
+    }
+
+}
@@ -15,6 +15,25 @@ public final class LoansConstants {
     public static final String STATUS_417 = "417";
     public static final String MESSAGE_417_UPDATE = "Update operation failed. Please try again or contact Dev team";
     public static final String MESSAGE_417_DELETE = "Delete operation failed. Please try again or contact Dev team";
+    public static final String STATUS_400 = "400";
+    public static final String MESSAGE_400_DUPLICATE = "Loan already registered with given mobileNumber";
+    public static final String STATUS_404 = "404";
+    public static final String MESSAGE_404 = "No loan found for the given mobileNumber";
+    public static final String STATUS_409 = "409";
+    public static final String MESSAGE_409 = "Loan was modified concurrently. Fetch it again and retry";
+    public static final int BATCH_MAX_SIZE = 500;
+    public static final String LIST_DEFAULT_SIZE = "100";
+    public static final int LIST_MAX_SIZE = 1000;
+    public static final String LOAN_NUMBER_SEQUENCE = "loan_number_seq";
+    public static final int NUMBER_BLOCK_SIZE = 1000;
+    // first loan_id of the loans_seq sequence, above the ids the former AUTO_INCREMENT column handed out
+    public static final int ID_SEQUENCE_START = 1_000_000_000;
+    public static final String LOANS_CACHE_REGION = "loans";
+    public static final String LOAN_NUMBERS_CACHE_REGION = "loans-by-loan-number";
+    public static final String AGGREGATE_LOAN = "loan";
+    public static final String EVENT_CREATED = "created";
+    public static final String EVENT_UPDATED = "updated";
+    public static final String EVENT_DELETED = "deleted";
     // public static final String STATUS_500 = "500";
     // public static final String MESSAGE_500 = "An error occurred. Please try again
     // or contact Dev team";
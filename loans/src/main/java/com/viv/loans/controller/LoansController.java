@@ -15,14 +15,29 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 import com.viv.loans.constants.LoansConstants;
+import com.viv.loans.dto.BatchItemResponseDto;
+import com.viv.loans.dto.KeysetPageDto;
 import com.viv.loans.dto.ErrorResponseDto;
 import com.viv.loans.dto.LoansContactInfoDto;
 import com.viv.loans.dto.LoansDto;
 import com.viv.loans.dto.ResponseDto;
+import com.viv.loans.exception.GlobalExceptionHandler;
+import com.viv.loans.exception.ResourceNotFoundException;
 import com.viv.loans.service.ILoansService;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -30,7 +45,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 
 @Tag(name = "Loan", description = "CRUD REST APIs for Loans microservices")
@@ -51,6 +72,8 @@ public class LoansController {
 
         private final ILoansService iLoansService;
 
+        private final ObjectMapper objectMapper;
+
         @Operation(summary = "Create Loan REST API", description = "REST API to create new loan")
         @ApiResponses({
                         @ApiResponse(responseCode = "201", description = "HTTP Status CREATED"),
@@ -67,19 +90,25 @@ public class LoansController {
 
         @Operation(summary = "Fetch Loan Details REST API", description = "REST API to fetch loan details based on a mobile number")
         @ApiResponses({
-                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK", content = @Content(schema = @Schema(implementation = LoansDto.class))),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
                         @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
         })
         @GetMapping("/fetch")
-        public ResponseEntity<LoansDto> fetchLoanDetails(
-                        @RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String mobileNumber) {
-                LoansDto loansDto = iLoansService.fetchLoan(mobileNumber);
-                return ResponseEntity.status(HttpStatus.OK).body(loansDto);
+        public ResponseEntity<?> fetchLoanDetails(
+                        @RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String mobileNumber,
+                        WebRequest webRequest) {
+                // unknown numbers are answered without throwing, they are mostly probes
+                return iLoansService.findLoan(mobileNumber)
+                                .<ResponseEntity<?>>map(loansDto -> ResponseEntity.status(HttpStatus.OK).body(loansDto))
+                                .orElseGet(() -> GlobalExceptionHandler.notFound(webRequest,
+                                                ResourceNotFoundException.message("Loan", "mobileNumber", mobileNumber)));
         }
 
         @Operation(summary = "Update Loan Details REST API", description = "REST API to update loan details based on a loan number")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "409", description = "HTTP Status Conflict, the version is stale", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
                         @ApiResponse(responseCode = "417", description = "Expectation Failed"),
                         @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
         })
@@ -98,6 +127,23 @@ public class LoansController {
                 }
         }
 
+        @Operation(summary = "Repay Loan REST API", description = "REST API to repay part of a loan; the amount moves from outstandingAmount to amountPaid in a single conditional update, so concurrent repayments never lose updates")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "400", description = "HTTP Status Bad Request, the amount exceeds the balance", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "404", description = "HTTP Status Not Found", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/repay")
+        public ResponseEntity<ResponseDto> repayLoan(
+                        @RequestParam @Pattern(regexp = "[0-9]{12}", message = "LoanNumber must be 12 digits") String loanNumber,
+                        @RequestParam @Positive(message = "Amount should be greater than zero") int amount) {
+                iLoansService.repayLoan(loanNumber, amount);
+                return ResponseEntity
+                                .status(HttpStatus.OK)
+                                .body(new ResponseDto(LoansConstants.STATUS_200, LoansConstants.MESSAGE_200));
+        }
+
         @Operation(summary = "Delete Loan Details REST API", description = "REST API to delete Loan details based on a mobile number")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
@@ -120,6 +166,86 @@ public class LoansController {
                 }
         }
 
+        @Operation(summary = "Batch Create Loan REST API", description = "REST API to create new loans for up to "
+                        + LoansConstants.BATCH_MAX_SIZE + " mobile numbers in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/create")
+        public ResponseEntity<List<BatchItemResponseDto<LoansDto>>> createLoans(
+                        @RequestBody @NotEmpty @Size(max = LoansConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + LoansConstants.BATCH_MAX_SIZE
+                                        + " mobile numbers per batch") List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+                return ResponseEntity.status(HttpStatus.OK).body(iLoansService.createLoans(mobileNumbers));
+        }
+
+        @Operation(summary = "Batch Fetch Loan Details REST API", description = "REST API to fetch loan details of up to "
+                        + LoansConstants.BATCH_MAX_SIZE + " mobile numbers in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/fetch")
+        public ResponseEntity<List<BatchItemResponseDto<LoansDto>>> fetchLoansDetails(
+                        @RequestBody @NotEmpty @Size(max = LoansConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + LoansConstants.BATCH_MAX_SIZE
+                                        + " mobile numbers per batch") List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+                return ResponseEntity.status(HttpStatus.OK).body(iLoansService.fetchLoans(mobileNumbers));
+        }
+
+        @Operation(summary = "Batch Delete Loan Details REST API", description = "REST API to delete Loan details of up to "
+                        + LoansConstants.BATCH_MAX_SIZE + " mobile numbers in one call")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK, with a status per item"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @PostMapping("/batch/delete")
+        public ResponseEntity<List<BatchItemResponseDto<LoansDto>>> deleteLoansDetails(
+                        @RequestBody @NotEmpty @Size(max = LoansConstants.BATCH_MAX_SIZE, message = "At most "
+                                        + LoansConstants.BATCH_MAX_SIZE
+                                        + " mobile numbers per batch") List<@Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+                return ResponseEntity.status(HttpStatus.OK).body(iLoansService.deleteLoans(mobileNumbers));
+        }
+
+        @Operation(summary = "List Loan Details REST API", description = "REST API to page through all loans in creation order, at most "
+                        + LoansConstants.LIST_MAX_SIZE + " per page; pass nextCursor back as 'after' for the next page")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @GetMapping("/list")
+        public ResponseEntity<KeysetPageDto<LoansDto>> listLoansDetails(
+                        @RequestParam(required = false) @PositiveOrZero Long after,
+                        @RequestParam(defaultValue = LoansConstants.LIST_DEFAULT_SIZE) @Min(1) @Max(LoansConstants.LIST_MAX_SIZE) int size) {
+                return ResponseEntity.status(HttpStatus.OK).body(iLoansService.listLoans(after, size));
+        }
+
+        @Operation(summary = "Export Loan Details REST API", description = "REST API to stream all loans as newline delimited JSON, one loan per line")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "HTTP Status OK"),
+                        @ApiResponse(responseCode = "500", description = "HTTP Status Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
+        })
+        @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public ResponseEntity<StreamingResponseBody> exportLoansDetails() {
+                ObjectWriter writer = objectMapper.writerFor(LoansDto.class)
+                                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                StreamingResponseBody body = outputStream -> {
+                        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                                generator.setRootValueSeparator(null);
+                                iLoansService.exportLoans(loansDto -> {
+                                        try {
+                                                writer.writeValue(generator, loansDto);
+                                                generator.writeRaw('\n');
+                                        } catch (IOException ex) {
+                                                throw new UncheckedIOException(ex);
+                                        }
+                                });
+                        }
+                };
+                return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }
+
         @GetMapping("/build-info")
         public ResponseEntity<String> getBuildInfo() {
                 return ResponseEntity.ok(buildVersion);
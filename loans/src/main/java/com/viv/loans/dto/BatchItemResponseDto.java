@@ -0,0 +1,29 @@
+package com.viv.loans.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "BatchItemResponse", description = "Schema to hold the outcome of one item of a batch request")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponseDto<T> {
+
+        @Schema(description = "Mobile Number the item refers to", example = "9345432123")
+        private String mobileNumber;
+
+        @Schema(description = "Status code of the item")
+        private String statusCode;
+
+        @Schema(description = "Status message of the item")
+        private String statusMsg;
+
+        @Schema(description = "Details of the item, present on successful fetch")
+        private T data;
+
+}
@@ -0,0 +1,25 @@
+package com.viv.loans.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "KeysetPage", description = "Schema to hold one page of a keyset paginated listing")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KeysetPageDto<T> {
+
+        @Schema(description = "Items of the page, oldest first")
+        private List<T> items;
+
+        @Schema(description = "Cursor to pass as 'after' for the next page, absent on the last page")
+        private Long nextCursor;
+
+}
@@ -2,17 +2,33 @@ package com.viv.loans.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import com.viv.loans.constants.LoansConstants;
 
 @Entity
+@Table(indexes = {
+		@Index(name = "ux_loans_mobile_number", columnList = "mobile_number", unique = true),
+		@Index(name = "ux_loans_loan_number", columnList = "loan_number", unique = true) })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = LoansConstants.LOANS_CACHE_REGION)
+@NaturalIdCache(region = LoansConstants.LOAN_NUMBERS_CACHE_REGION)
 @Getter @Setter @ToString @AllArgsConstructor @NoArgsConstructor
 public class Loans extends BaseEntity {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loans_seq")
+	@SequenceGenerator(name = "loans_seq", sequenceName = "loans_seq", allocationSize = 50,
+			initialValue = LoansConstants.ID_SEQUENCE_START)
 	private Long loanId;
 
 	private String mobileNumber;
 
+	@NaturalId
 	private String loanNumber;
 
 	private String loanType;
@@ -22,5 +38,10 @@ public class Loans extends BaseEntity {
 	private int amountPaid;
 
 	private int outstandingAmount;
+
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
 	
 }
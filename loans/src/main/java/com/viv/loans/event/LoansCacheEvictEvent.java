@@ -0,0 +1,32 @@
+package com.viv.loans.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.cloud.bus.event.Destination;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * Bus event telling every loans instance to drop the given loans from its
+ * second-level cache.
+ */
+@Getter
+public class LoansCacheEvictEvent extends RemoteApplicationEvent {
+
+    private List<Long> loanIds;
+
+    @SuppressWarnings("unused")
+    private LoansCacheEvictEvent() {
+        // for serializers
+    }
+
+    public LoansCacheEvictEvent(Object source, String originService, Destination destination,
+            Collection<Long> loanIds) {
+        super(source, originService, destination);
+        this.loanIds = new ArrayList<>(loanIds);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.viv.loans.generator;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Component;
+
+import com.viv.common.generator.SequenceBlockAllocator;
+import com.viv.loans.constants.LoansConstants;
+
+/**
+ * Allocates unique 12 digit loan numbers: the values of loan_number_seq, reserved in
+ * blocks of {@link LoansConstants#NUMBER_BLOCK_SIZE}.
+ */
+@Component
+public class LoanNumberGenerator {
+
+    private final SequenceBlockAllocator allocator;
+
+    public LoanNumberGenerator(DataSource dataSource) {
+        this.allocator = new SequenceBlockAllocator(dataSource, LoansConstants.LOAN_NUMBER_SEQUENCE,
+                LoansConstants.NUMBER_BLOCK_SIZE);
+    }
+
+    /**
+     * @return a new, never issued loan number
+     */
+    public String nextLoanNumber() {
+        return Long.toString(allocator.next());
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.viv.loans.repository;
+
+import java.util.Optional;
+
+import com.viv.loans.entity.Loans;
+
+/**
+ * Natural-key lookup of a loan, served from the second-level cache when the loan has
+ * been read or written recently.
+ */
+public interface LoanNumberLookup {
+
+    /**
+     * @param loanNumber - Loan Number
+     * @return the loan, read from the table only when the loans-by-loan-number or the loans
+     *         cache region misses
+     */
+    Optional<Loans> findByLoanNumber(String loanNumber);
+
+}
@@ -0,0 +1,31 @@
+package com.viv.loans.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import com.viv.loans.entity.Loans;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+public class LoanNumberLookupImpl implements LoanNumberLookup {
+
+    private final EntityManager entityManager;
+
+    public LoanNumberLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param loanNumber - Loan Number
+     * @return the loan, resolved through the natural-id cache
+     */
+    @Override
+    // the shared EntityManager only keeps its session open inside a transaction
+    @Transactional
+    public Optional<Loans> findByLoanNumber(String loanNumber) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Loans.class).loadOptional(loanNumber);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.viv.loans.repository;
+
+import java.util.Optional;
+
+/**
+ * Repayment of a loan as a single conditional UPDATE.
+ */
+public interface LoanRepayment {
+
+    /**
+     * Moves amount from outstandingAmount to amountPaid in a single conditional UPDATE, so concurrent
+     * calls on the same loan neither lose writes nor need a lock or a retry. The statement is issued
+     * through JDBC, since Hibernate empties the whole loans cache region on a JPQL bulk update; the
+     * caller evicts the loan instead.
+     *
+     * @param loanId - Loan to repay
+     * @param amount - amount to be repaid
+     * @param updatedBy - caller recorded as the loan's updatedBy
+     * @return the loan's amounts and version after the repayment, read while the row is still locked; empty when
+     *         the loan is unknown or outstandingAmount is below amount
+     */
+    Optional<Balance> repay(long loanId, int amount, String updatedBy);
+
+    record Balance(int amountPaid, int outstandingAmount, long version) {
+    }
+
+}
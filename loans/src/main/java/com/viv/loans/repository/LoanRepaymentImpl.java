@@ -0,0 +1,38 @@
+package com.viv.loans.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class LoanRepaymentImpl implements LoanRepayment {
+
+    private static final String REPAY_SQL = """
+            update loans set amount_paid = amount_paid + ?, outstanding_amount = outstanding_amount - ?,
+                version = version + 1, updated_at = ?, updated_by = ?
+            where loan_id = ? and outstanding_amount >= ?""";
+    private static final String BALANCE_SQL = "select amount_paid, outstanding_amount, version from loans where loan_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LoanRepaymentImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param loanId - Loan to repay
+     * @param amount - amount to be repaid
+     * @param updatedBy - caller recorded as the loan's updatedBy
+     * @return the loan's amounts and version after the repayment, empty when it was not applied
+     */
+    @Override
+    public Optional<Balance> repay(long loanId, int amount, String updatedBy) {
+        // joins the caller's transaction, which keeps the row locked until the commit
+        if (jdbcTemplate.update(REPAY_SQL, amount, amount, LocalDateTime.now(), updatedBy, loanId, amount) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(jdbcTemplate.queryForObject(BALANCE_SQL,
+                (rs, rowNum) -> new Balance(rs.getInt(1), rs.getInt(2), rs.getLong(3)), loanId));
+    }
+
+}
@@ -1,17 +1,43 @@
 package com.viv.loans.repository;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.viv.common.cache.MobileNumberSource;
 import com.viv.loans.entity.Loans;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface LoansRepository extends JpaRepository<Loans, Long> {
+public interface LoansRepository extends JpaRepository<Loans, Long>, MobileNumberSource, LoanNumberLookup, LoanRepayment {
 
     Optional<Loans> findByMobileNumber(String mobileNumber);
 
-    Optional<Loans> findByLoanNumber(String loanNumber);
+    List<Loans> findAllByMobileNumberIn(Collection<String> mobileNumbers);
+
+    /**
+     * @return the mobile number of every loan, read in chunks; needs an open transaction
+     */
+    @Query("select l.mobileNumber from Loans l")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllMobileNumbers();
+
+    List<Loans> findByLoanIdGreaterThanOrderByLoanIdAsc(Long loanId, Limit limit);
+
+    /**
+     * @return every loan in loanId order, read in chunks; needs an open transaction
+     */
+    @Query("select l from Loans l order by l.loanId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Loans> streamAllOrderByLoanId();
 
 }
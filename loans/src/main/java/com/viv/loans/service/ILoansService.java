@@ -1,5 +1,13 @@
 package com.viv.loans.service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.viv.loans.dto.BatchItemResponseDto;
+import com.viv.loans.dto.KeysetPageDto;
 import com.viv.loans.dto.LoansDto;
 
 public interface ILoansService {
@@ -17,6 +25,13 @@ public interface ILoansService {
      */
     LoansDto fetchLoan(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Loan Details based on a given mobileNumber, empty when there are none
+     */
+    Optional<LoansDto> findLoan(String mobileNumber);
+
     /**
      *
      * @param loansDto - LoansDto Object
@@ -31,4 +46,58 @@ public interface ILoansService {
      */
     boolean deleteLoan(String mobileNumber);
 
+    /**
+     * Moves amount from outstandingAmount to amountPaid in one conditional UPDATE, so
+     * concurrent repayments of the same loan never lose updates and need no retry.
+     *
+     * @param loanNumber - Loan Number
+     * @param amount - amount to be repaid
+     */
+    void repayLoan(String loanNumber, int amount);
+
+    /**
+     *
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return creation outcome of every mobileNumber, in request order
+     */
+    List<BatchItemResponseDto<LoansDto>> createLoans(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Loan Details or not found outcome of every mobileNumber, in request order
+     */
+    List<BatchItemResponseDto<LoansDto>> fetchLoans(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return delete outcome of every mobileNumber, in request order
+     */
+    List<BatchItemResponseDto<LoansDto>> deleteLoans(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param deletedAt - when each customer was deleted, by Mobile Number; loans created later
+     *                  belong to a new customer with the same number and are kept
+     * @return number of loans deleted
+     */
+    int deleteLoansOfCustomers(Map<String, LocalDateTime> deletedAt);
+
+    /**
+     *
+     * @param after - cursor returned with the previous page, null for the first page
+     * @param size - maximum number of loans on the page
+     * @return the next page of Loan Details
+     */
+    KeysetPageDto<LoansDto> listLoans(Long after, int size);
+
+    /**
+     *
+     * @param consumer - receives the Loan Details of every loan, oldest first
+     * @throws java.util.concurrent.CancellationException when the calling thread is interrupted,
+     *         e.g. because the asynchronous request timed out
+     */
+    void exportLoans(Consumer<LoansDto> consumer);
+
 }
@@ -1,36 +1,77 @@
 package com.viv.loans.service.impl;
 
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.viv.common.audit.AuditLogWriter;
+import com.viv.common.cache.MobileNumberFilter;
+import com.viv.common.outbox.OutboxWriter;
+import com.viv.loans.cache.LoansCacheInvalidator;
 import com.viv.loans.constants.LoansConstants;
+import com.viv.loans.dto.BatchItemResponseDto;
+import com.viv.loans.dto.KeysetPageDto;
 import com.viv.loans.dto.LoansDto;
 import com.viv.loans.entity.Loans;
 import com.viv.loans.exception.LoanAlreadyExistsException;
+import com.viv.loans.exception.LoanOverpaymentException;
 import com.viv.loans.exception.ResourceNotFoundException;
+import com.viv.loans.generator.LoanNumberGenerator;
 import com.viv.loans.mapper.LoansMapper;
+import com.viv.loans.repository.LoanRepayment.Balance;
 import com.viv.loans.repository.LoansRepository;
 import com.viv.loans.service.ILoansService;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class LoansServiceImpl implements ILoansService {
 
     private LoansRepository loansRepository;
+    private LoanNumberGenerator loanNumberGenerator;
+    private MobileNumberFilter mobileNumberFilter;
+    private PlatformTransactionManager transactionManager;
+    private EntityManager entityManager;
+    private OutboxWriter outboxWriter;
+    private LoansCacheInvalidator loansCacheInvalidator;
+    private ObjectProvider<AuditLogWriter> auditLogWriter;
+    private AuditorAware<String> auditorAware;
 
     /**
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
+    @Transactional
     public void createLoan(String mobileNumber) {
-        Optional<Loans> optionalLoans= loansRepository.findByMobileNumber(mobileNumber);
+        Optional<Loans> optionalLoans= mobileNumberFilter.find(mobileNumber, loansRepository::findByMobileNumber);
         if(optionalLoans.isPresent()){
             throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+mobileNumber);
         }
-        loansRepository.save(createNewLoan(mobileNumber));
+        Loans savedLoan = loansRepository.save(createNewLoan(mobileNumber));
+        mobileNumberFilter.add(List.of(mobileNumber));
+        outboxWriter.append(LoansConstants.AGGREGATE_LOAN, LoansConstants.EVENT_CREATED, savedLoan.getLoanNumber(),
+                LoansMapper.mapToLoansDto(savedLoan, new LoansDto()));
     }
 
     /**
@@ -39,8 +80,7 @@ public class LoansServiceImpl implements ILoansService {
      */
     private Loans createNewLoan(String mobileNumber) {
         Loans newLoan = new Loans();
-        long randomLoanNumber = 100000000000L + new Random().nextInt(900000000);
-        newLoan.setLoanNumber(Long.toString(randomLoanNumber));
+        newLoan.setLoanNumber(loanNumberGenerator.nextLoanNumber());
         newLoan.setMobileNumber(mobileNumber);
         newLoan.setLoanType(LoansConstants.HOME_LOAN);
         newLoan.setTotalLoan(LoansConstants.NEW_LOAN_LIMIT);
@@ -56,10 +96,19 @@ public class LoansServiceImpl implements ILoansService {
      */
     @Override
     public LoansDto fetchLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
-                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
-        );
-        return LoansMapper.mapToLoansDto(loans, new LoansDto());
+        return findLoan(mobileNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber));
+    }
+
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return Loan Details based on a given mobileNumber, empty when there are none
+     */
+    @Override
+    public Optional<LoansDto> findLoan(String mobileNumber) {
+        return mobileNumberFilter.find(mobileNumber, loansRepository::findByMobileNumber)
+                .map(loans -> LoansMapper.mapToLoansDto(loans, new LoansDto()));
     }
 
     /**
@@ -68,11 +117,23 @@ public class LoansServiceImpl implements ILoansService {
      * @return boolean indicating if the update of loan details is successful or not
      */
     @Override
+    @Transactional
     public boolean updateLoan(LoansDto loansDto) {
         Loans loans = loansRepository.findByLoanNumber(loansDto.getLoanNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "LoanNumber", loansDto.getLoanNumber()));
+        if (!Objects.equals(loansDto.getVersion(), loans.getVersion())) {
+            // the caller edited an older read, or did not say which; either would overwrite the repayments made
+            // since. @Version only guards the window from here to the save
+            throw new ObjectOptimisticLockingFailureException(Loans.class, loans.getLoanId());
+        }
         LoansMapper.mapToLoans(loansDto, loans);
-        loansRepository.save(loans);
+        // flushed here so that the event carries the incremented version
+        loansRepository.saveAndFlush(loans);
+        // the update may have moved the loan to another mobile number
+        mobileNumberFilter.add(List.of(loans.getMobileNumber()));
+        loansCacheInvalidator.evict(List.of(loans.getLoanId()));
+        outboxWriter.append(LoansConstants.AGGREGATE_LOAN, LoansConstants.EVENT_UPDATED, loans.getLoanNumber(),
+                LoansMapper.mapToLoansDto(loans, new LoansDto()));
         return  true;
     }
 
@@ -81,13 +142,178 @@ public class LoansServiceImpl implements ILoansService {
      * @return boolean indicating if the delete of loan details is successful or not
      */
     @Override
+    @Transactional
     public boolean deleteLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Loans loans = mobileNumberFilter.find(mobileNumber, loansRepository::findByMobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
         );
         loansRepository.deleteById(loans.getLoanId());
+        loansCacheInvalidator.evict(List.of(loans.getLoanId()));
+        outboxWriter.append(LoansConstants.AGGREGATE_LOAN, LoansConstants.EVENT_DELETED, loans.getLoanNumber(),
+                LoansMapper.mapToLoansDto(loans, new LoansDto()));
         return true;
     }
 
+    /**
+     * @param loanNumber - Loan Number
+     * @param amount - amount to be repaid
+     */
+    @Override
+    @Transactional
+    public void repayLoan(String loanNumber, int amount) {
+        // resolved through the natural-id cache; loan numbers never change, so the id stays valid
+        Loans loans = loansRepository.findByLoanNumber(loanNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "LoanNumber", loanNumber));
+        String updatedBy = auditorAware.getCurrentAuditor().orElse(null);
+        Balance balance = loansRepository.repay(loans.getLoanId(), amount, updatedBy).orElseThrow(() -> new LoanOverpaymentException(
+                        "Repayment exceeds the outstanding amount of loan " + loanNumber));
+        // the statement bypassed Hibernate, so only this loan is evicted, here and on the other instances
+        loansCacheInvalidator.evict(List.of(loans.getLoanId()));
+        auditLogWriter.ifAvailable(writer -> writer.recordBulk(Loans.class, loans.getLoanId(), Map.of(
+                "amountPaid", new Object[] { balance.amountPaid() - amount, balance.amountPaid() },
+                "outstandingAmount", new Object[] { balance.outstandingAmount() + amount, balance.outstandingAmount() })));
+        // the loan was read before the statement, so the amounts and version come from the row
+        LoansDto loansDto = LoansMapper.mapToLoansDto(loans, new LoansDto());
+        loansDto.setAmountPaid(balance.amountPaid());
+        loansDto.setOutstandingAmount(balance.outstandingAmount());
+        loansDto.setVersion(balance.version());
+        outboxWriter.append(LoansConstants.AGGREGATE_LOAN, LoansConstants.EVENT_UPDATED, loanNumber, loansDto);
+    }
+
+    /**
+     * @param mobileNumbers - Mobile Numbers of the Customers
+     * @return creation outcome of every mobileNumber, in request order
+     */
+    @Override
+    @Transactional
+    public List<BatchItemResponseDto<LoansDto>> createLoans(List<String> mobileNumbers) {
+        Set<String> registeredMobileNumbers = mobileNumberFilter.findAll(mobileNumbers, loansRepository::findAllByMobileNumberIn).stream()
+                .map(Loans::getMobileNumber).collect(Collectors.toCollection(HashSet::new));
+        List<BatchItemResponseDto<LoansDto>> results = new ArrayList<>(mobileNumbers.size());
+        List<Loans> newLoans = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            // add() also rejects a mobile number repeated within the same batch
+            if (!registeredMobileNumbers.add(mobileNumber)) {
+                results.add(new BatchItemResponseDto<>(mobileNumber, LoansConstants.STATUS_400,
+                        LoansConstants.MESSAGE_400_DUPLICATE, null));
+                continue;
+            }
+            newLoans.add(createNewLoan(mobileNumber));
+            results.add(new BatchItemResponseDto<>(mobileNumber, LoansConstants.STATUS_201, LoansConstants.MESSAGE_201, null));
+        }
+        loansRepository.saveAll(newLoans);
+        mobileNumberFilter.add(newLoans.stream().map(Loans::getMobileNumber).toList());
+        outboxWriter.appendAll(LoansConstants.AGGREGATE_LOAN, LoansConstants.EVENT_CREATED,
+                newLoans.stream().map(l -> LoansMapper.mapToLoansDto(l, new LoansDto())).toList(), LoansDto::getLoanNumber);
+        return results;
+    }
+
+    /**
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Loan Details or not found outcome of every mobileNumber, in request order
+     */
+    @Override
+    public List<BatchItemResponseDto<LoansDto>> fetchLoans(List<String> mobileNumbers) {
+        Map<String, LoansDto> loansDtos = mobileNumberFilter.findAll(mobileNumbers, loansRepository::findAllByMobileNumberIn).stream()
+                .collect(Collectors.toMap(Loans::getMobileNumber, loans -> LoansMapper.mapToLoansDto(loans, new LoansDto())));
+        List<BatchItemResponseDto<LoansDto>> results = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            LoansDto loansDto = loansDtos.get(mobileNumber);
+            results.add(loansDto != null
+                    ? new BatchItemResponseDto<>(mobileNumber, LoansConstants.STATUS_200, LoansConstants.MESSAGE_200, loansDto)
+                    : new BatchItemResponseDto<>(mobileNumber, LoansConstants.STATUS_404, LoansConstants.MESSAGE_404, null));
+        }
+        return results;
+    }
+
+    /**
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return delete outcome of every mobileNumber, in request order
+     */
+    @Override
+    @Transactional
+    public List<BatchItemResponseDto<LoansDto>> deleteLoans(List<String> mobileNumbers) {
+        List<Loans> loans = mobileNumberFilter.findAll(mobileNumbers, loansRepository::findAllByMobileNumberIn);
+        loansRepository.deleteAllByIdInBatch(loans.stream().map(Loans::getLoanId).toList());
+        auditLogWriter.ifAvailable(writer -> writer.recordDeleted(loans));
+        loansCacheInvalidator.evict(loans.stream().map(Loans::getLoanId).toList());
+        outboxWriter.appendAll(LoansConstants.AGGREGATE_LOAN, LoansConstants.EVENT_DELETED,
+                loans.stream().map(l -> LoansMapper.mapToLoansDto(l, new LoansDto())).toList(), LoansDto::getLoanNumber);
+        Set<String> deletedMobileNumbers = loans.stream().map(Loans::getMobileNumber).collect(Collectors.toSet());
+        List<BatchItemResponseDto<LoansDto>> results = new ArrayList<>(mobileNumbers.size());
+        for (String mobileNumber : mobileNumbers) {
+            results.add(deletedMobileNumbers.contains(mobileNumber)
+                    ? new BatchItemResponseDto<>(mobileNumber, LoansConstants.STATUS_200, LoansConstants.MESSAGE_200, null)
+                    : new BatchItemResponseDto<>(mobileNumber, LoansConstants.STATUS_404, LoansConstants.MESSAGE_404, null));
+        }
+        return results;
+    }
+
+    /**
+     * @param deletedAt - when each customer was deleted, by Mobile Number
+     * @return number of loans deleted
+     */
+    @Override
+    @Transactional
+    public int deleteLoansOfCustomers(Map<String, LocalDateTime> deletedAt) {
+        // not through the mobile number filter: a number it missed would leave an orphaned loan
+        List<Loans> loans = loansRepository.findAllByMobileNumberIn(deletedAt.keySet()).stream()
+                // created after the deletion, for a new customer who registered the number again
+                .filter(loan -> !loan.getCreatedAt().isAfter(deletedAt.get(loan.getMobileNumber())))
+                .toList();
+        if (loans.isEmpty()) {
+            return 0;
+        }
+        loansRepository.deleteAllByIdInBatch(loans.stream().map(Loans::getLoanId).toList());
+        auditLogWriter.ifAvailable(writer -> writer.recordDeleted(loans));
+        loansCacheInvalidator.evict(loans.stream().map(Loans::getLoanId).toList());
+        outboxWriter.appendAll(LoansConstants.AGGREGATE_LOAN, LoansConstants.EVENT_DELETED,
+                loans.stream().map(l -> LoansMapper.mapToLoansDto(l, new LoansDto())).toList(), LoansDto::getLoanNumber);
+        return loans.size();
+    }
+
+    /**
+     * @param after - cursor returned with the previous page, null for the first page
+     * @param size - maximum number of loans on the page
+     * @return the next page of Loan Details
+     */
+    @Override
+    public KeysetPageDto<LoansDto> listLoans(Long after, int size) {
+        // one extra row tells whether another page follows, without a count query
+        List<Loans> loans = loansRepository.findByLoanIdGreaterThanOrderByLoanIdAsc(after == null ? 0L : after,
+                Limit.of(size + 1));
+        Long nextCursor = null;
+        if (loans.size() > size) {
+            loans = loans.subList(0, size);
+            nextCursor = loans.get(size - 1).getLoanId();
+        }
+        return new KeysetPageDto<>(loans.stream().map(l -> LoansMapper.mapToLoansDto(l, new LoansDto())).toList(),
+                nextCursor);
+    }
+
+    /**
+     * @param consumer - receives the Loan Details of every loan, oldest first
+     */
+    @Override
+    public void exportLoans(Consumer<LoansDto> consumer) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            // a full export would otherwise push every row through the second-level cache,
+            // evicting the hot entries; a cache mode on the query itself is reset before a stream is read
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            try (Stream<Loans> loans = loansRepository.streamAllOrderByLoanId()) {
+                loans.forEach(l -> {
+                    // set when the request timed out or the client went away; stop reading the table
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Loans export cancelled");
+                    }
+                    consumer.accept(LoansMapper.mapToLoansDto(l, new LoansDto()));
+                    // keeps the persistence context, and with it the heap, from growing with the table
+                    entityManager.detach(l);
+                });
+            }
+        });
+    }
 
 }
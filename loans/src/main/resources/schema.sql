@@ -1,3 +1,9 @@
+-- starts above the ids the former AUTO_INCREMENT loan_id handed out (LoansConstants.ID_SEQUENCE_START)
+CREATE SEQUENCE IF NOT EXISTS `loans_seq` START WITH 1000000000 INCREMENT BY 50;
+
+-- handed out in blocks of LoansConstants.NUMBER_BLOCK_SIZE, above the legacy random range
+CREATE SEQUENCE IF NOT EXISTS `loan_number_seq` START WITH 200000000000 INCREMENT BY 1000;
+
 CREATE TABLE IF NOT EXISTS `loans` (
   `loan_id` int NOT NULL AUTO_INCREMENT,
   `mobile_number` varchar(15) NOT NULL,
@@ -6,9 +12,63 @@ CREATE TABLE IF NOT EXISTS `loans` (
   `total_loan` int NOT NULL,
   `amount_paid` int NOT NULL,
   `outstanding_amount` int NOT NULL,
-  `created_at` date NOT NULL,
+  -- compared with the time of customer.deleted events, so it keeps the time of day
+  `created_at` timestamp NOT NULL,
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint NOT NULL DEFAULT 0,
   PRIMARY KEY (`loan_id`)
-);
\ No newline at end of file
+);
+
+-- tables created before optimistic locking: add the version column, and start rows that an
+-- earlier nullable column left without a version at 0 so they can be updated
+ALTER TABLE `loans` ADD COLUMN IF NOT EXISTS `version` bigint NOT NULL DEFAULT 0;
+UPDATE `loans` SET `version` = 0 WHERE `version` IS NULL;
+ALTER TABLE `loans` ALTER COLUMN `version` SET DEFAULT 0;
+ALTER TABLE `loans` ALTER COLUMN `version` SET NOT NULL;
+
+-- tables created when created_at was a date: the cascade compares it with the time of
+-- customer.deleted events, and a midnight value would date a same-day row before the deletion
+ALTER TABLE `loans` ALTER COLUMN `created_at` SET DATA TYPE timestamp;
+
+ALTER TABLE `loans` ADD CONSTRAINT IF NOT EXISTS `ux_loans_mobile_number` UNIQUE (`mobile_number`);
+ALTER TABLE `loans` ADD CONSTRAINT IF NOT EXISTS `ux_loans_loan_number` UNIQUE (`loan_number`);
+
+-- change history written by AuditLogWriter; changes maps each touched property to [old, new]
+CREATE TABLE IF NOT EXISTS `audit_log` (
+  `audit_id` bigint AUTO_INCREMENT PRIMARY KEY,
+  `entity_name` varchar(100) NOT NULL,
+  `entity_id` varchar(100) NOT NULL,
+  `action` varchar(10) NOT NULL,
+  `changes` text,
+  `changed_by` varchar(20) DEFAULT NULL,
+  `changed_at` timestamp NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS `ix_audit_log_entity` ON `audit_log` (`entity_name`, `entity_id`);
+
+-- domain events written in the same transaction as the change, published by OutboxRelay
+CREATE TABLE IF NOT EXISTS `outbox` (
+  `event_id` bigint AUTO_INCREMENT PRIMARY KEY,
+  `aggregate_type` varchar(50) NOT NULL,
+  `aggregate_id` varchar(100) NOT NULL,
+  `event_type` varchar(50) NOT NULL,
+  `payload` text NOT NULL,
+  `created_at` timestamp NOT NULL
+);
+
+-- the instance whose OutboxRelay is relaying, renewed per batch and released after each run
+CREATE TABLE IF NOT EXISTS `outbox_relay_lease` (
+  `lease_id` int PRIMARY KEY,
+  `owner` varchar(300) NOT NULL,
+  `expires_at` timestamp NOT NULL
+);
+
+-- customer.deleted events already applied by CustomerDeletedListener, kept for cascade.delete.retention
+CREATE TABLE IF NOT EXISTS `processed_event` (
+  `event_id` varchar(100) PRIMARY KEY,
+  `processed_at` timestamp NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS `ix_processed_event_processed_at` ON `processed_event` (`processed_at`);
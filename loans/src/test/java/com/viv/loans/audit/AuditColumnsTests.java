@@ -0,0 +1,72 @@
+package com.viv.loans.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.common.audit.AuditAwareImpl;
+import com.viv.loans.dto.LoansDto;
+import com.viv.loans.service.ILoansService;
+
+/**
+ * created_* and updated_* as AuditColumnsListener fills them from the caller's header.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuditColumnsTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	ILoansService iLoansService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void insertAndUpdateRecordTheCaller() throws Exception {
+		mockMvc.perform(post("/api/create").param("mobileNumber", "7500000001")
+				.header(AuditAwareImpl.CALLER_HEADER, "creator")).andExpect(status().isCreated());
+
+		Map<String, Object> created = auditColumns("7500000001");
+		assertThat(created.get("CREATED_BY")).isEqualTo("creator");
+		assertThat(created.get("CREATED_AT")).isNotNull();
+		assertThat(created.get("UPDATED_BY")).isNull();
+		assertThat(created.get("UPDATED_AT")).isNull();
+
+		LoansDto loansDto = iLoansService.fetchLoan("7500000001");
+		loansDto.setLoanType("Car Loan");
+		mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(loansDto))
+				.header(AuditAwareImpl.CALLER_HEADER, "updater")).andExpect(status().isOk());
+
+		Map<String, Object> updated = auditColumns("7500000001");
+		assertThat(updated.get("CREATED_BY")).isEqualTo("creator");
+		assertThat(updated.get("CREATED_AT")).isEqualTo(created.get("CREATED_AT"));
+		assertThat(updated.get("UPDATED_BY")).isEqualTo("updater");
+		assertThat(updated.get("UPDATED_AT")).isNotNull();
+	}
+
+	private Map<String, Object> auditColumns(String mobileNumber) {
+		return jdbcTemplate.queryForMap(
+				"select created_at, created_by, updated_at, updated_by from loans where mobile_number = ?",
+				mobileNumber);
+	}
+
+}
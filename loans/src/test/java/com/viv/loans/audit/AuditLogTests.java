@@ -0,0 +1,46 @@
+package com.viv.loans.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viv.common.audit.AuditLogWriter;
+import com.viv.loans.entity.Loans;
+import com.viv.loans.service.ILoansService;
+
+/**
+ * The bulk statement of batch deletes, which Hibernate's events do not see.
+ */
+@SpringBootTest
+class AuditLogTests {
+
+	@Autowired
+	ILoansService iLoansService;
+
+	@Autowired
+	AuditLogWriter auditLogWriter;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void batchDeletesAreRecorded() {
+		iLoansService.createLoans(List.of("7800000001", "7800000002"));
+		List<Long> loanIds = jdbcTemplate.queryForList("""
+				select loan_id from loans where mobile_number in ('7800000001', '7800000002')""", Long.class);
+
+		iLoansService.deleteLoans(List.of("7800000001", "7800000002"));
+		auditLogWriter.flush();
+
+		assertThat(loanIds).hasSize(2).allSatisfy(loanId -> assertThat(jdbcTemplate.queryForList("""
+				select changes from audit_log where entity_name = ? and entity_id = ? and action = 'DELETE'""",
+				String.class, Loans.class.getName(), String.valueOf(loanId))).singleElement().asString()
+				.contains("outstandingAmount"));
+	}
+
+}
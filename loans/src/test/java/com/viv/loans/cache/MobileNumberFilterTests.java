@@ -0,0 +1,119 @@
+package com.viv.loans.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.AsyncConsumerRestartedEvent;
+import org.springframework.amqp.rabbit.listener.ListenerContainerConsumerFailedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.viv.common.cache.MobileNumberFilter;
+import com.viv.loans.constants.LoansConstants;
+import com.viv.loans.service.ILoansService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Loans created where this instance's filter never heard of them, as when the bus
+ * broadcast from the instance that created them was lost.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MobileNumberFilterTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	MobileNumberFilter mobileNumberFilter;
+
+	@Autowired
+	ILoansService loansService;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Test
+	void createForANumberTheFilterMissedIsABadRequest() throws Exception {
+		insertBehindTheFilter(1_000_001, "7600000001");
+
+		mockMvc.perform(post("/api/create").param("mobileNumber", "7600000001"))
+				.andExpect(status().isBadRequest())
+				// the duplicate check during the fallback window, or the unique constraint after it
+				.andExpect(jsonPath("$.errorMessage", startsWith(LoansConstants.MESSAGE_400_DUPLICATE)));
+	}
+
+	@Test
+	void cascadeDeletesLoansTheFilterMissed() {
+		insertBehindTheFilter(1_000_002, "7600000002");
+
+		assertThat(loansService.deleteLoansOfCustomers(Map.of("7600000002", LocalDateTime.now()))).isEqualTo(1);
+	}
+
+	@Test
+	void fetchDuringTheFallbackWindowFindsALoanTheFilterMissed() throws Exception {
+		// the window opened when the filter was built at startup
+		insertBehindTheFilter(1_000_003, "7600000004");
+
+		mockMvc.perform(get("/api/fetch").param("mobileNumber", "7600000004"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.mobileNumber").value("7600000004"));
+		assertThat(mobileNumberFilter.mightContain("7600000004")).isTrue();
+		assertThat(meterRegistry.get("mobile.filter.missed").counter().count()).isPositive();
+	}
+
+	@Test
+	void restartedConsumerRebuildsTheFilter() {
+		insertBehindTheFilter(1_000_004, "7600000005");
+
+		mobileNumberFilter.onConsumerRestarted(new AsyncConsumerRestartedEvent(this, "old", "new"));
+		mobileNumberFilter.rebuildAfterRestart();
+
+		assertThat(mobileNumberFilter.mightContain("7600000005")).isTrue();
+	}
+
+	@Test
+	void consumerThatFailsAgainDoesNotRebuildTheFilter() {
+		insertBehindTheFilter(1_000_005, "7600000006");
+
+		// as for every recovery attempt while the broker is down
+		mobileNumberFilter.onConsumerRestarted(new AsyncConsumerRestartedEvent(this, "old", "new"));
+		mobileNumberFilter.onConsumerFailed(new ListenerContainerConsumerFailedEvent(this, "down", null, false));
+		mobileNumberFilter.rebuildAfterRestart();
+
+		assertThat(mobileNumberFilter.mightContain("7600000006")).isFalse();
+	}
+
+	@Test
+	void failedBroadcastsWaitForARetry() {
+		// there is no broker in the tests, so every broadcast fails
+		loansService.createLoan("7600000003");
+
+		assertThat(meterRegistry.get("mobile.filter.unsent").gauge().value()).isPositive();
+	}
+
+	private void insertBehindTheFilter(long loanId, String mobileNumber) {
+		jdbcTemplate.update("""
+				insert into loans (loan_id, mobile_number, loan_number, loan_type, total_loan, amount_paid,
+				    outstanding_amount, created_at, created_by)
+				values (?, ?, ?, 'Home Loan', 100000, 0, 100000, current_date, 'test')""",
+				loanId, mobileNumber, "9" + mobileNumber);
+		assertThat(mobileNumberFilter.mightContain(mobileNumber)).isFalse();
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.viv.loans.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.viv.common.sql.StatementCounter;
+import com.viv.loans.entity.Loans;
+import com.viv.loans.event.LoansCacheEvictEvent;
+import com.viv.loans.repository.LoansRepository;
+import com.viv.loans.service.ILoansService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+class SecondLevelCacheTests {
+
+	@Autowired
+	ILoansService iLoansService;
+
+	@Autowired
+	LoansRepository loansRepository;
+
+	@Autowired
+	StatementCounter statementCounter;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	@Test
+	void lookupByLoanNumberIsServedFromTheCache() {
+		String loanNumber = createLoan("7300000001");
+		entityManagerFactory.getCache().evictAll();
+
+		assertThat(statements(loanNumber)).isPositive();
+		assertThat(statements(loanNumber)).isZero();
+	}
+
+	@Test
+	void repaymentIsVisibleToTheNextLookup() {
+		String loanNumber = createLoan("7300000002");
+		loansRepository.findByLoanNumber(loanNumber);
+
+		iLoansService.repayLoan(loanNumber, 1_000);
+
+		assertThat(loansRepository.findByLoanNumber(loanNumber)).get()
+				.extracting(Loans::getAmountPaid).isEqualTo(1_000);
+	}
+
+	@Test
+	void repaymentKeepsOtherLoansCached() {
+		Loans other = loansRepository.findByLoanNumber(createLoan("7300000005")).orElseThrow();
+
+		iLoansService.repayLoan(createLoan("7300000006"), 1_000);
+
+		assertThat(entityManagerFactory.getCache().contains(Loans.class, other.getLoanId())).isTrue();
+	}
+
+	@Test
+	void evictionFromAnotherInstanceDropsTheLoan() {
+		Loans loans = loansRepository.findByLoanNumber(createLoan("7300000003")).orElseThrow();
+		assertThat(entityManagerFactory.getCache().contains(Loans.class, loans.getLoanId())).isTrue();
+
+		eventPublisher.publishEvent(new LoansCacheEvictEvent(this, "loans:other",
+				new PathDestinationFactory().getDestination("loans:**"), List.of(loans.getLoanId())));
+
+		assertThat(entityManagerFactory.getCache().contains(Loans.class, loans.getLoanId())).isFalse();
+	}
+
+	@Test
+	void exportLeavesTheCacheAlone() {
+		Loans loans = loansRepository.findByLoanNumber(createLoan("7300000004")).orElseThrow();
+		entityManagerFactory.getCache().evictAll();
+
+		iLoansService.exportLoans(loansDto -> {
+		});
+
+		assertThat(entityManagerFactory.getCache().contains(Loans.class, loans.getLoanId())).isFalse();
+	}
+
+	private String createLoan(String mobileNumber) {
+		iLoansService.createLoan(mobileNumber);
+		return iLoansService.fetchLoan(mobileNumber).getLoanNumber();
+	}
+
+	private int statements(String loanNumber) {
+		statementCounter.open();
+		assertThat(loansRepository.findByLoanNumber(loanNumber)).isPresent();
+		return statementCounter.close();
+	}
+
+}
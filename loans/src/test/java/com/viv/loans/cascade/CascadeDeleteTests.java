@@ -0,0 +1,46 @@
+package com.viv.loans.cascade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.viv.loans.service.ILoansService;
+
+/**
+ * The deleter the customer.deleted listener hands its batches to; the listener itself
+ * is tested in common.
+ */
+@SpringBootTest(properties = "spring.rabbitmq.listener.simple.auto-startup=false")
+class CascadeDeleteTests {
+
+	@Autowired
+	ILoansService loansService;
+
+	@Test
+	void deletesTheLoansOfTheCustomers() {
+		loansService.createLoans(List.of("7100000001", "7100000002"));
+
+		assertThat(loansService.deleteLoansOfCustomers(Map.of("7100000001", LocalDateTime.now(),
+				"7100000009", LocalDateTime.now()))).isEqualTo(1);
+
+		assertThat(loansService.findLoan("7100000001")).isEmpty();
+		assertThat(loansService.findLoan("7100000002")).isPresent();
+	}
+
+	@Test
+	void keepsTheLoansOfANumberRegisteredAgainBeforeTheEventArrived() {
+		LocalDateTime deletedAt = LocalDateTime.now().minusSeconds(1);
+		loansService.createLoan("7100000005");
+
+		assertThat(loansService.deleteLoansOfCustomers(Map.of("7100000005", deletedAt))).isZero();
+
+		assertThat(loansService.findLoan("7100000005")).isPresent();
+	}
+
+}
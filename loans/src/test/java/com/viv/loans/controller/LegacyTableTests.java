@@ -0,0 +1,88 @@
+package com.viv.loans.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.loans.dto.LoansDto;
+import com.viv.loans.service.ILoansService;
+
+/**
+ * A loans table from before this version of the service: ids from its AUTO_INCREMENT column,
+ * a NULL version, as ddl-auto added that column without a default, and created_at as a date.
+ * legacy-loans.sql creates it before schema.sql runs.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:legacy-loans;INIT=RUNSCRIPT FROM 'classpath:legacy-loans.sql'",
+		// Hibernate's update happens to convert column types on H2; schema.sql has to do it alone
+		"spring.jpa.hibernate.ddl-auto=none" })
+@AutoConfigureMockMvc
+class LegacyTableTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	ILoansService iLoansService;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void loanWithoutAVersionCanBeUpdated() throws Exception {
+		LoansDto loansDto = iLoansService.fetchLoan("7900000101");
+		assertThat(loansDto.getVersion()).isNotNull();
+		loansDto.setLoanType("Car Loan");
+
+		mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(loansDto))).andExpect(status().isOk());
+
+		assertThat(iLoansService.fetchLoan("7900000101").getLoanType()).isEqualTo("Car Loan");
+	}
+
+	@Test
+	void repaymentCountsUpFromTheBackfilledVersion() {
+		long version = iLoansService.fetchLoan("7900000101").getVersion();
+
+		iLoansService.repayLoan("100000000101", 1_000);
+
+		assertThat(iLoansService.fetchLoan("7900000101").getVersion()).isEqualTo(version + 1);
+	}
+
+	@Test
+	void newLoanGetsAnIdAboveTheLegacyOnes() {
+		iLoansService.createLoan("7900000102");
+
+		assertThat(iLoansService.fetchLoan("7900000102")).isNotNull();
+	}
+
+	@Test
+	void loanCreatedAgainOnTheDayOfTheDeletionIsKept() {
+		LocalDateTime deletedAt = LocalDateTime.now().minusSeconds(1);
+		iLoansService.createLoan("7900000103");
+
+		// read back from the table, as after the cache entry expired or on another instance;
+		// a created_at cut to midnight would date the new loan before the deletion
+		entityManagerFactory.getCache().evictAll();
+		assertThat(iLoansService.deleteLoansOfCustomers(Map.of("7900000103", deletedAt))).isZero();
+
+		assertThat(iLoansService.findLoan("7900000103")).isPresent();
+	}
+
+}
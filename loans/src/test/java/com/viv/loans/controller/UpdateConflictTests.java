@@ -0,0 +1,60 @@
+package com.viv.loans.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viv.loans.dto.LoansDto;
+import com.viv.loans.service.ILoansService;
+
+/**
+ * Full updates racing a repayment, which changes the loan without going through them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UpdateConflictTests {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	ILoansService iLoansService;
+
+	@Test
+	void staleUpdateDoesNotUndoARepayment() throws Exception {
+		iLoansService.createLoan("7900000001");
+		LoansDto loansDto = iLoansService.fetchLoan("7900000001");
+		iLoansService.repayLoan(loansDto.getLoanNumber(), 1_000);
+		loansDto.setLoanType("Car Loan");
+
+		mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(loansDto))).andExpect(status().isConflict());
+
+		assertThat(iLoansService.fetchLoan("7900000001").getAmountPaid()).isEqualTo(1_000);
+	}
+
+	@Test
+	void updateWithoutAVersionIsRejected() throws Exception {
+		iLoansService.createLoan("7900000002");
+		LoansDto loansDto = iLoansService.fetchLoan("7900000002");
+		loansDto.setVersion(null);
+
+		mockMvc.perform(put("/api/update").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(loansDto)))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.version").exists());
+	}
+
+}
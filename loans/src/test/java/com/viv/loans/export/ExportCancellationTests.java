@@ -0,0 +1,43 @@
+package com.viv.loans.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.viv.loans.service.ILoansService;
+
+/**
+ * An export whose thread is interrupted, as Spring MVC does when the asynchronous
+ * request times out.
+ */
+@SpringBootTest
+class ExportCancellationTests {
+
+	@Autowired
+	ILoansService iLoansService;
+
+	@Test
+	void interruptedExportStopsReading() {
+		iLoansService.createLoan("7700000001");
+		iLoansService.createLoan("7700000002");
+		AtomicInteger exported = new AtomicInteger();
+
+		try {
+			assertThatThrownBy(() -> iLoansService.exportLoans(loansDto -> {
+				exported.incrementAndGet();
+				Thread.currentThread().interrupt();
+			})).isInstanceOf(CancellationException.class);
+		} finally {
+			Thread.interrupted();
+		}
+
+		assertThat(exported).hasValue(1);
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.viv.loans.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.viv.loans.constants.LoansConstants;
+import com.viv.loans.service.ILoansService;
+
+/**
+ * The events the writes append; relaying them is tested in common.
+ */
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class OutboxEventsTests {
+
+	@Autowired
+	ILoansService loansService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void createAndDeleteAppendTheirEvents() {
+		loansService.createLoan("7000000001");
+		String loanNumber = loansService.fetchLoan("7000000001").getLoanNumber();
+		loansService.deleteLoan("7000000001");
+
+		assertThat(routingKeys(loanNumber)).containsExactly("loan.created", "loan.deleted");
+	}
+
+	@Test
+	void repaymentsAppendTheNewBalance() {
+		loansService.createLoan("7000000002");
+		String loanNumber = loansService.fetchLoan("7000000002").getLoanNumber();
+
+		loansService.repayLoan(loanNumber, 100);
+
+		assertThat(routingKeys(loanNumber)).containsExactly("loan.created", "loan.updated");
+		assertThat(jdbcTemplate.queryForObject("""
+				select payload from outbox where aggregate_id = ? and event_type = ?""", String.class, loanNumber,
+				LoansConstants.EVENT_UPDATED)).contains("\"amountPaid\":100",
+				"\"outstandingAmount\":" + (LoansConstants.NEW_LOAN_LIMIT - 100), "\"version\":1");
+	}
+
+	private List<String> routingKeys(String aggregateId) {
+		return jdbcTemplate.queryForList("""
+				select aggregate_type || '.' || event_type from outbox where aggregate_id = ? order by event_id""",
+				String.class, aggregateId);
+	}
+
+}
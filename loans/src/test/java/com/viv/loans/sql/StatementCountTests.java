@@ -0,0 +1,54 @@
+package com.viv.loans.sql;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.viv.common.sql.AbstractStatementCountTests;
+import com.viv.loans.dto.LoansDto;
+
+// the update count below relies on the second-level cache, which ENTITY_CACHE_ENABLED can turn off
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+class StatementCountTests extends AbstractStatementCountTests<LoansDto> {
+
+	StatementCountTests() {
+		super(LoansDto.class, "72000000");
+	}
+
+	@Override
+	protected RequestBuilder create(String mobileNumber) {
+		return post("/api/create").param("mobileNumber", mobileNumber);
+	}
+
+	@Override
+	protected void edit(LoansDto loansDto) {
+		loansDto.setLoanType("Car Loan");
+	}
+
+	@Override
+	protected int createStatements() {
+		// loan insert and outbox insert; the mobile number filter rules out the duplicate check
+		return 2;
+	}
+
+	@Override
+	protected int fetchStatements() {
+		return 1;
+	}
+
+	@Override
+	protected int updateStatements() {
+		// update and outbox insert only: the fetch left the loan in the second-level cache, where the
+		// lookup by loan number finds it, and saveAndFlush merges nothing as the loan is already managed
+		return 2;
+	}
+
+	@Override
+	protected int deleteStatements() {
+		// lookup, delete and outbox insert; deleteById finds the loan in the persistence context
+		// instead of selecting it again
+		return 3;
+	}
+
+}
@@ -0,0 +1,22 @@
+-- a loans table from before optimistic locking, after ddl-auto added the version column
+-- without a default; run on every new connection, so it only creates what is missing
+CREATE TABLE IF NOT EXISTS `loans` (
+  `loan_id` int NOT NULL AUTO_INCREMENT,
+  `mobile_number` varchar(15) NOT NULL,
+  `loan_number` varchar(100) NOT NULL,
+  `loan_type` varchar(100) NOT NULL,
+  `total_loan` int NOT NULL,
+  `amount_paid` int NOT NULL,
+  `outstanding_amount` int NOT NULL,
+  `created_at` date NOT NULL,
+  `created_by` varchar(20) NOT NULL,
+  `updated_at` date DEFAULT NULL,
+  `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint DEFAULT NULL,
+  PRIMARY KEY (`loan_id`)
+);
+
+INSERT INTO `loans` (`mobile_number`, `loan_number`, `loan_type`, `total_loan`, `amount_paid`,
+    `outstanding_amount`, `created_at`, `created_by`)
+SELECT '7900000101', '100000000101', 'Home Loan', 100000, 0, 100000, CURRENT_DATE, 'LOANS_MS'
+WHERE NOT EXISTS (SELECT 1 FROM `loans` WHERE `loan_number` = '100000000101');